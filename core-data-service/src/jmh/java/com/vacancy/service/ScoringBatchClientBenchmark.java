@@ -0,0 +1,156 @@
+package com.vacancy.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vacancy.config.DownstreamProperties;
+import com.vacancy.config.DownstreamRequestFactory;
+import com.vacancy.config.Downstreams;
+import com.vacancy.dto.ResumeVacancyMatchExternalRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность и задержка {@link ScoringBatchClient} против локального скорера-заглушки.
+ * Заглушка моделирует накладные расходы на вызов LLM (HTTP, промпт), стоимость одной пары и ограниченное
+ * число одновременных вызовов LLM. Сравниваются пакетный режим и поэлементные вызовы.
+ * <p>
+ * {@code stub=fanout} повторяет resume-score-service: пакет разбирается на пары, и каждая пара - отдельный
+ * вызов LLM (до {@link #SCORER_BATCH_WORKERS} параллельно, как {@code MATCH_BATCH_WORKERS}).
+ * {@code stub=combined} - гипотетический скорер, оценивающий весь пакет одним промптом.
+ * Запуск: {@code ./gradlew jmh -Pjmh.includes=ScoringBatchClientBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Threads(32)
+public class ScoringBatchClientBenchmark {
+    private static final long REQUEST_OVERHEAD_MS = 20;
+    private static final long ITEM_COST_MS = 5;
+    private static final int STUB_CAPACITY = 4;
+    private static final int SCORER_BATCH_WORKERS = 8;
+
+    @Param({"true", "false"})
+    public boolean batching;
+
+    @Param({"fanout", "combined"})
+    public String stub;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Semaphore capacity = new Semaphore(STUB_CAPACITY);
+    private HttpServer server;
+    private ScoringBatchClient client;
+    private DownstreamRequestFactory requestFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/match-full/batch", exchange -> {
+            JsonNode items = mapper.readTree(exchange.getRequestBody()).get("items");
+            ArrayNode results = mapper.createArrayNode();
+            items.forEach(item -> results.addObject()
+                    .put("resumeId", item.at("/resume/id").asInt())
+                    .put("vacancyId", item.at("/vacancy/id").asLong())
+                    .set("result", result(item)));
+            if (stub.equals("combined")) {
+                simulate(items.size());
+            } else {
+                try (ExecutorService workers = Executors.newFixedThreadPool(Math.min(SCORER_BATCH_WORKERS, items.size()))) {
+                    items.forEach(item -> workers.execute(() -> simulate(1)));
+                }
+            }
+            respond(exchange, mapper.createObjectNode().set("results", results));
+        });
+        server.createContext("/api/match-full", exchange -> {
+            JsonNode item = mapper.readTree(exchange.getRequestBody());
+            simulate(1);
+            respond(exchange, result(item));
+        });
+        server.start();
+        DownstreamProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "http.clients.scorer.base-url", "http://127.0.0.1:" + server.getAddress().getPort(),
+                "http.clients.scorer.max-connections", 64)))
+                .bindOrCreate("http.clients", DownstreamProperties.class);
+        Downstreams downstreams = new Downstreams(properties);
+        requestFactory = new DownstreamRequestFactory(downstreams);
+        client = new ScoringBatchClient(new RestTemplate(requestFactory), downstreams, batching, Duration.ofMillis(10), 16,
+                Duration.ofMinutes(1), Duration.ofMinutes(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdown();
+        requestFactory.destroy();
+        server.stop(0);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object score() {
+        ResumeVacancyMatchExternalRequest request = new ResumeVacancyMatchExternalRequest();
+        ResumeVacancyMatchExternalRequest.ResumeExternal resume = new ResumeVacancyMatchExternalRequest.ResumeExternal();
+        resume.setId(ThreadLocalRandom.current().nextInt(1, 10_000));
+        resume.setRole("Java Developer");
+        ResumeVacancyMatchExternalRequest.VacancyExternal vacancy = new ResumeVacancyMatchExternalRequest.VacancyExternal();
+        vacancy.setId(42L);
+        vacancy.setTitle("Senior Java Developer");
+        request.setResume(resume);
+        request.setVacancy(vacancy);
+        return client.score(request);
+    }
+
+    private ObjectNode result(JsonNode item) {
+        return mapper.createObjectNode()
+                .put("resumeId", item.at("/resume/id").asInt())
+                .put("vacancyId", item.at("/vacancy/id").asLong())
+                .put("score", 0.7)
+                .put("verdict", "stub");
+    }
+
+    private void simulate(int items) {
+        capacity.acquireUninterruptibly();
+        try {
+            Thread.sleep(REQUEST_OVERHEAD_MS + ITEM_COST_MS * items);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            capacity.release();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, JsonNode body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
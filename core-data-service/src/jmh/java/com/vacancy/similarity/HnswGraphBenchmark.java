@@ -0,0 +1,128 @@
+package com.vacancy.similarity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск top-10 в графе HNSW против точного перебора тех же векторов.
+ * Векторы - {@link HashedEmbedding} синтетических документов по 40 терминов из словаря в 20 000 терминов
+ * с тематическими кластерами, как у резюме и вакансий. Полнота recall@10 для каждого ef печатается
+ * после построения графа. Запуск: {@code ./gradlew jmh -Pjmh.includes=HnswGraphBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HnswGraphBenchmark {
+    private static final int DIMENSIONS = 256;
+    private static final int K = 10;
+    private static final int QUERIES = 200;
+
+    @Param({"20000"})
+    private int documents;
+
+    @Param({"16"})
+    private int m;
+
+    @Param({"20", "50", "100", "200"})
+    private int ef;
+
+    private Path directory;
+    private HnswGraph graph;
+    private float[][] vectors;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        vectors = new float[documents][];
+        for (int i = 0; i < documents; i++) {
+            vectors[i] = HashedEmbedding.embed(document(random), DIMENSIONS);
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = HashedEmbedding.embed(document(random), DIMENSIONS);
+        }
+        directory = Files.createTempDirectory("hnsw-bench");
+        graph = HnswGraph.open(directory.resolve("bench.hnsw"), DIMENSIONS, m, 6, 200);
+        for (int i = 0; i < documents; i++) {
+            graph.put(i, vectors[i]);
+        }
+        double recall = 0;
+        for (float[] query : queries) {
+            Set<Long> exact = new HashSet<>(exact(query));
+            long found = graph.search(query, K, ef).stream().filter(n -> exact.contains(n.id())).count();
+            recall += (double) found / K;
+        }
+        System.out.printf("%nrecall@%d (documents=%d, M=%d, ef=%d): %.3f%n", K, documents, m, ef, recall / QUERIES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        graph.close();
+        Files.deleteIfExists(directory.resolve("bench.hnsw"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Документ из одной из 50 тем: половина терминов из словаря темы, половина - из общего.
+     */
+    private static Map<String, Integer> document(Random random) {
+        int topic = random.nextInt(50);
+        Map<String, Integer> counts = new HashMap<>();
+        while (counts.size() < 40) {
+            String term = random.nextBoolean() ? "t" + topic + "_" + random.nextInt(200) : "w" + random.nextInt(20_000);
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private List<Long> exact(float[] query) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>((a, b) -> Float.compare(Float.intBitsToFloat((int) a[1]),
+                Float.intBitsToFloat((int) b[1])));
+        for (int i = 0; i < vectors.length; i++) {
+            float score = 0;
+            for (int j = 0; j < DIMENSIONS; j++) {
+                score += query[j] * vectors[i][j];
+            }
+            heap.add(new long[]{i, Float.floatToIntBits(score)});
+            if (heap.size() > K) {
+                heap.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(K);
+        heap.forEach(e -> ids.add(e[0]));
+        return ids;
+    }
+
+    @Benchmark
+    public List<HnswGraph.Neighbor> hnsw() {
+        return graph.search(queries[next++ % QUERIES], K, ef);
+    }
+
+    @Benchmark
+    public List<Long> exactScan() {
+        return exact(queries[next++ % QUERIES]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.vacancy.similarity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск top-K в корпусе вакансий одного пользователя: разреженное произведение на Vector API
+ * против скалярного цикла. Документы - по 40 терминов из словаря в 20 000 терминов.
+ * Запуск: {@code ./gradlew jmh -Pjmh.includes=TfIdfCorpusBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TfIdfCorpusBenchmark {
+    @Param({"10000", "200000"})
+    private int documents;
+
+    private TfIdfCorpus corpus;
+    private TfIdfCorpus.Document query;
+    private float[] dense;
+    private int[] terms;
+    private float[] weights;
+    private final SparseDot scalar = new ScalarSparseDot();
+    private final SparseDot vector = SparseDot.best();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Vocabulary vocabulary = new Vocabulary();
+        corpus = new TfIdfCorpus(vocabulary);
+        for (int i = 0; i < documents; i++) {
+            corpus.put(corpus.document(i, 1, "v" + i, randomCounts(random, 40)));
+        }
+        query = corpus.document(-1, 1, "q", randomCounts(random, 30));
+        dense = new float[vocabulary.size()];
+        for (int i = 0; i < dense.length; i++) {
+            dense[i] = random.nextFloat();
+        }
+        terms = corpus.find(0).orElseThrow().terms();
+        weights = corpus.find(0).orElseThrow().tf();
+    }
+
+    private static Map<String, Integer> randomCounts(Random random, int size) {
+        Map<String, Integer> counts = new HashMap<>();
+        while (counts.size() < size) {
+            counts.merge("t" + random.nextInt(20_000), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public List<TfIdfCorpus.Hit> topK() {
+        return corpus.topK(query, 1, 20);
+    }
+
+    @Benchmark
+    public float scalarDot() {
+        return scalar.dot(dense, terms, weights);
+    }
+
+    @Benchmark
+    public float vectorDot() {
+        return vector.dot(dense, terms, weights);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vacancy.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение разбора jsonb-полей резюме: прежний вариант (новый ObjectMapper и TypeReference на каждый вызов,
+ * как было в ResumeService.convertToDto) против {@link JsonbCodec}.
+ * Запуск: {@code ./gradlew jmh}, аллокации на операцию - в выводе профайлера gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonbCodecBenchmark {
+    private String hardSkills;
+    private String workExperience;
+
+    @Setup
+    public void setUp() {
+        hardSkills = "[\"Java\",\"Spring Boot\",\"PostgreSQL\",\"Kafka\",\"Docker\",\"Kubernetes\",\"Hibernate\",\"REST\"]";
+        workExperience = "[{\"start_date\":\"2019-03\",\"end_date\":\"2022-08\",\"company_name\":\"Ромашка\","
+                + "\"achievements\":[\"Перевел монолит на микросервисы\",\"Сократил время ответа API в 3 раза\"],"
+                + "\"technologies\":[\"Java\",\"Spring\",\"PostgreSQL\"]},"
+                + "{\"start_date\":\"2022-09\",\"end_date\":null,\"company_name\":\"Лютик\","
+                + "\"achievements\":[\"Запустил платформу подбора\"],\"technologies\":[\"Kotlin\",\"Kafka\"]}]";
+    }
+
+    @Benchmark
+    public Object legacyMapperPerCall() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> skills = objectMapper.readValue(hardSkills, new TypeReference<List<String>>() {
+        });
+        List<Map<String, Object>> experience = objectMapper.readValue(workExperience, new TypeReference<List<Map<String, Object>>>() {
+        });
+        return new Object[]{skills, experience};
+    }
+
+    @Benchmark
+    public Object codec() {
+        List<String> skills = JsonbCodec.readStrings(hardSkills);
+        List<Map<String, Object>> experience = JsonbCodec.readObjects(workExperience);
+        return new Object[]{skills, experience};
+    }
+
+    @Benchmark
+    public Object legacyWriteMapperPerCall() throws Exception {
+        return new ObjectMapper().writeValueAsString(List.of("Java", "Spring Boot", "PostgreSQL"));
+    }
+
+    @Benchmark
+    public Object codecWrite() {
+        return JsonbCodec.writeStrings(List.of("Java", "Spring Boot", "PostgreSQL"));
+    }
+}
@@ -1,13 +1,111 @@
 package com.vacancy.config;
 
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 @Configuration
+@EnableConfigurationProperties(DownstreamProperties.class)
 public class ApplicationConfiguration {
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public DownstreamRequestFactory downstreamRequestFactory(Downstreams downstreams) {
+        return new DownstreamRequestFactory(downstreams);
+    }
+
+    /**
+     * Общий клиент всех вызовов внешних сервисов: пулы соединений и таймауты по {@code http.clients.*}.
+     * Перехватчик gzip подключается, только если сжатие включено хотя бы для одного сервиса:
+     * с перехватчиками {@code RestTemplate} буферизует тело в памяти, включая загружаемые PDF.
+     */
+    @Bean
+    public RestTemplate restTemplate(DownstreamRequestFactory requestFactory, Downstreams downstreams) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        if (Arrays.stream(Downstream.values()).anyMatch(d -> downstreams.settings(d).gzipRequests())
+                || downstreams.defaults().gzipRequests()) {
+            restTemplate.getInterceptors().add(new GzipRequestInterceptor(downstreams));
+        }
+        return restTemplate;
+    }
+
+    /**
+     * Контейнер пишет multipart-файлы сразу в каталог загрузок: {@link com.vacancy.storage.UploadSpooler}
+     * забирает их переименованием, без повторного копирования. Путь абсолютный:
+     * относительный Tomcat отсчитывал бы от своего временного каталога.
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties properties,
+                                                         @Value("${resume.upload.spool-dir:${resume.pdf-storage.path:./data/resume-pdfs}/tmp}") String spoolDir)
+            throws IOException {
+        Path location = Paths.get(spoolDir).toAbsolutePath();
+        Files.createDirectories(location);
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(location.toString());
+        factory.setMaxFileSize(properties.getMaxFileSize());
+        factory.setMaxRequestSize(properties.getMaxRequestSize());
+        factory.setFileSizeThreshold(properties.getFileSizeThreshold());
+        return factory.createMultipartConfig();
+    }
+
+    /**
+     * Пул для фоновой нормализации резюме. Размер очереди ограничен:
+     * при переполнении новые загрузки отклоняются, а не копятся в памяти.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor resumeIngestionExecutor(@Value("${resume.ingestion.pool-size:4}") int poolSize,
+                                                          @Value("${resume.ingestion.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("resume-ingestion-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Пул для пакетной загрузки резюме, отдельный от {@code resumeIngestionExecutor}: пакет до
+     * {@code max-batch-files} файлов не занимает потоки одиночных загрузок. Задача пула - обработчик пакета,
+     * который разбирает файлы по одному; пакеты сверх пула ждут в очереди.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor resumeBatchIngestionExecutor(@Value("${resume.ingestion.batch-pool-size:4}") int poolSize,
+                                                               @Value("${resume.ingestion.batch-queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("resume-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Пул для пакетного полного матчинга. Параллелизм одного пакета дополнительно ограничен
+     * {@code match.full.bulk.concurrency}, этот пул - общий потолок вызовов скорера с узла.
+     * Очереди по умолчанию нет: задача, для которой нет свободного потока, отклоняется сразу.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkMatchExecutor(@Value("${match.full.bulk.pool-size:16}") int poolSize,
+                                                    @Value("${match.full.bulk.queue-capacity:0}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-match-");
+        return executor;
     }
 }
@@ -0,0 +1,30 @@
+package com.vacancy.config;
+
+/**
+ * Внешние сервисы, к которым обращается core-data-service. Адрес и параметры HTTP-клиента
+ * каждого задаются в {@code http.clients.<key>}, см. {@link Downstreams}.
+ */
+public enum Downstream {
+    /** llm-integration-service: нормализация резюме, быстрый подбор, генерация вакансий */
+    LLM("llm", "http://127.0.0.1:8000"),
+    /** jobs-parser-service: парсинг вакансий hh, habr, getmatch */
+    PARSER("parser", "http://127.0.0.1:8001"),
+    /** resume-score-service: полный матчинг резюме и вакансии */
+    SCORER("scorer", "http://127.0.0.1:8080");
+
+    private final String key;
+    private final String defaultBaseUrl;
+
+    Downstream(String key, String defaultBaseUrl) {
+        this.key = key;
+        this.defaultBaseUrl = defaultBaseUrl;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String defaultBaseUrl() {
+        return defaultBaseUrl;
+    }
+}
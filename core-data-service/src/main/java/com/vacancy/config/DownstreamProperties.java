@@ -0,0 +1,24 @@
+package com.vacancy.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.context.properties.bind.Name;
+
+/**
+ * Настройки HTTP-клиентов внешних сервисов {@code http.clients.*}: по секции на каждый {@link Downstream}
+ * и {@code default} для прочих адресов. Незаданные параметры берутся из {@link Downstreams.Settings}.
+ */
+@ConfigurationProperties(prefix = "http.clients")
+public record DownstreamProperties(@DefaultValue Downstreams.Settings llm,
+                                   @DefaultValue Downstreams.Settings parser,
+                                   @DefaultValue Downstreams.Settings scorer,
+                                   @Name("default") @DefaultValue Downstreams.Settings defaults) {
+
+    public Downstreams.Settings get(Downstream downstream) {
+        return switch (downstream) {
+            case LLM -> llm;
+            case PARSER -> parser;
+            case SCORER -> scorer;
+        };
+    }
+}
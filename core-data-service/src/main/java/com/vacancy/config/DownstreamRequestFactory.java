@@ -0,0 +1,93 @@
+package com.vacancy.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Фабрика запросов {@code RestTemplate} с отдельным пулом Apache HttpClient на каждый {@link Downstream}:
+ * долгие вызовы скорера не занимают соединения LLM-сервиса и наоборот. Соединения переиспользуются
+ * (keep-alive) не дольше {@code keep-alive} и проверяются перед выдачей после простоя; простаивающие
+ * и просроченные соединения закрываются фоновым потоком клиента. Сжатые ответы распаковываются клиентом.
+ */
+@Slf4j
+public class DownstreamRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+    private final Downstreams downstreams;
+    private final Map<Downstream, ClientHttpRequestFactory> factories = new EnumMap<>(Downstream.class);
+    private final ClientHttpRequestFactory fallback;
+    private final List<CloseableHttpClient> clients = new ArrayList<>();
+
+    public DownstreamRequestFactory(Downstreams downstreams) {
+        this.downstreams = downstreams;
+        for (Downstream downstream : Downstream.values()) {
+            Downstreams.Settings settings = downstreams.settings(downstream);
+            factories.put(downstream, factory(settings));
+            log.info("HTTP-клиент {}: {}, соединений до {}, connect {}, read {}, gzip запросов {}", downstream.key(),
+                    settings.baseUrl(), settings.maxConnections(), settings.connectTimeout(), settings.readTimeout(),
+                    settings.gzipRequests());
+        }
+        this.fallback = factory(downstreams.defaults());
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequestFactory factory = downstreams.resolve(uri).map(factories::get).orElse(fallback);
+        return factory.createRequest(uri, httpMethod);
+    }
+
+    @Override
+    public void destroy() {
+        for (CloseableHttpClient client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Ошибка закрытия HTTP-клиента: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ClientHttpRequestFactory factory(Downstreams.Settings settings) {
+        // все запросы к сервису идут на один маршрут, поэтому лимит маршрута равен размеру пула
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+        TimeValue keepAlive = TimeValue.of(settings.keepAlive());
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(settings.readTimeout()))
+                        .setConnectionRequestTimeout(Timeout.of(settings.poolTimeout()))
+                        .build())
+                // сервер может не прислать Keep-Alive: держим соединение не дольше своего лимита
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .build();
+        clients.add(client);
+        return new HttpComponentsClientHttpRequestFactory(client);
+    }
+}
@@ -0,0 +1,109 @@
+package com.vacancy.config;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Адреса и параметры HTTP-клиентов внешних сервисов из {@code http.clients.<key>} ({@link DownstreamProperties}).
+ * Запросы на адреса вне {@link Downstream} используют настройки {@code http.clients.default}.
+ */
+@Component
+public class Downstreams {
+    /**
+     * Параметры клиента одного сервиса.
+     *
+     * @param baseUrl        адрес сервиса без завершающего слеша
+     * @param maxConnections размер пула соединений к сервису
+     * @param connectTimeout таймаут установки соединения
+     * @param readTimeout    таймаут ожидания ответа
+     * @param poolTimeout    сколько ждать свободное соединение из пула
+     * @param keepAlive      сколько держать простаивающее соединение; меньше keep-alive сервера
+     * @param gzipRequests   сжимать тела JSON-запросов gzip; сервис должен уметь их распаковывать.
+     *                       Multipart (загрузка PDF) не сжимается никогда
+     * @param gzipMinSize    тела меньше этого размера отправляются как есть
+     */
+    public record Settings(String baseUrl,
+                           @DefaultValue("16") int maxConnections,
+                           @DefaultValue("5s") Duration connectTimeout,
+                           @DefaultValue("60s") Duration readTimeout,
+                           @DefaultValue("30s") Duration poolTimeout,
+                           @DefaultValue("4s") Duration keepAlive,
+                           @DefaultValue("false") boolean gzipRequests,
+                           @DefaultValue("1KB") DataSize gzipMinSize) {
+    }
+
+    private final Map<Downstream, Settings> settings = new EnumMap<>(Downstream.class);
+    private final Map<Downstream, URI> baseUris = new EnumMap<>(Downstream.class);
+    private final Settings defaults;
+
+    public Downstreams(DownstreamProperties properties) {
+        for (Downstream downstream : Downstream.values()) {
+            Settings s = properties.get(downstream);
+            String baseUrl = (s.baseUrl() == null || s.baseUrl().isBlank() ? downstream.defaultBaseUrl() : s.baseUrl())
+                    .replaceAll("/+$", "");
+            settings.put(downstream, new Settings(baseUrl, s.maxConnections(), s.connectTimeout(), s.readTimeout(),
+                    s.poolTimeout(), s.keepAlive(), s.gzipRequests(), s.gzipMinSize()));
+            URI base = URI.create(baseUrl);
+            if (base.getScheme() == null || base.getHost() == null) {
+                throw new IllegalStateException("Некорректный http.clients." + downstream.key() + ".base-url: " + baseUrl);
+            }
+            baseUris.put(downstream, base);
+        }
+        this.defaults = properties.defaults();
+    }
+
+    /**
+     * @param path путь от корня сервиса, начиная со слеша
+     * @return полный адрес эндпоинта
+     */
+    public String url(Downstream downstream, String path) {
+        return settings.get(downstream).baseUrl() + path;
+    }
+
+    public Settings settings(Downstream downstream) {
+        return settings.get(downstream);
+    }
+
+    public Settings defaults() {
+        return defaults;
+    }
+
+    /**
+     * Находит сервис по схеме, хосту и порту адреса запроса.
+     */
+    public Optional<Downstream> resolve(URI uri) {
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return Optional.empty();
+        }
+        for (Map.Entry<Downstream, URI> entry : baseUris.entrySet()) {
+            URI base = entry.getValue();
+            if (base.getScheme().equalsIgnoreCase(uri.getScheme())
+                    && base.getHost().equalsIgnoreCase(uri.getHost())
+                    && port(base) == port(uri)) {
+                return Optional.of(entry.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return настройки сервиса адреса или {@link #defaults()}
+     */
+    public Settings settingsFor(URI uri) {
+        return resolve(uri).map(settings::get).orElse(defaults);
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+}
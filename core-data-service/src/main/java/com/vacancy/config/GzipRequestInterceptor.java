@@ -0,0 +1,45 @@
+package com.vacancy.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжимает gzip тела запросов к сервисам с {@code http.clients.<key>.gzip-requests: true}.
+ * Multipart-запросы (PDF уже сжат) и тела меньше {@code gzip-min-size} отправляются как есть.
+ */
+public class GzipRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final Downstreams downstreams;
+
+    public GzipRequestInterceptor(Downstreams downstreams) {
+        this.downstreams = downstreams;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Downstreams.Settings settings = downstreams.settingsFor(request.getURI());
+        HttpHeaders headers = request.getHeaders();
+        MediaType contentType = headers.getContentType();
+        if (!settings.gzipRequests() || body.length < settings.gzipMinSize().toBytes()
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || (contentType != null && "multipart".equalsIgnoreCase(contentType.getType()))) {
+            return execution.execute(request, body);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // длина уже выставлена по исходному телу
+        headers.setContentLength(compressed.size());
+        return execution.execute(request, compressed.toByteArray());
+    }
+}
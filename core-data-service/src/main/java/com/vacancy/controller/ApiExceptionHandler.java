@@ -0,0 +1,47 @@
+package com.vacancy.controller;
+
+import com.vacancy.exception.InvalidPatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Общие обработчики ошибок REST-контроллеров.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Конфликт версий при PATCH: сущность уже изменили после чтения клиентом.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(ObjectOptimisticLockingFailureException e) {
+        log.warn("Конфликт версий: {}", e.getMessage());
+        String entity = e.getPersistentClassName() != null
+                ? e.getPersistentClassName().substring(e.getPersistentClassName().lastIndexOf('.') + 1)
+                : "Entity";
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("error", entity + " was modified concurrently, reload and retry"));
+    }
+
+    /**
+     * Некорректное тело PATCH: клиент получает 400 с именем поля вместо 500.
+     */
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidPatch(InvalidPatchException e) {
+        log.warn("Некорректный PATCH: {}", e.getMessage());
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        if (e.getField() != null) {
+            body.put("field", e.getField());
+        }
+        return ResponseEntity.badRequest().body(body);
+    }
+}
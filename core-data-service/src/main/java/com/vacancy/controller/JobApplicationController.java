@@ -1,16 +1,17 @@
 package com.vacancy.controller;
 
+import com.vacancy.dto.CursorPage;
 import com.vacancy.dto.JobApplicationDto;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.service.JobApplicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/job-applications")
@@ -40,11 +41,11 @@ public class JobApplicationController {
     }
 
     @GetMapping
-    @Operation(summary = "Получение списка всех откликов")
-    public ResponseEntity<List<JobApplicationDto>> getAllJobApplications() {
-        log.info("Получен запрос на получение списка всех откликов");
-        List<JobApplicationDto> jobApplications = jobApplicationService.getAllJobApplications();
-        log.info("Успешно получено {} откликов", jobApplications.size());
+    @Operation(summary = "Получение страницы откликов с фильтрами по статусу и дате создания")
+    public ResponseEntity<CursorPage<JobApplicationDto>> getAllJobApplications(@ParameterObject ListFilterRequest filter) {
+        log.info("Получен запрос на получение списка откликов");
+        CursorPage<JobApplicationDto> jobApplications = jobApplicationService.getAllJobApplications(filter);
+        log.info("Успешно получено {} откликов", jobApplications.getItems().size());
         return ResponseEntity.ok(jobApplications);
     }
 
@@ -1,16 +1,17 @@
 package com.vacancy.controller;
 
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.dto.OfferDto;
 import com.vacancy.service.OfferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/offers")
@@ -38,11 +39,11 @@ public class OfferController {
     }
 
     @GetMapping
-    @Operation(summary = "Получение списка всех офферов")
-    public ResponseEntity<List<OfferDto>> getAllOffers() {
-        log.info("Получен запрос на получение списка всех офферов");
-        List<OfferDto> offers = offerService.getAllOffers();
-        log.info("Успешно получено {} офферов", offers.size());
+    @Operation(summary = "Получение страницы офферов с фильтром по дате создания")
+    public ResponseEntity<CursorPage<OfferDto>> getAllOffers(@ParameterObject ListFilterRequest filter) {
+        log.info("Получен запрос на получение списка офферов");
+        CursorPage<OfferDto> offers = offerService.getAllOffers(filter);
+        log.info("Успешно получено {} офферов", offers.getItems().size());
         return ResponseEntity.ok(offers);
     }
 
@@ -1,12 +1,28 @@
 package com.vacancy.controller;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
+import com.vacancy.dto.ResumeBatchDto;
 import com.vacancy.dto.ResumeDto;
+import com.vacancy.dto.ResumeIngestionDto;
+import com.vacancy.dto.ResumeSummaryDto;
+import com.vacancy.dto.SimilarityHitDto;
 import com.vacancy.dto.UpdateCandidateStatus;
+import com.vacancy.service.ResumeIngestionService;
 import com.vacancy.service.ResumeService;
+import com.vacancy.service.SimilarityService;
+import com.vacancy.storage.PdfBlobStore;
+import com.vacancy.storage.StoredBlob;
+import com.vacancy.utils.EntityVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,7 +30,9 @@ import com.vacancy.model.User;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
 
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Контроллер для работы с резюме.
@@ -27,6 +45,9 @@ import java.util.List;
 @Tag(name = "Resume Controller", description = "API для управления резюме")
 public class ResumeController {
     private final ResumeService resumeService;
+    private final ResumeIngestionService resumeIngestionService;
+    private final PdfBlobStore pdfBlobStore;
+    private final SimilarityService similarityService;
 
     /**
      * Создает новое резюме.
@@ -60,17 +81,36 @@ public class ResumeController {
     }
 
     /**
-     * Получает список всех резюме.
+     * Получает страницу резюме.
      *
-     * @param user текущий пользователь
-     * @return список резюме
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   текущий пользователь
+     * @return страница резюме с курсором на следующую
      */
     @GetMapping
-    @Operation(summary = "Получение списка всех резюме")
-    public ResponseEntity<List<ResumeDto>> getAllResumes(@AuthenticationPrincipal User user) {
-        log.info("Получен запрос на получение списка всех резюме пользователя {}", user.getUsername());
-        List<ResumeDto> resumes = resumeService.getAllResumes(user);
-        log.info("Успешно получено {} резюме", resumes.size());
+    @Operation(summary = "Получение страницы резюме с фильтрами")
+    public ResponseEntity<CursorPage<ResumeDto>> getAllResumes(@ParameterObject ListFilterRequest filter,
+                                                               @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на получение списка резюме пользователя {}", user.getUsername());
+        CursorPage<ResumeDto> resumes = resumeService.getAllResumes(filter, user);
+        log.info("Успешно получено {} резюме", resumes.getItems().size());
+        return ResponseEntity.ok(resumes);
+    }
+
+    /**
+     * Получает краткий список резюме для карточек кандидатов.
+     *
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   текущий пользователь
+     * @return страница кратких резюме
+     */
+    @GetMapping("/summary")
+    @Operation(summary = "Получение краткого списка резюме для карточек")
+    public ResponseEntity<CursorPage<ResumeSummaryDto>> getResumeSummaries(@ParameterObject ListFilterRequest filter,
+                                                                           @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на получение краткого списка резюме пользователя {}", user.getUsername());
+        CursorPage<ResumeSummaryDto> resumes = resumeService.getResumeSummaries(filter, user);
+        log.info("Успешно получено {} резюме", resumes.getItems().size());
         return ResponseEntity.ok(resumes);
     }
 
@@ -91,6 +131,28 @@ public class ResumeController {
         return ResponseEntity.ok(updatedResume);
     }
 
+    /**
+     * Частично обновляет резюме по JSON Merge Patch.
+     *
+     * @param id      ID резюме
+     * @param patch   изменяемые поля, null очищает поле
+     * @param ifMatch ETag версии, которую правит клиент
+     * @param user    текущий пользователь
+     * @return обновленный объект, новая версия в заголовке ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Частичное обновление резюме (JSON Merge Patch, If-Match с версией)")
+    public ResponseEntity<ResumeDto> patchResume(@PathVariable Integer id,
+                                               @RequestBody ObjectNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на частичное обновление резюме с ID: {} пользователем {}", id, user.getUsername());
+        ResumeDto patched = resumeService.patchResume(id, patch, EntityVersions.parseIfMatch(ifMatch), user);
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(patched.getVersion()))
+                .body(patched);
+    }
+
     /**
      * Удаляет резюме по ID.
      *
@@ -107,14 +169,108 @@ public class ResumeController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Рекомендует вакансии пользователя, похожие на резюме, по TF-IDF без вызова LLM.
+     *
+     * @param id    ID резюме
+     * @param limit число рекомендаций
+     * @param user  текущий пользователь
+     * @return вакансии по убыванию сходства
+     */
+    @GetMapping("/{id}/recommended-vacancies")
+    @Operation(summary = "Top-K похожих вакансий для резюме (TF-IDF)")
+    public ResponseEntity<List<SimilarityHitDto>> recommendVacancies(@PathVariable Integer id,
+                                                                     @RequestParam(defaultValue = "10") int limit,
+                                                                     @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(similarityService.recommendVacancies(id, limit, user));
+    }
+
+    /**
+     * Отдает PDF резюме из хранилища как файловый ресурс, без загрузки в память.
+     * Условные запросы по ETag (SHA-256 файла) и Range, в том числе несколько диапазонов,
+     * обрабатывает Spring MVC.
+     *
+     * @param id   ID резюме
+     * @param user текущий пользователь
+     */
+    @GetMapping("/{id}/pdf")
+    @Operation(summary = "Скачивание PDF резюме (Range, ETag)")
+    public ResponseEntity<Resource> downloadResumePdf(@PathVariable Integer id, @AuthenticationPrincipal User user) {
+        StoredBlob pdf = resumeService.getResumePdf(id, user);
+        return ResponseEntity.ok()
+                .eTag(pdf.sha256())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"resume-" + id + ".pdf\"")
+                .body(pdfBlobStore.resource(pdf.sha256()));
+    }
+
+    /**
+     * Принимает PDF резюме и запускает фоновую нормализацию.
+     *
+     * @param email email кандидата
+     * @param file  PDF резюме
+     * @param user  текущий пользователь
+     * @return состояние загрузки со ссылкой для опроса
+     */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Загрузка PDF резюме и email, сохранение и нормализация")
-    public ResponseEntity<Void> uploadResume(
+    @Operation(summary = "Загрузка PDF резюме и email, фоновая нормализация и сохранение")
+    public ResponseEntity<ResumeIngestionDto> uploadResume(
             @RequestParam("email") String email,
             @RequestPart("file") MultipartFile file,
             @AuthenticationPrincipal User user) {
-        resumeService.uploadAndNormalizeResume(email, file, user);
-        return ResponseEntity.ok().build();
+        log.info("Получен запрос на загрузку резюме {} пользователем {}", file.getOriginalFilename(), user.getUsername());
+        ResumeIngestionDto ingestion = resumeIngestionService.submit(email, file, user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/resumes/ingestions/" + ingestion.getId()))
+                .body(ingestion);
+    }
+
+    /**
+     * Принимает пакет резюме (PDF-файлы и/или ZIP-архивы) и обрабатывает его в фоне.
+     *
+     * @param files  PDF-файлы и ZIP-архивы с PDF
+     * @param emails JSON-объект "имя файла" -> "email кандидата"
+     * @param user   текущий пользователь
+     * @return состояние пакета со ссылкой для опроса
+     */
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Пакетная загрузка резюме (PDF или ZIP) с email для каждого файла")
+    public ResponseEntity<ResumeBatchDto> uploadResumeBatch(
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam("emails") String emails,
+            @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на пакетную загрузку {} файлов пользователем {}", files.size(), user.getUsername());
+        ResumeBatchDto batch = resumeIngestionService.submitBatch(files, emails, user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/resumes/batches/" + batch.getId()))
+                .body(batch);
+    }
+
+    /**
+     * Получает состояние пакетной загрузки резюме.
+     *
+     * @param id   ID пакета
+     * @param user текущий пользователь
+     * @return счетчики и состояние каждого файла
+     */
+    @GetMapping("/batches/{id}")
+    @Operation(summary = "Состояние пакетной загрузки резюме")
+    public ResponseEntity<ResumeBatchDto> getBatch(@PathVariable UUID id, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(resumeIngestionService.getBatch(id, user));
+    }
+
+    /**
+     * Получает состояние фоновой загрузки резюме.
+     *
+     * @param id   ID загрузки
+     * @param user текущий пользователь
+     * @return этап, длительности этапов и ошибка, если есть
+     */
+    @GetMapping("/ingestions/{id}")
+    @Operation(summary = "Состояние фоновой загрузки резюме")
+    public ResponseEntity<ResumeIngestionDto> getIngestion(@PathVariable UUID id, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(resumeIngestionService.getIngestion(id, user));
     }
 
     @PostMapping(value = "/update-status", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -1,17 +1,26 @@
 package com.vacancy.controller;
 
+import com.vacancy.dto.CompatibilityRowDto;
+import com.vacancy.dto.ResumeVacancyBulkMatchRequest;
 import com.vacancy.dto.ResumeVacancyMatchFullRequest;
 import com.vacancy.dto.ResumeVacancyMatchRequestDto;
 import com.vacancy.dto.ResumeVacancyMatchResponseDto;
+import com.vacancy.dto.SkillCandidateDto;
+import com.vacancy.dto.SkillCountDto;
 import com.vacancy.model.User;
+import com.vacancy.service.CompatibilityMatrixService;
+import com.vacancy.service.ResumeVacancyBulkMatchService;
 import com.vacancy.service.ResumeVacancyMatchService;
+import com.vacancy.service.SkillAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -22,6 +31,9 @@ import java.util.List;
 @Tag(name = "ResumeVacancyMatch Controller", description = "API для соответствий резюме и вакансий")
 public class ResumeVacancyMatchController {
     private final ResumeVacancyMatchService matchService;
+    private final ResumeVacancyBulkMatchService bulkMatchService;
+    private final CompatibilityMatrixService compatibilityMatrixService;
+    private final SkillAnalyticsService skillAnalyticsService;
 
     @PostMapping
     @Operation(summary = "Создать соответствие резюме и вакансии")
@@ -66,4 +78,40 @@ public class ResumeVacancyMatchController {
         log.info("Запрос для сопоставления резюме-вакансии успешно выполнен");
         return ResponseEntity.ok(result);
     }
-} 
\ No newline at end of file
+
+    @PostMapping(value = "/full/bulk", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Полный матчинг набора резюме с вакансией, результаты по мере готовности (SSE)")
+    public SseEmitter matchFullBulk(@RequestBody ResumeVacancyBulkMatchRequest request, @AuthenticationPrincipal User user) {
+        log.info("Пакетный матчинг вакансии {} пользователем {}", request.getVacancyId(), user.getUsername());
+        return bulkMatchService.matchAll(request, user);
+    }
+
+    @GetMapping("/board/resumes")
+    @Operation(summary = "Лучшие вакансии для каждого резюме пользователя (локальная оценка, без LLM)")
+    public ResponseEntity<List<CompatibilityRowDto>> resumeBoard(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(compatibilityMatrixService.resumeBoard(user));
+    }
+
+    @GetMapping("/board/vacancies")
+    @Operation(summary = "Лучшие резюме для каждой вакансии пользователя (локальная оценка, без LLM)")
+    public ResponseEntity<List<CompatibilityRowDto>> vacancyBoard(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(compatibilityMatrixService.vacancyBoard(user));
+    }
+
+    @GetMapping("/analytics/missing-skills")
+    @Operation(summary = "Самые частые недостающие навыки кандидатов по вакансии или по всем вакансиям пользователя")
+    public ResponseEntity<List<SkillCountDto>> getMissingSkills(@RequestParam(required = false) Long vacancyId,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(skillAnalyticsService.getMissingSkills(vacancyId, limit, user));
+    }
+
+    @GetMapping("/analytics/rejected-with-skill")
+    @Operation(summary = "Отклоненные кандидаты, у которых навык совпал в сопоставлении")
+    public ResponseEntity<List<SkillCandidateDto>> getRejectedWithSkill(@RequestParam String skill,
+                                                                        @RequestParam(required = false) Long vacancyId,
+                                                                        @RequestParam(defaultValue = "20") int limit,
+                                                                        @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(skillAnalyticsService.getRejectedWithSkill(skill, vacancyId, limit, user));
+    }
+}
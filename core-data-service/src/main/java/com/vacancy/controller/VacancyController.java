@@ -1,15 +1,29 @@
 package com.vacancy.controller;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vacancy.dto.CandidateRankingDto;
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
+import com.vacancy.dto.SimilarityHitDto;
 import com.vacancy.dto.VacancyDto;
 import com.vacancy.dto.VacancyParseRequest;
 import com.vacancy.dto.VacancyGenRequest;
+import com.vacancy.dto.VacancyLeaderboardDto;
+import com.vacancy.dto.VacancySummaryDto;
 import com.vacancy.model.User;
+import com.vacancy.service.CandidateRankingService;
+import com.vacancy.service.SimilarityService;
+import com.vacancy.service.VacancyLeaderboardService;
 import com.vacancy.service.VacancyService;
+import com.vacancy.utils.EntityVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +42,9 @@ import java.util.Map;
 @Tag(name = "Vacancy Controller", description = "API для управления вакансиями")
 public class VacancyController {
     private final VacancyService vacancyService;
+    private final SimilarityService similarityService;
+    private final CandidateRankingService candidateRankingService;
+    private final VacancyLeaderboardService leaderboardService;
 
     /**
      * Создает новую вакансию.
@@ -61,17 +78,36 @@ public class VacancyController {
     }
 
     /**
-     * Получает список всех вакансий.
+     * Получает страницу вакансий.
      *
+     * @param filter фильтры, курсор и размер страницы
      * @param user текущий пользователь
-     * @return список вакансий в формате DTO
+     * @return страница вакансий в формате DTO с курсором на следующую
      */
     @GetMapping
-    @Operation(summary = "Получение списка всех вакансий")
-    public ResponseEntity<List<VacancyDto>> getAllVacancies(@AuthenticationPrincipal User user) {
-        log.info("Получен запрос на получение списка всех вакансий пользователя {}", user.getUsername());
-        List<VacancyDto> vacancies = vacancyService.getAllVacancies(user);
-        log.info("Найдено {} вакансий", vacancies.size());
+    @Operation(summary = "Получение страницы вакансий с фильтрами")
+    public ResponseEntity<CursorPage<VacancyDto>> getAllVacancies(@ParameterObject ListFilterRequest filter,
+                                                                  @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на получение списка вакансий пользователя {}", user.getUsername());
+        CursorPage<VacancyDto> vacancies = vacancyService.getAllVacancies(filter, user);
+        log.info("Найдено {} вакансий", vacancies.getItems().size());
+        return ResponseEntity.ok(vacancies);
+    }
+
+    /**
+     * Получает краткий список вакансий для карточек.
+     *
+     * @param filter фильтры, курсор и размер страницы
+     * @param user текущий пользователь
+     * @return страница кратких вакансий
+     */
+    @GetMapping("/summary")
+    @Operation(summary = "Получение краткого списка вакансий для карточек")
+    public ResponseEntity<CursorPage<VacancySummaryDto>> getVacancySummaries(@ParameterObject ListFilterRequest filter,
+                                                                             @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на получение краткого списка вакансий пользователя {}", user.getUsername());
+        CursorPage<VacancySummaryDto> vacancies = vacancyService.getVacancySummaries(filter, user);
+        log.info("Найдено {} вакансий", vacancies.getItems().size());
         return ResponseEntity.ok(vacancies);
     }
 
@@ -92,6 +128,28 @@ public class VacancyController {
         return ResponseEntity.ok(updatedVacancy);
     }
 
+    /**
+     * Частично обновляет вакансии по JSON Merge Patch.
+     *
+     * @param id      ID вакансии
+     * @param patch   изменяемые поля, null очищает поле
+     * @param ifMatch ETag версии, которую правит клиент
+     * @param user    текущий пользователь
+     * @return обновленный объект, новая версия в заголовке ETag
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Частичное обновление вакансии (JSON Merge Patch, If-Match с версией)")
+    public ResponseEntity<VacancyDto> patchVacancy(@PathVariable Long id,
+                                               @RequestBody ObjectNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @AuthenticationPrincipal User user) {
+        log.info("Получен запрос на частичное обновление вакансии с ID: {} пользователем {}", id, user.getUsername());
+        VacancyDto patched = vacancyService.patchVacancy(id, patch, EntityVersions.parseIfMatch(ifMatch), user);
+        return ResponseEntity.ok()
+                .eTag(EntityVersions.etag(patched.getVersion()))
+                .body(patched);
+    }
+
     /**
      * Удаляет вакансию по ID.
      *
@@ -108,6 +166,55 @@ public class VacancyController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Рекомендует резюме пользователя, похожие на вакансию, по TF-IDF без вызова LLM.
+     *
+     * @param id    ID вакансии
+     * @param limit число рекомендаций
+     * @param user  текущий пользователь
+     * @return резюме по убыванию сходства
+     */
+    @GetMapping("/{id}/recommended-resumes")
+    @Operation(summary = "Top-K похожих резюме для вакансии (TF-IDF)")
+    public ResponseEntity<List<SimilarityHitDto>> recommendResumes(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "10") int limit,
+                                                                   @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(similarityService.recommendResumes(id, limit, user));
+    }
+
+    /**
+     * Ранжирует резюме пользователя для вакансии каскадом: локальный отбор, шорт-лист LLM, полный матчинг.
+     * POST, а не GET: запрос сохраняет результаты подбора и матчинга и вызывает LLM, повторять его нельзя.
+     *
+     * @param id   ID вакансии
+     * @param user текущий пользователь
+     * @return шорт-лист кандидатов и статистика этапов
+     */
+    @PostMapping("/{id}/best-candidates")
+    @Operation(summary = "Лучшие кандидаты на вакансию (каскад: локальная оценка, LLM-шорт-лист, полный матчинг)")
+    public ResponseEntity<CandidateRankingDto> bestCandidates(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        log.info("Рейтинг кандидатов вакансии {} пользователем {}", id, user.getUsername());
+        return ResponseEntity.ok(candidateRankingService.rank(id, user));
+    }
+
+    /**
+     * Рейтинг кандидатов вакансии по оценке полного матчинга с гистограммой оценок.
+     *
+     * @param id     ID вакансии
+     * @param limit  размер страницы
+     * @param cursor курсор из предыдущего ответа
+     * @param user   текущий пользователь
+     * @return страница рейтинга и гистограмма
+     */
+    @GetMapping("/{id}/leaderboard")
+    @Operation(summary = "Top-K кандидатов вакансии по оценке матчинга и гистограмма оценок")
+    public ResponseEntity<VacancyLeaderboardDto> getLeaderboard(@PathVariable Long id,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(id, limit, cursor, user));
+    }
+
     @PostMapping("/parse")
     @Operation(summary = "Парсинг и сохранение вакансии по ссылке")
     public ResponseEntity<?> parseAndSaveVacancy(@RequestBody VacancyParseRequest request, @AuthenticationPrincipal User user) {
@@ -0,0 +1,62 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Лучшие кандидаты на вакансию по каскаду: локальный отбор, шорт-лист LLM, полный матчинг")
+public class CandidateRankingDto {
+    @Schema(description = "ID вакансии", example = "3")
+    private Long vacancyId;
+
+    @Schema(description = "Этапы каскада по порядку")
+    private List<Stage> stages;
+
+    @Schema(description = "Кандидаты шорт-листа: сначала с полным матчингом по убыванию его оценки, затем по локальной оценке")
+    private List<Candidate> candidates;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Статистика этапа каскада")
+    public static class Stage {
+        @Schema(description = "Этап", example = "llm-shortlist")
+        private String name;
+
+        @Schema(description = "Резюме на входе этапа", example = "50")
+        private int input;
+
+        @Schema(description = "Резюме, прошедшие этап", example = "12")
+        private int output;
+
+        @Schema(description = "Вызовов LLM на этапе", example = "38")
+        private int llmCalls;
+
+        @Schema(description = "Длительность этапа, мс", example = "4200")
+        private long millis;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Кандидат в рейтинге вакансии")
+    public static class Candidate {
+        @Schema(description = "ID резюме", example = "6")
+        private Integer resumeId;
+
+        @Schema(description = "Имя кандидата", example = "Иван Иванов")
+        private String name;
+
+        @Schema(description = "Локальная оценка от 0 до 1", example = "0.64")
+        private double localScore;
+
+        @Schema(description = "Результат полного матчинга; null, если кандидат не вошел в top этапа или матчинг не удался")
+        private ResumeVacancyMatchResponseDto match;
+    }
+}
@@ -0,0 +1,23 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Строка матрицы совместимости: резюме или вакансия с лучшими парами")
+public class CompatibilityRowDto {
+    @Schema(description = "ID резюме или вакансии", example = "1")
+    private Long id;
+
+    @Schema(description = "Имя кандидата или название вакансии", example = "Иван Иванов")
+    private String title;
+
+    @Schema(description = "Лучшие пары по убыванию локальной оценки от 0 до 1")
+    private List<SimilarityHitDto> matches;
+}
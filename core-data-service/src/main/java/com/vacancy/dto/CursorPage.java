@@ -0,0 +1,43 @@
+package com.vacancy.dto;
+
+import com.vacancy.utils.KeysetCursor;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница списка с курсором на следующую страницу.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Страница списка с курсором для keyset-пагинации")
+public class CursorPage<T> {
+    @Schema(description = "Элементы страницы")
+    private List<T> items;
+
+    @Schema(description = "Курсор следующей страницы, null если страница последняя")
+    private String nextCursor;
+
+    /**
+     * Собирает страницу из строк, выбранных с запасом в один элемент.
+     *
+     * @param rows     строки, выбранные с лимитом {@code limit + 1}
+     * @param limit    размер страницы
+     * @param cursorFn извлекает ключ (created_at, id) из строки
+     * @param mapper   конвертирует строку в элемент страницы
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<E, KeysetCursor> cursorFn, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorFn.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,94 @@
+package com.vacancy.dto;
+
+import com.vacancy.utils.KeysetCursor;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры фильтрации и keyset-пагинации списков.
+ * Сортировка всегда стабильная: (created_at DESC, id DESC).
+ */
+@Data
+@Schema(description = "Фильтры и курсор для списков")
+public class ListFilterRequest {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    @Schema(description = "Статус (для резюме - ID статуса кандидата)", example = "Активная")
+    private String status;
+
+    @Schema(description = "Источник", example = "hh")
+    private String source;
+
+    @Schema(description = "Префикс названия вакансии или роли кандидата", example = "Java")
+    private String prefix;
+
+    @Schema(description = "Создано не раньше (включительно)", example = "2024-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "Создано раньше (не включительно)", example = "2024-02-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @Schema(description = "Курсор из nextCursor предыдущей страницы")
+    private String cursor;
+
+    @Schema(description = "Размер страницы", example = "50")
+    private Integer limit;
+
+    public int effectiveLimit() {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Запрос на один элемент больше страницы, чтобы понять, есть ли следующая.
+     */
+    public Pageable probe() {
+        return PageRequest.of(0, effectiveLimit() + 1);
+    }
+
+    public KeysetCursor decodedCursor() {
+        return cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+    }
+
+    public LocalDateTime cursorCreatedAt() {
+        KeysetCursor decoded = decodedCursor();
+        return decoded != null ? decoded.createdAt() : null;
+    }
+
+    public Long cursorId() {
+        KeysetCursor decoded = decodedCursor();
+        return decoded != null ? decoded.id() : null;
+    }
+
+    /**
+     * Префикс для LIKE без учета регистра, со спецсимволами, экранированными через '!'.
+     */
+    public String likePrefix() {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String escaped = prefix.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+
+    public String sourceOrNull() {
+        return source == null || source.isBlank() ? null : source;
+    }
+
+    public String statusOrNull() {
+        return status == null || status.isBlank() ? null : status;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Состояние пакетной загрузки резюме.
+ */
+@Data
+@Schema(description = "Состояние пакетной загрузки резюме с результатом по каждому файлу")
+public class ResumeBatchDto {
+    @Schema(description = "ID пакета")
+    private UUID id;
+
+    @Schema(description = "Количество файлов в пакете", example = "500")
+    private int total;
+
+    @Schema(description = "Успешно обработано", example = "120")
+    private int completed;
+
+    @Schema(description = "Завершилось ошибкой", example = "3")
+    private int failed;
+
+    @Schema(description = "Одновременно обрабатываемых файлов", example = "4")
+    private int parallelism;
+
+    @Schema(description = "Время создания пакета")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время завершения последнего файла")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Состояние каждого файла")
+    private List<ResumeIngestionDto> items;
+}
@@ -40,15 +40,24 @@ public class ResumeDto {
     @Schema(description = "Опыт работы", example = "[{\"company\":\"Яндекс\"}]")
     private List<Map<String, Object>> workExperience;
 
-    @Schema(description = "PDF файл резюме в формате base64")
+    @Schema(description = "PDF файл резюме в формате base64, только для создания и обновления")
     private String pdfFile;
 
+    @Schema(description = "Ссылка на скачивание PDF резюме", example = "/api/resumes/1/pdf")
+    private String pdfUrl;
+
+    @Schema(description = "Размер PDF резюме в байтах", example = "183204")
+    private Long pdfSize;
+
     @Schema(description = "Источник резюме", example = "hh.ru")
     private String source;
 
     @Schema(description = "Дата создания резюме")
     private LocalDateTime createdAt;
 
+    @Schema(description = "Версия резюме, передается в If-Match при PATCH", example = "3")
+    private Long version;
+
     private CandidateStatus candidateStatus;
 
     // Новое поле: подходящие вакансии для резюме
@@ -0,0 +1,55 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Состояние фоновой загрузки резюме.
+ */
+@Data
+@Schema(description = "Состояние фоновой загрузки и нормализации резюме")
+public class ResumeIngestionDto {
+    @Schema(description = "ID загрузки")
+    private UUID id;
+
+    @Schema(description = "Текущий этап", example = "NORMALIZING")
+    private Stage stage;
+
+    @Schema(description = "Имя загруженного файла", example = "ivanov.pdf")
+    private String fileName;
+
+    @Schema(description = "Email кандидата", example = "ivanov@example.com")
+    private String email;
+
+    @Schema(description = "ID сохраненного резюме, появляется после этапа SAVING", example = "1")
+    private Integer resumeId;
+
+    @Schema(description = "Текст ошибки, если загрузка завершилась неуспешно")
+    private String error;
+
+    @Schema(description = "Время постановки в очередь")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время завершения")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Длительность пройденных этапов в миллисекундах", example = "{\"NORMALIZING\": 18250, \"SAVING\": 35}")
+    private Map<Stage, Long> stageDurationsMs;
+
+    public enum Stage {
+        QUEUED,
+        NORMALIZING,
+        SAVING,
+        FAST_MATCHING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+}
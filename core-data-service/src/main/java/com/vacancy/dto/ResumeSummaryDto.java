@@ -0,0 +1,43 @@
+package com.vacancy.dto;
+
+import com.vacancy.model.CandidateStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Краткий DTO резюме для списка кандидатов.
+ */
+@Data
+@Schema(description = "Краткая информация о резюме для списка кандидатов")
+public class ResumeSummaryDto {
+    @Schema(description = "ID резюме", example = "1")
+    private Integer id;
+
+    @Schema(description = "Email кандидата", example = "ivanov@example.com")
+    private String email;
+
+    @Schema(description = "Имя кандидата", example = "Иванов Иван Иванович")
+    private String name;
+
+    @Schema(description = "Телефон кандидата", example = "+7 (999) 123-45-67")
+    private String phone;
+
+    @Schema(description = "Желаемая роль", example = "Java Developer")
+    private String role;
+
+    @Schema(description = "Hard skills", example = "[\"Java\", \"Spring\"]")
+    private List<String> hardSkills;
+
+    @Schema(description = "Источник резюме", example = "hh.ru")
+    private String source;
+
+    @Schema(description = "Дата создания резюме")
+    private LocalDateTime createdAt;
+
+    private CandidateStatus candidateStatus;
+
+    @Schema(description = "Список подходящих вакансий для резюме")
+    private List<ResumeDto.MatchedVacancyShortDto> matchedVacancies;
+}
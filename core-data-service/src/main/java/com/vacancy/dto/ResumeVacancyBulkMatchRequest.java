@@ -0,0 +1,19 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Запрос на полный матчинг набора резюме с одной вакансией")
+public class ResumeVacancyBulkMatchRequest {
+    @Schema(description = "ID вакансии", example = "23")
+    private Long vacancyId;
+    @Schema(description = "ID резюме; не нужен, если allFastMatched = true", example = "[6, 7, 12]")
+    private List<Integer> resumeIds;
+    @Schema(description = "Взять все резюме, быстро подобранные к вакансии", example = "false")
+    private boolean allFastMatched;
+    @Schema(description = "Пересчитать через LLM, даже если резюме и вакансия не менялись", example = "false")
+    private boolean forceRefresh;
+}
@@ -1,5 +1,6 @@
 package com.vacancy.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -48,5 +49,10 @@ public class ResumeVacancyFastMatchRequest {
         private String requiredRole;
         @JsonProperty("required_experience_years")
         private String requiredExperienceYears;
+        /**
+         * Навыки вакансии для локального предварительного отбора, в LLM не отправляются.
+         */
+        @JsonIgnore
+        private List<String> skills;
     }
 }
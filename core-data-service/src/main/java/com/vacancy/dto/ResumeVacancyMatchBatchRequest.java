@@ -0,0 +1,17 @@
+package com.vacancy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Пакет пар резюме/вакансия для {@code POST /api/match-full/batch} сервиса resume-score-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeVacancyMatchBatchRequest {
+    private List<ResumeVacancyMatchExternalRequest> items;
+}
@@ -0,0 +1,21 @@
+package com.vacancy.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Ответ {@code POST /api/match-full/batch}: результаты в порядке элементов запроса.
+ */
+@Data
+public class ResumeVacancyMatchBatchResponse {
+    private List<Item> results;
+
+    @Data
+    public static class Item {
+        private Integer resumeId;
+        private Long vacancyId;
+        private ResumeVacancyMatchResponseDto result;
+        private String error;
+    }
+}
@@ -10,4 +10,6 @@ public class ResumeVacancyMatchFullRequest {
     private Integer resumeId;
     @Schema(description = "ID вакансии", example = "23")
     private Long vacancyId;
+    @Schema(description = "Пересчитать через LLM, даже если резюме и вакансия не менялись", example = "false")
+    private boolean forceRefresh;
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Рекомендация по сходству TF-IDF")
+public class SimilarityHitDto {
+    @Schema(description = "ID вакансии или резюме", example = "1")
+    private Long id;
+
+    @Schema(description = "Название вакансии или имя кандидата", example = "Java Developer")
+    private String title;
+
+    @Schema(description = "Косинусное сходство от 0 до 1", example = "0.42")
+    private double score;
+}
@@ -0,0 +1,30 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Кандидат, у которого навык совпал в сопоставлении с вакансией")
+public class SkillCandidateDto {
+    @Schema(description = "ID резюме", example = "6")
+    private Integer resumeId;
+
+    @Schema(description = "Имя кандидата", example = "Иван Иванов")
+    private String name;
+
+    @Schema(description = "Роль кандидата", example = "Java Developer")
+    private String role;
+
+    @Schema(description = "ID вакансии лучшего сопоставления с навыком", example = "3")
+    private Long vacancyId;
+
+    @Schema(description = "Название вакансии", example = "Senior Java Developer")
+    private String vacancyTitle;
+
+    @Schema(description = "Оценка этого сопоставления", example = "0.55")
+    private Double score;
+}
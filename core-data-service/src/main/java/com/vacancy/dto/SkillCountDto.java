@@ -0,0 +1,18 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Навык и число сопоставлений, в которых он встречается")
+public class SkillCountDto {
+    @Schema(description = "Навык в нижнем регистре", example = "kubernetes")
+    private String skill;
+
+    @Schema(description = "Число сопоставлений", example = "42")
+    private long count;
+}
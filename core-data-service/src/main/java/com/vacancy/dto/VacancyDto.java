@@ -44,6 +44,9 @@ public class VacancyDto {
     @Schema(description = "Дата создания вакансии")
     private LocalDateTime createdAt;
 
+    @Schema(description = "Версия вакансии, передается в If-Match при PATCH", example = "3")
+    private Long version;
+
     @Schema(description = "Валюта", example = "RUB")
     private String currency;
 
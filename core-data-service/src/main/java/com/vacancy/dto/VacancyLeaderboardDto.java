@@ -0,0 +1,72 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Рейтинг кандидатов вакансии по оценке полного матчинга")
+public class VacancyLeaderboardDto {
+    @Schema(description = "ID вакансии", example = "3")
+    private Long vacancyId;
+
+    @Schema(description = "Всего кандидатов с оценкой", example = "1240")
+    private long total;
+
+    @Schema(description = "Кандидаты страницы по убыванию оценки")
+    private List<Entry> items;
+
+    @Schema(description = "Курсор следующей страницы, null если страница последняя")
+    private String nextCursor;
+
+    @Schema(description = "Гистограмма оценок с корзинами равной ширины на отрезке [0, 1]")
+    private List<Bucket> histogram;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Кандидат в рейтинге вакансии")
+    public static class Entry {
+        @Schema(description = "ID сопоставления", example = "1")
+        private Integer matchId;
+
+        @Schema(description = "ID резюме", example = "6")
+        private Integer resumeId;
+
+        @Schema(description = "Имя кандидата", example = "Иван Иванов")
+        private String name;
+
+        @Schema(description = "Роль кандидата", example = "Java Developer")
+        private String role;
+
+        @Schema(description = "Оценка соответствия", example = "0.82")
+        private Double score;
+
+        @Schema(description = "Вердикт", example = "Высокое соответствие")
+        private String verdict;
+
+        @Schema(description = "Дата сопоставления")
+        private LocalDateTime createdAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Корзина гистограммы оценок")
+    public static class Bucket {
+        @Schema(description = "Нижняя граница, включительно", example = "0.8")
+        private double from;
+
+        @Schema(description = "Верхняя граница, не включительно (у последней корзины - включительно)", example = "0.9")
+        private double to;
+
+        @Schema(description = "Число кандидатов", example = "37")
+        private long count;
+    }
+}
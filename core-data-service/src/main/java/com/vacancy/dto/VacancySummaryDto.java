@@ -0,0 +1,49 @@
+package com.vacancy.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Schema(description = "Краткая информация о вакансии для списка вакансий")
+public class VacancySummaryDto {
+    @Schema(description = "ID вакансии", example = "1")
+    private Long id;
+
+    @Schema(description = "Название вакансии", example = "Java Developer")
+    private String title;
+
+    @Schema(description = "Название компании", example = "Tech Company")
+    private String company;
+
+    @Schema(description = "Местоположение", example = "Moscow")
+    private String location;
+
+    @Schema(description = "Минимальная зарплата", example = "100000")
+    private Integer salaryFrom;
+
+    @Schema(description = "Максимальная зарплата", example = "200000")
+    private Integer salaryTo;
+
+    @Schema(description = "Валюта", example = "RUB")
+    private String currency;
+
+    @Schema(description = "Опыт", example = "3-5 лет")
+    private String experience;
+
+    @Schema(description = "Необходимые навыки", example = "[\"Java\", \"Spring Boot\", \"REST API\"]")
+    private List<String> skills;
+
+    @Schema(description = "Источник вакансии", example = "hh.ru")
+    private String source;
+
+    @Schema(description = "Статус вакансии", example = "open")
+    private String status;
+
+    @Schema(description = "Формат работы", example = "Удаленно")
+    private String formatWork;
+
+    @Schema(description = "Дата создания вакансии")
+    private LocalDateTime createdAt;
+}
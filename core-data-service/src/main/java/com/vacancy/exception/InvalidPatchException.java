@@ -0,0 +1,26 @@
+package com.vacancy.exception;
+
+import lombok.Getter;
+
+/**
+ * Некорректное тело PATCH: неизвестное или неизменяемое поле, пустое обязательное поле
+ * или тело, которое не удалось разобрать. Отдается клиенту как 400.
+ */
+@Getter
+public class InvalidPatchException extends RuntimeException {
+
+    /**
+     * Имя поля из тела запроса, null - если ошибка не относится к конкретному полю.
+     */
+    private final String field;
+
+    public InvalidPatchException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public InvalidPatchException(String message, Throwable cause) {
+        super(message, cause);
+        this.field = null;
+    }
+}
@@ -26,7 +26,7 @@ public class JobApplication {
     @Column(name = "match_score")
     private Float matchScore;
 
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
@@ -1,7 +1,6 @@
 package com.vacancy.model;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.utils.JsonbCodec;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
@@ -10,25 +9,16 @@ import java.util.List;
 
 @Converter
 public class ListToStringConverter implements AttributeConverter<List<String>, String> {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     public String convertToDatabaseColumn(List<String> attribute) {
         if (attribute == null || attribute.isEmpty()) return "[]";
-        try {
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Ошибка сериализации skills в JSON", e);
-        }
+        return JsonbCodec.writeStrings(attribute);
     }
 
     @Override
     public List<String> convertToEntityAttribute(String dbData) {
         if (dbData == null || dbData.isBlank()) return Collections.emptyList();
-        try {
-            return objectMapper.readValue(dbData, objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Ошибка десериализации skills из JSON", e);
-        }
+        return JsonbCodec.readStrings(dbData);
     }
-}
\ No newline at end of file
+}
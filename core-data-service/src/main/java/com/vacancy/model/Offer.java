@@ -22,7 +22,7 @@ public class Offer {
     @Column(name = "pdf_file_path", length = 500)
     private String pdfFilePath;
 
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
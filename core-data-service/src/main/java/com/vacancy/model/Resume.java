@@ -3,6 +3,7 @@ package com.vacancy.model;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Type;
 
 import java.io.Serializable;
@@ -14,21 +15,33 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "resumes")
 public class Resume implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    /**
+     * Версия для оптимистичной блокировки: UPDATE идет с условием по версии, конфликт параллельных правок - ошибка.
+     */
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String email;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "pdf_content", columnDefinition = "BYTEA")
-    @Basic(fetch = FetchType.LAZY)
-    private byte[] pdfContent;
+    /**
+     * SHA-256 PDF резюме, сам файл лежит в {@link com.vacancy.storage.PdfBlobStore}.
+     */
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
+    @Column(name = "pdf_size")
+    private Long pdfSize;
 
     @Column(length = 100)
     private String source;
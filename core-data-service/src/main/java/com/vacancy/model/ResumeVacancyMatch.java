@@ -57,6 +57,18 @@ public class ResumeVacancyMatch {
     @Type(JsonType.class)
     private String clarifyingQuestions;
 
+    /**
+     * SHA-256 запроса к LLM-сервису, по которому получен результат. Совпадение значит, что пересчет не нужен.
+     */
+    @Column(name = "input_fingerprint", length = 64)
+    private String inputFingerprint;
+
+    /**
+     * Время последнего расчета: обновляется при каждом сохранении результата скорера.
+     */
+    @Column(name = "scored_at")
+    private LocalDateTime scoredAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -2,17 +2,25 @@ package com.vacancy.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "vacancy")
 public class Vacancy {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Версия для оптимистичной блокировки: UPDATE идет с условием по версии, конфликт параллельных правок - ошибка.
+     */
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String title;
 
@@ -39,7 +47,7 @@ public class Vacancy {
 
     private String source;
 
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
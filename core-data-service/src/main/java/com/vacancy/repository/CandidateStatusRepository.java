@@ -4,6 +4,9 @@ import com.vacancy.model.CandidateStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CandidateStatusRepository extends JpaRepository<CandidateStatus, Integer> {
+    Optional<CandidateStatus> findFirstByTitleIgnoreCaseOrderByIdAsc(String title);
 } 
\ No newline at end of file
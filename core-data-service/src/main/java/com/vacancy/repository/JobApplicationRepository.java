@@ -1,9 +1,27 @@
 package com.vacancy.repository;
 
 import com.vacancy.model.JobApplication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface JobApplicationRepository extends JpaRepository<JobApplication, Long> {
-} 
\ No newline at end of file
+
+    /**
+     * Страница откликов по ключу (created_at, id) с фильтрами.
+     */
+    @Query("SELECT a FROM JobApplication a " +
+            "WHERE (:status IS NULL OR a.status = :status) " +
+            "AND (:createdFrom IS NULL OR a.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR a.createdAt < :createdTo) " +
+            "AND (:cursorCreatedAt IS NULL OR a.createdAt < :cursorCreatedAt " +
+            "OR (a.createdAt = :cursorCreatedAt AND a.id < :cursorId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<JobApplication> findPage(String status, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                  LocalDateTime cursorCreatedAt, Long cursorId, Pageable pageable);
+}
@@ -1,9 +1,26 @@
 package com.vacancy.repository;
 
 import com.vacancy.model.Offer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface OfferRepository extends JpaRepository<Offer, Long> {
-} 
\ No newline at end of file
+
+    /**
+     * Страница офферов по ключу (created_at, id) с фильтрами по дате создания.
+     */
+    @Query("SELECT o FROM Offer o " +
+            "WHERE (:createdFrom IS NULL OR o.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR o.createdAt < :createdTo) " +
+            "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt " +
+            "OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Offer> findPage(LocalDateTime createdFrom, LocalDateTime createdTo,
+                         LocalDateTime cursorCreatedAt, Long cursorId, Pageable pageable);
+}
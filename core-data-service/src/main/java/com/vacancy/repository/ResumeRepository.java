@@ -3,13 +3,17 @@ package com.vacancy.repository;
 import com.vacancy.model.CandidateStatus;
 import com.vacancy.model.Resume;
 import com.vacancy.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
 
@@ -18,7 +22,50 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ResumeRepository extends JpaRepository<Resume, Integer> {
-    List<Resume> findByUser(User user);
+    /**
+     * Краткое представление резюме для карточек списка кандидатов.
+     * Не затрагивает PDF и объемные jsonb-поля.
+     */
+    interface ResumeSummaryView {
+        Integer getId();
+        String getEmail();
+        String getName();
+        String getPhone();
+        String getRole();
+        String getSource();
+        String getHardSkills();
+        LocalDateTime getCreatedAt();
+        Integer getStatusId();
+        String getStatusTitle();
+        String getStatusDescription();
+    }
+
+    String PAGE_FILTER = "WHERE r.user = :user " +
+            "AND (:statusId IS NULL OR r.candidateStatus.id = :statusId) " +
+            "AND (:source IS NULL OR r.source = :source) " +
+            "AND (:rolePrefix IS NULL OR LOWER(r.role) LIKE :rolePrefix ESCAPE '!') " +
+            "AND (:createdFrom IS NULL OR r.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR r.createdAt < :createdTo) " +
+            "AND (:cursorCreatedAt IS NULL OR r.createdAt < :cursorCreatedAt " +
+            "OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC";
+
+    /**
+     * Страница резюме пользователя по ключу (created_at, id) с фильтрами.
+     * Размер выборки задается через {@code pageable}, смещение не используется.
+     */
+    @Query("SELECT r FROM Resume r " + PAGE_FILTER)
+    List<Resume> findPageByUser(User user, Integer statusId, String source, String rolePrefix,
+                                LocalDateTime createdFrom, LocalDateTime createdTo,
+                                LocalDateTime cursorCreatedAt, Integer cursorId, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.email AS email, r.name AS name, r.phone AS phone, r.role AS role, " +
+            "r.source AS source, r.hardSkills AS hardSkills, r.createdAt AS createdAt, " +
+            "cs.id AS statusId, cs.title AS statusTitle, cs.description AS statusDescription " +
+            "FROM Resume r LEFT JOIN r.candidateStatus cs " + PAGE_FILTER)
+    List<ResumeSummaryView> findSummaryPageByUser(User user, Integer statusId, String source, String rolePrefix,
+                                                  LocalDateTime createdFrom, LocalDateTime createdTo,
+                                                  LocalDateTime cursorCreatedAt, Integer cursorId, Pageable pageable);
 
     @Modifying
     @Transactional
@@ -27,4 +74,31 @@ public interface ResumeRepository extends JpaRepository<Resume, Integer> {
 
     @Query("SELECT COUNT(v) FROM Resume v WHERE v.candidateStatus = :statusId")
     long countByStatus5(CandidateStatus statusId);
-} 
\ No newline at end of file
+
+    /**
+     * Поля резюме для индекса сходства TF-IDF и матрицы совместимости.
+     */
+    interface ResumeTextView {
+        Integer getId();
+        Long getUserId();
+        String getName();
+        String getRole();
+        String getHardSkills();
+        String getWorkExperience();
+    }
+
+    String TEXT_SELECT = "SELECT r.id AS id, r.user.id AS userId, r.name AS name, r.role AS role, r.hardSkills AS hardSkills, " +
+            "r.workExperience AS workExperience FROM Resume r ";
+
+    @Query(TEXT_SELECT + "WHERE r.id > :afterId ORDER BY r.id")
+    List<ResumeTextView> findTextPage(Integer afterId, Pageable pageable);
+
+    @Query(TEXT_SELECT + "WHERE r.id = :id")
+    Optional<ResumeTextView> findTextById(Integer id);
+
+    @Query(TEXT_SELECT + "WHERE r.id IN :ids")
+    List<ResumeTextView> findTextByIdIn(Collection<Integer> ids);
+
+    @Query(TEXT_SELECT + "WHERE r.user.id = :userId")
+    List<ResumeTextView> findTextByUserId(Long userId);
+}
@@ -1,16 +1,47 @@
 package com.vacancy.repository;
 
-import com.vacancy.model.Resume;
 import com.vacancy.model.ResumeVacancyFastMatch;
+import com.vacancy.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ResumeVacancyFastMatchRepository extends JpaRepository<ResumeVacancyFastMatch, Long> {
-//    @Query(nativeQuery = true, value = "select * from resume_vacancy_fast_match where resume_id = :resumeId")
-//    List<ResumeVacancyFastMatch> selectByResumeId(@Param("resume_id") Long resumeId);
-} 
\ No newline at end of file
+
+    interface MatchedVacancyView {
+        Integer getResumeId();
+        Long getVacancyId();
+        String getTitle();
+    }
+
+    /**
+     * Загружает подходящие вакансии сразу для пачки резюме одним запросом.
+     * Поиск идет по префиксу уникального индекса (resume_id, vacancy_id).
+     */
+    @Query("SELECT fm.resume.id AS resumeId, v.id AS vacancyId, v.title AS title " +
+            "FROM ResumeVacancyFastMatch fm JOIN fm.vacancy v " +
+            "WHERE fm.resume.id IN :resumeIds ORDER BY fm.id")
+    List<MatchedVacancyView> findMatchedVacanciesByResumeIds(@Param("resumeIds") Collection<Integer> resumeIds);
+
+    /**
+     * ID резюме пользователя, быстро подобранных к вакансии.
+     */
+    @Query("SELECT fm.resume.id FROM ResumeVacancyFastMatch fm " +
+            "WHERE fm.vacancy.id = :vacancyId AND fm.resume.user = :user ORDER BY fm.resume.id")
+    List<Integer> findResumeIdsByVacancyId(@Param("vacancyId") Long vacancyId, @Param("user") User user);
+
+    /**
+     * Удаляет быстрые соответствия вакансии с перечисленными резюме.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ResumeVacancyFastMatch fm WHERE fm.vacancy.id = :vacancyId AND fm.resume.id IN :resumeIds")
+    int deleteByVacancyIdAndResumeIds(@Param("vacancyId") Long vacancyId, @Param("resumeIds") Collection<Integer> resumeIds);
+}
@@ -1,8 +1,12 @@
 package com.vacancy.repository;
 
 import com.vacancy.model.ResumeVacancyMatch;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,92 @@ public interface ResumeVacancyMatchRepository extends JpaRepository<ResumeVacanc
     ResumeVacancyMatch findByResume_IdAndVacancy_Id(Integer resumeId, Long vacancyId);
     long countByScoreGreaterThan(double score);
     long countByCreatedAtBetween(java.time.LocalDateTime start, java.time.LocalDateTime end);
-} 
\ No newline at end of file
+
+    /**
+     * Строка рейтинга кандидатов вакансии, без jsonb-полей сопоставления.
+     */
+    interface LeaderboardView {
+        Integer getId();
+        Integer getResumeId();
+        String getName();
+        String getRole();
+        Double getScore();
+        String getVerdict();
+        LocalDateTime getCreatedAt();
+    }
+
+    /**
+     * Сопоставления вакансии по убыванию оценки, keyset по (score, id).
+     * Идет по индексу idx_matches_vacancy_score_id, размер выборки задается через {@code pageable}.
+     */
+    @Query("SELECT m.id AS id, r.id AS resumeId, r.name AS name, r.role AS role, m.score AS score, " +
+            "m.verdict AS verdict, m.createdAt AS createdAt " +
+            "FROM ResumeVacancyMatch m JOIN m.resume r " +
+            "WHERE m.vacancy.id = :vacancyId AND m.score IS NOT NULL " +
+            "AND (:cursorScore IS NULL OR (m.score <= :cursorScore " +
+            "AND (m.score < :cursorScore OR m.id > :cursorId))) " +
+            "ORDER BY m.score DESC, m.id")
+    List<LeaderboardView> findLeaderboard(Long vacancyId, Double cursorScore, Integer cursorId, Pageable pageable);
+
+    interface ScoreBucketView {
+        Integer getBucket();
+        Long getCount();
+    }
+
+    /**
+     * Гистограмма оценок вакансии за один проход по индексу: номер корзины от 1 до {@code buckets}
+     * на отрезке [0, 1], оценка 1 попадает в последнюю корзину. Пустые корзины не возвращаются.
+     */
+    @Query(value = "SELECT LEAST(GREATEST(width_bucket(score, 0, 1, :buckets), 1), :buckets) AS bucket, " +
+            "COUNT(*) AS count FROM resume_vacancy_matches " +
+            "WHERE vacancy_id = :vacancyId AND score IS NOT NULL GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<ScoreBucketView> findScoreHistogram(Long vacancyId, int buckets);
+
+    interface SkillCountView {
+        String getSkill();
+        Long getCount();
+    }
+
+    /**
+     * Самые частые недостающие навыки в сопоставлениях пользователя, одним агрегатом по jsonb-массивам.
+     * Навыки сравниваются без учета регистра; {@code vacancyId = null} - по всем вакансиям пользователя.
+     */
+    @Query(value = "SELECT lower(btrim(s.skill)) AS skill, COUNT(*) AS count " +
+            "FROM resume_vacancy_matches m " +
+            "CROSS JOIN LATERAL jsonb_array_elements_text(m.unmatched_skills) AS s(skill) " +
+            "WHERE m.user_id = :userId AND (CAST(:vacancyId AS bigint) IS NULL OR m.vacancy_id = :vacancyId) " +
+            "AND jsonb_typeof(m.unmatched_skills) = 'array' AND btrim(s.skill) <> '' " +
+            "GROUP BY 1 ORDER BY 2 DESC, 1 LIMIT :limit",
+            nativeQuery = true)
+    List<SkillCountView> findTopMissingSkills(Long userId, Long vacancyId, int limit);
+
+    interface SkillCandidateView {
+        Integer getResumeId();
+        String getName();
+        String getRole();
+        Long getVacancyId();
+        String getVacancyTitle();
+        Double getScore();
+    }
+
+    /**
+     * Кандидаты в статусе {@code statusId}, у которых навык есть среди совпавших хотя бы в одном сопоставлении.
+     * Поиск навыка идет по GIN-индексу idx_matches_matched_skills_lower; для каждого кандидата
+     * возвращается сопоставление с наибольшей оценкой.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "SELECT DISTINCT ON (r.id) r.id AS \"resumeId\", r.name AS name, r.role AS role, " +
+            "v.id AS \"vacancyId\", v.title AS \"vacancyTitle\", m.score AS score " +
+            "FROM resume_vacancy_matches m " +
+            "JOIN resumes r ON r.id = m.resume_id " +
+            "JOIN vacancy v ON v.id = m.vacancy_id " +
+            "WHERE m.user_id = :userId AND r.status_id = :statusId " +
+            "AND lower(m.matched_skills::text)::jsonb @> jsonb_build_array(lower(btrim(:skill))) " +
+            "AND (CAST(:vacancyId AS bigint) IS NULL OR m.vacancy_id = :vacancyId) " +
+            "ORDER BY r.id, m.score DESC NULLS LAST" +
+            ") c ORDER BY c.score DESC NULLS LAST, c.\"resumeId\" LIMIT :limit",
+            nativeQuery = true)
+    List<SkillCandidateView> findCandidatesWithSkillInStatus(Long userId, String skill, Integer statusId,
+                                                             Long vacancyId, int limit);
+}
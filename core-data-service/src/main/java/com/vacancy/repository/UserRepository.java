@@ -2,11 +2,16 @@ package com.vacancy.repository;
 
 import com.vacancy.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
 } 
\ No newline at end of file
@@ -2,27 +2,107 @@ package com.vacancy.repository;
 
 import com.vacancy.model.Vacancy;
 import com.vacancy.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VacancyRepository extends JpaRepository<Vacancy, Long> {
-    List<Vacancy> findByUser(User user);
-
     interface VacancyShortView {
         Integer getId();
         String getTitle();
         String getExperience();
+        List<String> getSkills();
     }
 
-    @Query("SELECT v.id AS id, v.title AS title, v.experience AS experience FROM Vacancy v")
+    @Query("SELECT v.id AS id, v.title AS title, v.experience AS experience, v.skills AS skills FROM Vacancy v")
     List<VacancyShortView> findAllShort();
 
-    @Query("SELECT v.id AS id, v.title AS title, v.experience AS experience FROM Vacancy v WHERE v.user = :user")
+    @Query("SELECT v.id AS id, v.title AS title, v.experience AS experience, v.skills AS skills FROM Vacancy v WHERE v.user = :user")
     List<VacancyShortView> findAllShortByUser(User user);
 
+    /**
+     * Краткое представление вакансии для карточек списка.
+     * Не затрагивает TEXT-поля description, requirements и responsibilities.
+     */
+    interface VacancySummaryView {
+        Long getId();
+        String getTitle();
+        String getCompany();
+        String getLocation();
+        Integer getSalaryFrom();
+        Integer getSalaryTo();
+        String getCurrency();
+        String getExperience();
+        List<String> getSkills();
+        String getSource();
+        String getStatus();
+        String getFormatWork();
+        LocalDateTime getCreatedAt();
+    }
+
+    String PAGE_FILTER = "WHERE v.user = :user " +
+            "AND (:status IS NULL OR v.status = :status) " +
+            "AND (:source IS NULL OR v.source = :source) " +
+            "AND (:titlePrefix IS NULL OR LOWER(v.title) LIKE :titlePrefix ESCAPE '!') " +
+            "AND (:createdFrom IS NULL OR v.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR v.createdAt < :createdTo) " +
+            "AND (:cursorCreatedAt IS NULL OR v.createdAt < :cursorCreatedAt " +
+            "OR (v.createdAt = :cursorCreatedAt AND v.id < :cursorId)) " +
+            "ORDER BY v.createdAt DESC, v.id DESC";
+
+    /**
+     * Страница вакансий пользователя по ключу (created_at, id) с фильтрами.
+     * Размер выборки задается через {@code pageable}, смещение не используется.
+     */
+    @Query("SELECT v FROM Vacancy v " + PAGE_FILTER)
+    List<Vacancy> findPageByUser(User user, String status, String source, String titlePrefix,
+                                 LocalDateTime createdFrom, LocalDateTime createdTo,
+                                 LocalDateTime cursorCreatedAt, Long cursorId, Pageable pageable);
+
+    @Query("SELECT v.id AS id, v.title AS title, v.company AS company, v.location AS location, " +
+            "v.salaryFrom AS salaryFrom, v.salaryTo AS salaryTo, v.currency AS currency, v.experience AS experience, " +
+            "v.skills AS skills, v.source AS source, v.status AS status, v.formatWork AS formatWork, " +
+            "v.createdAt AS createdAt FROM Vacancy v " + PAGE_FILTER)
+    List<VacancySummaryView> findSummaryPageByUser(User user, String status, String source, String titlePrefix,
+                                                   LocalDateTime createdFrom, LocalDateTime createdTo,
+                                                   LocalDateTime cursorCreatedAt, Long cursorId, Pageable pageable);
+
+    /**
+     * Текстовые поля вакансии для индекса сходства TF-IDF и матрицы совместимости.
+     */
+    interface VacancyTextView {
+        Long getId();
+        Long getUserId();
+        String getTitle();
+        List<String> getSkills();
+        String getRequirements();
+        String getExperience();
+    }
+
+    String TEXT_SELECT = "SELECT v.id AS id, v.user.id AS userId, v.title AS title, v.skills AS skills, " +
+            "v.requirements AS requirements, v.experience AS experience FROM Vacancy v ";
+
+    @Query(TEXT_SELECT + "WHERE v.id > :afterId ORDER BY v.id")
+    List<VacancyTextView> findTextPage(Long afterId, Pageable pageable);
+
+    @Query(TEXT_SELECT + "WHERE v.id = :id")
+    Optional<VacancyTextView> findTextById(Long id);
+
+    @Query(TEXT_SELECT + "WHERE v.id IN :ids")
+    List<VacancyTextView> findTextByIdIn(Collection<Long> ids);
+
+    @Query(TEXT_SELECT + "WHERE v.user.id = :userId")
+    List<VacancyTextView> findTextByUserId(Long userId);
+
+    @Query("SELECT v.user.id FROM Vacancy v WHERE v.id = :id")
+    Optional<Long> findOwnerIdById(Long id);
+
     long countByStatus(String status);
     @Query("SELECT COUNT(v) FROM Vacancy v WHERE v.status = '5'")
     long countByStatus5();
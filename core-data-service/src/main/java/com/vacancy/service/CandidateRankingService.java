@@ -0,0 +1,177 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.CandidateRankingDto;
+import com.vacancy.dto.ResumeVacancyMatchFullRequest;
+import com.vacancy.dto.ResumeVacancyMatchResponseDto;
+import com.vacancy.model.User;
+import com.vacancy.repository.ResumeRepository;
+import com.vacancy.repository.ResumeRepository.ResumeTextView;
+import com.vacancy.repository.ResumeVacancyFastMatchRepository;
+import com.vacancy.repository.VacancyRepository;
+import com.vacancy.repository.VacancyRepository.VacancyTextView;
+import com.vacancy.service.FastMatchPipeline.Scored;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Рейтинг кандидатов на вакансию каскадом из трех этапов, каждый дороже предыдущего:
+ * <ol>
+ *     <li>{@code local} - локальная оценка {@link VacancyPreScorer} по всем резюме пользователя,
+ *     дальше проходят не больше {@code ranking.cascade.local.top-k} с оценкой от {@code local.min-score};</li>
+ *     <li>{@code llm-shortlist} - быстрый LLM-подбор по каждому прошедшему резюме; резюме, уже подобранные
+ *     к вакансии при загрузке, LLM не спрашиваются. В шорт-лист попадает {@code shortlist.top-k} лучших;</li>
+ *     <li>{@code full-match} - полный матчинг {@link ResumeVacancyMatchService#matchFull} для
+ *     {@code full.top-k} лучших из шорт-листа.</li>
+ * </ol>
+ * Оценка, LLM-подбор и сохранение пар общие с фоновым подбором ({@link FastMatchPipeline}).
+ * Вызовов LLM не больше {@code local.top-k + full.top-k} независимо от числа резюме. В статистике этапа
+ * {@code full-match} считаются только вызовы, дошедшие до скорера: сопоставления с тем же отпечатком
+ * входных данных берутся из БД.
+ */
+@Slf4j
+@Service
+public class CandidateRankingService {
+    private final ResumeRepository resumeRepository;
+    private final VacancyRepository vacancyRepository;
+    private final ResumeVacancyFastMatchRepository fastMatchRepository;
+    private final FastMatchPipeline pipeline;
+    private final ResumeVacancyMatchService matchService;
+    private final TaskExecutor executor;
+    private final double localMinScore;
+    private final int localTopK;
+    private final int shortlistTopK;
+    private final int fullTopK;
+
+    public CandidateRankingService(ResumeRepository resumeRepository,
+                                   VacancyRepository vacancyRepository,
+                                   ResumeVacancyFastMatchRepository fastMatchRepository,
+                                   FastMatchPipeline pipeline,
+                                   ResumeVacancyMatchService matchService,
+                                   @Qualifier("bulkMatchExecutor") TaskExecutor executor,
+                                   @Value("${ranking.cascade.local.min-score:0.2}") double localMinScore,
+                                   @Value("${ranking.cascade.local.top-k:50}") int localTopK,
+                                   @Value("${ranking.cascade.shortlist.top-k:20}") int shortlistTopK,
+                                   @Value("${ranking.cascade.full.top-k:5}") int fullTopK) {
+        this.resumeRepository = resumeRepository;
+        this.vacancyRepository = vacancyRepository;
+        this.fastMatchRepository = fastMatchRepository;
+        this.pipeline = pipeline;
+        this.matchService = matchService;
+        this.executor = executor;
+        this.localMinScore = localMinScore;
+        this.localTopK = localTopK;
+        this.shortlistTopK = shortlistTopK;
+        this.fullTopK = fullTopK;
+    }
+
+    /**
+     * Ранжирует резюме пользователя для вакансии.
+     *
+     * @param vacancyId ID вакансии
+     * @param user      владелец вакансии и резюме
+     * @return шорт-лист кандидатов и статистика этапов
+     * @throws RuntimeException если вакансия не найдена, доступ запрещен или пул полного матчинга перегружен
+     */
+    public CandidateRankingDto rank(Long vacancyId, User user) {
+        VacancyTextView vacancy = vacancyRepository.findTextById(vacancyId)
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!user.getId().equals(vacancy.getUserId())) {
+            log.warn("Пользователь {} запросил рейтинг кандидатов чужой вакансии {}", user.getUsername(), vacancyId);
+            throw new RuntimeException("Access denied");
+        }
+        List<CandidateRankingDto.Stage> stages = new ArrayList<>();
+
+        long started = System.nanoTime();
+        List<ResumeTextView> resumes = resumeRepository.findTextByUserId(user.getId());
+        List<Scored> local = pipeline.localStage(vacancy, resumes, localMinScore);
+        local = local.subList(0, Math.min(localTopK, local.size()));
+        stages.add(stage("local", resumes.size(), local.size(), 0, started));
+
+        started = System.nanoTime();
+        Set<Integer> known = new HashSet<>(fastMatchRepository.findResumeIdsByVacancyId(vacancyId, user));
+        List<Scored> unknown = local.stream()
+                .filter(c -> !known.contains(c.resume().getId()))
+                .toList();
+        Set<Integer> confirmed = pipeline.verdicts(unknown, vacancy).entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        pipeline.save(confirmed, vacancyId);
+        List<Scored> shortlist = local.stream()
+                .filter(c -> known.contains(c.resume().getId()) || confirmed.contains(c.resume().getId()))
+                .limit(shortlistTopK)
+                .toList();
+        stages.add(stage("llm-shortlist", local.size(), shortlist.size(), unknown.size(), started));
+
+        started = System.nanoTime();
+        List<Scored> top = shortlist.subList(0, Math.min(fullTopK, shortlist.size()));
+        AtomicInteger scorerCalls = new AtomicInteger();
+        Map<Integer, ResumeVacancyMatchResponseDto> matches = fullStage(top, vacancyId, user, scorerCalls);
+        stages.add(stage("full-match", top.size(), matches.size(), scorerCalls.get(), started));
+
+        List<CandidateRankingDto.Candidate> candidates = shortlist.stream()
+                .map(c -> new CandidateRankingDto.Candidate(c.resume().getId(), c.resume().getName(), c.score(),
+                        matches.get(c.resume().getId())))
+                .sorted(Comparator.comparing((CandidateRankingDto.Candidate c) -> fullScore(c.getMatch()),
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+        log.info("Рейтинг кандидатов вакансии {}: {}", vacancyId, stages.stream()
+                .map(s -> s.getName() + " " + s.getInput() + "→" + s.getOutput() + " за " + s.getMillis() + " мс")
+                .toList());
+        return new CandidateRankingDto(vacancyId, stages, candidates);
+    }
+
+    private Map<Integer, ResumeVacancyMatchResponseDto> fullStage(List<Scored> top, Long vacancyId, User user,
+                                                                  AtomicInteger scorerCalls) {
+        Map<Integer, CompletableFuture<ResumeVacancyMatchResponseDto>> futures = new LinkedHashMap<>();
+        for (Scored candidate : top) {
+            ResumeVacancyMatchFullRequest request = new ResumeVacancyMatchFullRequest();
+            request.setResumeId(candidate.resume().getId());
+            request.setVacancyId(vacancyId);
+            try {
+                futures.put(request.getResumeId(), CompletableFuture.supplyAsync(
+                        () -> matchService.matchFull(request, user, scorerCalls::incrementAndGet), executor));
+            } catch (TaskRejectedException e) {
+                // у пула нет очереди: при занятом пуле сопоставляем в потоке запроса
+                futures.put(request.getResumeId(), CompletableFuture.supplyAsync(
+                        () -> matchService.matchFull(request, user, scorerCalls::incrementAndGet), Runnable::run));
+            }
+        }
+        Map<Integer, ResumeVacancyMatchResponseDto> matches = new HashMap<>();
+        futures.forEach((resumeId, future) -> {
+            try {
+                matches.put(resumeId, future.join());
+            } catch (CompletionException e) {
+                log.error("Ошибка полного матчинга резюме {} и вакансии {}: {}", resumeId, vacancyId,
+                        e.getCause().getMessage());
+            }
+        });
+        return matches;
+    }
+
+    private static Double fullScore(ResumeVacancyMatchResponseDto match) {
+        return match == null ? null : Objects.requireNonNullElse(match.getScore(), 0.0);
+    }
+
+    private static CandidateRankingDto.Stage stage(String name, int input, int output, int llmCalls, long started) {
+        return new CandidateRankingDto.Stage(name, input, output, llmCalls, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,359 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.CompatibilityRowDto;
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.dto.SimilarityHitDto;
+import com.vacancy.model.User;
+import com.vacancy.repository.ResumeRepository;
+import com.vacancy.repository.ResumeRepository.ResumeTextView;
+import com.vacancy.repository.UserRepository;
+import com.vacancy.repository.VacancyRepository;
+import com.vacancy.repository.VacancyRepository.VacancyTextView;
+import com.vacancy.service.VacancyPreScorer.CandidateProfile;
+import com.vacancy.service.VacancyPreScorer.VacancyProfile;
+import com.vacancy.utils.JsonbCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Матрица совместимости резюме × вакансии пользователя по локальной оценке {@link VacancyPreScorer}, без LLM.
+ * Хранится только top-K по каждой строке (резюме → вакансии) и каждому столбцу (вакансия → резюме).
+ * Матрицы всех пользователей считаются в фоне при старте и затем раз в {@code compatibility.refresh-interval};
+ * изменение одного резюме или вакансии пересчитывает только его строку или столбец, а в остальных top-K
+ * списках новая оценка вставляется без перебора. Расчеты и изменения выполняет один поток {@code compatibility},
+ * перебор распараллеливается в отдельном ForkJoin-пуле. Запросы только читают готовый снимок матрицы.
+ */
+@Slf4j
+@Service
+public class CompatibilityMatrixService {
+    private static final Comparator<Cell> BEST_FIRST = Comparator.comparingDouble(Cell::score).reversed()
+            .thenComparingLong(Cell::id);
+
+    private final ResumeRepository resumeRepository;
+    private final VacancyRepository vacancyRepository;
+    private final UserRepository userRepository;
+    private final VacancyPreScorer scorer;
+    private final int topK;
+    private final Duration refreshInterval;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService updater = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("compatibility").daemon().factory());
+    /**
+     * Рабочие матрицы; читаются и меняются только потоком {@code updater}.
+     */
+    private final Map<Long, Board> boards = new HashMap<>();
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public CompatibilityMatrixService(ResumeRepository resumeRepository,
+                                      VacancyRepository vacancyRepository,
+                                      UserRepository userRepository,
+                                      VacancyPreScorer scorer,
+                                      @Value("${compatibility.top-k:20}") int topK,
+                                      @Value("${compatibility.parallelism:0}") int parallelism,
+                                      @Value("${compatibility.refresh-interval:30m}") Duration refreshInterval) {
+        this.resumeRepository = resumeRepository;
+        this.vacancyRepository = vacancyRepository;
+        this.userRepository = userRepository;
+        this.scorer = scorer;
+        this.topK = Math.max(1, topK);
+        this.refreshInterval = refreshInterval;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    private record Cell(long id, double score) {
+    }
+
+    /**
+     * Рабочая матрица одного пользователя.
+     */
+    private static final class Board {
+        final Map<Long, CandidateProfile> resumes = new HashMap<>();
+        final Map<Long, VacancyProfile> vacancies = new HashMap<>();
+        final Map<Long, String> names = new HashMap<>();
+        final Map<Long, String> titles = new HashMap<>();
+        Map<Long, List<Cell>> rows = new HashMap<>();
+        Map<Long, List<Cell>> columns = new HashMap<>();
+    }
+
+    /**
+     * Готовые ответы по матрице пользователя.
+     */
+    private record Snapshot(List<CompatibilityRowDto> resumeBoard, List<CompatibilityRowDto> vacancyBoard) {
+    }
+
+    /**
+     * Лучшие вакансии для каждого резюме пользователя.
+     *
+     * @param user владелец резюме и вакансий
+     * @return строки по убыванию лучшей оценки; пустой список, пока первый расчет матрицы не завершен
+     */
+    public List<CompatibilityRowDto> resumeBoard(User user) {
+        Snapshot snapshot = snapshots.get(user.getId());
+        return snapshot == null ? List.of() : snapshot.resumeBoard();
+    }
+
+    /**
+     * Лучшие резюме для каждой вакансии пользователя.
+     *
+     * @param user владелец вакансий и резюме
+     * @return столбцы по убыванию лучшей оценки; пустой список, пока первый расчет матрицы не завершен
+     */
+    public List<CompatibilityRowDto> vacancyBoard(User user) {
+        Snapshot snapshot = snapshots.get(user.getId());
+        return snapshot == null ? List.of() : snapshot.vacancyBoard();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        updater.scheduleWithFixedDelay(this::refreshAll, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResumeChanged(ResumeChangedEvent event) {
+        updater.execute(() -> update(event.userId(), board -> applyResume(board, event.userId(), event.resumeId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVacancyChanged(VacancyChangedEvent event) {
+        updater.execute(() -> update(event.userId(), board -> applyVacancy(board, event.userId(), event.vacancyId())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Пересчитывает матрицы всех пользователей, чтобы подхватить изменения с других узлов.
+     */
+    private void refreshAll() {
+        long started = System.nanoTime();
+        try {
+            List<Long> userIds = userRepository.findAllIds();
+            Set<Long> known = new HashSet<>(userIds);
+            boards.keySet().retainAll(known);
+            snapshots.keySet().retainAll(known);
+            userIds.forEach(this::load);
+            log.info("Матрицы совместимости {} пользователей рассчитаны за {} мс",
+                    userIds.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Ошибка расчета матриц совместимости, повтор через {}", refreshInterval, e);
+        }
+    }
+
+    private void load(Long userId) {
+        try {
+            long started = System.nanoTime();
+            Board board = new Board();
+            resumeRepository.findTextByUserId(userId).forEach(view -> putResume(board, view));
+            vacancyRepository.findTextByUserId(userId).forEach(view -> putVacancy(board, view));
+            board.rows = compute(() -> board.resumes.entrySet().parallelStream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> row(board, e.getValue()))));
+            board.columns = compute(() -> board.vacancies.entrySet().parallelStream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> column(board, e.getValue()))));
+            boards.put(userId, board);
+            publish(userId, board);
+            log.debug("Матрица совместимости пользователя {} рассчитана: {} резюме × {} вакансий за {} мс",
+                    userId, board.resumes.size(), board.vacancies.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Ошибка расчета матрицы совместимости пользователя {}", userId, e);
+        }
+    }
+
+    /**
+     * Применяет изменение к матрице пользователя; матрица, которой еще нет или которая не обновилась,
+     * считается заново.
+     */
+    private void update(Long userId, Consumer<Board> change) {
+        Board board = boards.get(userId);
+        if (board == null) {
+            load(userId);
+            return;
+        }
+        try {
+            change.accept(board);
+            publish(userId, board);
+        } catch (RuntimeException e) {
+            log.error("Ошибка обновления матрицы совместимости пользователя {}, матрица будет пересчитана", userId, e);
+            load(userId);
+        }
+    }
+
+    private void publish(Long userId, Board board) {
+        snapshots.put(userId, new Snapshot(toDto(board.rows, board.names, board.titles),
+                toDto(board.columns, board.titles, board.names)));
+    }
+
+    /**
+     * Пересчитывает строку резюме и вставляет его новые оценки в столбцы вакансий.
+     */
+    private void applyResume(Board board, Long userId, Integer resumeId) {
+        long id = resumeId.longValue();
+        board.resumes.remove(id);
+        board.names.remove(id);
+        board.rows.remove(id);
+        resumeRepository.findTextById(resumeId)
+                .filter(view -> userId.equals(view.getUserId()))
+                .ifPresent(view -> putResume(board, view));
+        CandidateProfile candidate = board.resumes.get(id);
+        if (candidate != null) {
+            board.rows.put(id, row(board, candidate));
+        }
+        List<Map.Entry<Long, List<Cell>>> columns = compute(() -> board.vacancies.entrySet().parallelStream()
+                .map(e -> {
+                    Double score = candidate == null ? null : scorer.score(candidate, e.getValue());
+                    List<Cell> adjusted = adjust(board.columns.getOrDefault(e.getKey(), List.of()), id, score);
+                    return Map.entry(e.getKey(), adjusted != null ? adjusted : column(board, e.getValue()));
+                })
+                .toList());
+        columns.forEach(e -> board.columns.put(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Пересчитывает столбец вакансии и вставляет ее новые оценки в строки резюме.
+     */
+    private void applyVacancy(Board board, Long userId, Long vacancyId) {
+        board.vacancies.remove(vacancyId);
+        board.titles.remove(vacancyId);
+        board.columns.remove(vacancyId);
+        vacancyRepository.findTextById(vacancyId)
+                .filter(view -> userId.equals(view.getUserId()))
+                .ifPresent(view -> putVacancy(board, view));
+        VacancyProfile vacancy = board.vacancies.get(vacancyId);
+        if (vacancy != null) {
+            board.columns.put(vacancyId, column(board, vacancy));
+        }
+        List<Map.Entry<Long, List<Cell>>> rows = compute(() -> board.resumes.entrySet().parallelStream()
+                .map(e -> {
+                    Double score = vacancy == null ? null : scorer.score(e.getValue(), vacancy);
+                    List<Cell> adjusted = adjust(board.rows.getOrDefault(e.getKey(), List.of()), vacancyId, score);
+                    return Map.entry(e.getKey(), adjusted != null ? adjusted : row(board, e.getValue()));
+                })
+                .toList());
+        rows.forEach(e -> board.rows.put(e.getKey(), e.getValue()));
+    }
+
+    private void putResume(Board board, ResumeTextView view) {
+        try {
+            List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience =
+                    JsonbCodec.readList(view.getWorkExperience(), ResumeVacancyFastMatchRequest.WorkExperienceDTO.class);
+            long id = view.getId().longValue();
+            board.resumes.put(id, scorer.candidate(view.getRole(), JsonbCodec.readStrings(view.getHardSkills()), workExperience));
+            board.names.put(id, Objects.toString(view.getName(), ""));
+        } catch (IllegalArgumentException e) {
+            log.warn("Резюме {} пропущено в матрице совместимости: {}", view.getId(), e.getMessage());
+        }
+    }
+
+    private void putVacancy(Board board, VacancyTextView view) {
+        board.vacancies.put(view.getId(), scorer.vacancy(view.getTitle(), view.getSkills(), view.getExperience()));
+        board.titles.put(view.getId(), Objects.toString(view.getTitle(), ""));
+    }
+
+    private List<Cell> row(Board board, CandidateProfile candidate) {
+        return top(board.vacancies, vacancy -> scorer.score(candidate, vacancy));
+    }
+
+    private List<Cell> column(Board board, VacancyProfile vacancy) {
+        return top(board.resumes, candidate -> scorer.score(candidate, vacancy));
+    }
+
+    private <T> List<Cell> top(Map<Long, T> others, ToDoubleFunction<T> score) {
+        PriorityQueue<Cell> heap = new PriorityQueue<>(topK + 1, BEST_FIRST.reversed());
+        others.forEach((id, other) -> {
+            heap.add(new Cell(id, score.applyAsDouble(other)));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+        List<Cell> cells = new ArrayList<>(heap);
+        cells.sort(BEST_FIRST);
+        return List.copyOf(cells);
+    }
+
+    /**
+     * Обновляет top-K список после изменения оценки одной записи без перебора.
+     * Список всегда содержит min(K, n) лучших записей, поэтому неполный список хранит всех.
+     *
+     * @param current текущий список по убыванию оценки
+     * @param id      измененная запись
+     * @param score   новая оценка или null, если запись удалена
+     * @return новый список или null, если запись ушла из полного списка и следующего кандидата можно найти
+     * только полным пересчетом
+     */
+    private List<Cell> adjust(List<Cell> current, long id, Double score) {
+        boolean full = current.size() >= topK;
+        Cell worst = current.isEmpty() ? null : current.get(current.size() - 1);
+        List<Cell> next = new ArrayList<>(current.size() + 1);
+        boolean present = false;
+        for (Cell cell : current) {
+            if (cell.id() == id) {
+                present = true;
+            } else {
+                next.add(cell);
+            }
+        }
+        if (score == null) {
+            if (!present) {
+                return current;
+            }
+            return full ? null : List.copyOf(next);
+        }
+        Cell cell = new Cell(id, score);
+        if (full && BEST_FIRST.compare(cell, worst) > 0) {
+            return present ? null : current;
+        }
+        next.add(cell);
+        next.sort(BEST_FIRST);
+        return List.copyOf(next.subList(0, Math.min(topK, next.size())));
+    }
+
+    /**
+     * Выполняет параллельный перебор в пуле матрицы; вызывается только из потока {@code updater}, не из пула.
+     */
+    private <T> T compute(Callable<T> task) {
+        return pool.invoke(ForkJoinTask.adapt(task));
+    }
+
+    private static List<CompatibilityRowDto> toDto(Map<Long, List<Cell>> lines, Map<Long, String> labels,
+                                                   Map<Long, String> matchLabels) {
+        return lines.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Long, List<Cell>> e) -> best(e.getValue())).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .map(e -> new CompatibilityRowDto(e.getKey(), labels.get(e.getKey()), e.getValue().stream()
+                        .map(c -> new SimilarityHitDto(c.id(), matchLabels.get(c.id()), c.score()))
+                        .toList()))
+                .toList();
+    }
+
+    private static double best(List<Cell> cells) {
+        return cells.isEmpty() ? -1 : cells.get(0).score();
+    }
+}
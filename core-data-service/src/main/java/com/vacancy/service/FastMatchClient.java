@@ -0,0 +1,137 @@
+package com.vacancy.service;
+
+import com.vacancy.config.Downstream;
+import com.vacancy.config.Downstreams;
+import com.vacancy.dto.MatchedVacancyIdResponse;
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Клиент быстрого LLM-подбора вакансий. Каталог режется на куски по {@code resume.fast-match.chunk-size}
+ * вакансий, куски отправляются в {@code /resume/match-vacancies} параллельно, найденные ID объединяются.
+ * Время ответа определяется размером куска, а не каталога. Одновременных вызовов с узла -
+ * не больше {@code resume.fast-match.max-concurrency}.
+ */
+@Slf4j
+@Component
+public class FastMatchClient {
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final int chunkSize;
+    private final Semaphore permits;
+    private final ExecutorService dispatcher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fast-match-", 0).factory());
+
+    public FastMatchClient(RestTemplate restTemplate,
+                           Downstreams downstreams,
+                           @Value("${resume.fast-match.chunk-size:20}") int chunkSize,
+                           @Value("${resume.fast-match.max-concurrency:16}") int maxConcurrency) {
+        this.restTemplate = restTemplate;
+        this.url = downstreams.url(Downstream.LLM, "/resume/match-vacancies");
+        this.chunkSize = Math.max(1, chunkSize);
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Подбирает вакансии для резюме по всем кускам каталога.
+     *
+     * @param resume резюме с каталогом вакансий в поле {@code vacancy}
+     * @return ID подходящих вакансий в порядке кусков, без повторов
+     * @throws RuntimeException если хотя бы один кусок не обработан
+     */
+    public Set<Long> match(ResumeVacancyFastMatchRequest.ResumeDTO resume) {
+        List<ResumeVacancyFastMatchRequest.VacancyDTO> vacancies = resume.getVacancy();
+        if (vacancies == null || vacancies.isEmpty()) {
+            return Set.of();
+        }
+        if (vacancies.size() <= chunkSize) {
+            return new LinkedHashSet<>(call(resume, vacancies));
+        }
+        List<CompletableFuture<List<Long>>> futures = new ArrayList<>();
+        for (int from = 0; from < vacancies.size(); from += chunkSize) {
+            List<ResumeVacancyFastMatchRequest.VacancyDTO> chunk =
+                    vacancies.subList(from, Math.min(from + chunkSize, vacancies.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> call(resume, chunk), dispatcher));
+        }
+        log.info("Быстрый подбор резюме {}: {} вакансий в {} кусках", resume.getId(), vacancies.size(), futures.size());
+        Set<Long> matched = new LinkedHashSet<>();
+        try {
+            futures.forEach(f -> matched.addAll(f.join()));
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Ошибка быстрого подбора вакансий", e.getCause());
+        }
+        return matched;
+    }
+
+    /**
+     * Проверяет одну вакансию против набора резюме: по каждому резюме отдельный вызов с каталогом
+     * из этой вакансии. Вызовы идут параллельно под тем же ограничением {@code max-concurrency}.
+     *
+     * @param resumes резюме, у каждого в поле {@code vacancy} - одна проверяемая вакансия
+     * @return вердикт LLM по ID резюме в порядке входного списка; резюме, по которому вызов не удался, отсутствует
+     */
+    public Map<Integer, Boolean> shortlist(List<ResumeVacancyFastMatchRequest.ResumeDTO> resumes) {
+        Map<Integer, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+        for (ResumeVacancyFastMatchRequest.ResumeDTO resume : resumes) {
+            Long vacancyId = resume.getVacancy().get(0).getId().longValue();
+            futures.put(resume.getId(), CompletableFuture.supplyAsync(
+                    () -> call(resume, resume.getVacancy()).contains(vacancyId), dispatcher));
+        }
+        Map<Integer, Boolean> verdicts = new LinkedHashMap<>();
+        futures.forEach((resumeId, future) -> {
+            try {
+                verdicts.put(resumeId, future.join());
+            } catch (CompletionException e) {
+                log.warn("Быстрый подбор резюме {} не выполнен: {}", resumeId, e.getCause().getMessage());
+            }
+        });
+        return verdicts;
+    }
+
+    private List<Long> call(ResumeVacancyFastMatchRequest.ResumeDTO resume,
+                            List<ResumeVacancyFastMatchRequest.VacancyDTO> chunk) {
+        ResumeVacancyFastMatchRequest.ResumeDTO part = new ResumeVacancyFastMatchRequest.ResumeDTO(
+                resume.getId(), resume.getDesiredRole(), resume.getWorkExperience(), chunk);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Быстрый подбор прерван", e);
+        }
+        try {
+            MatchedVacancyIdResponse response = restTemplate.postForObject(url,
+                    new ResumeVacancyFastMatchRequest(part), MatchedVacancyIdResponse.class);
+            if (response == null || response.getMatchedVacancyIds() == null) {
+                return List.of();
+            }
+            return response.getMatchedVacancyIds();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+}
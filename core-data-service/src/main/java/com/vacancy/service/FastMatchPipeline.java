@@ -0,0 +1,120 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.repository.ResumeRepository.ResumeTextView;
+import com.vacancy.repository.VacancyRepository.VacancyTextView;
+import com.vacancy.service.VacancyPreScorer.VacancyProfile;
+import com.vacancy.utils.JsonbCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Общий конвейер подбора резюме к вакансии: локальная оценка {@link VacancyPreScorer}, вердикт быстрого
+ * LLM-подбора {@link FastMatchClient} и сохранение подтвержденных пар в {@code resume_vacancy_fast_match}.
+ * Используется рейтингом кандидатов ({@link CandidateRankingService}), фоновым повторным подбором
+ * ({@link VacancyRematchService}) и загрузкой резюме ({@link ResumeService#fastMatchResume}).
+ */
+@Slf4j
+@Component
+public class FastMatchPipeline {
+    private final VacancyPreScorer preScorer;
+    private final FastMatchClient fastMatchClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FastMatchPipeline(VacancyPreScorer preScorer, FastMatchClient fastMatchClient, JdbcTemplate jdbcTemplate) {
+        this.preScorer = preScorer;
+        this.fastMatchClient = fastMatchClient;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Резюме с локальной оценкой для вакансии.
+     */
+    public record Scored(ResumeTextView resume, List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience,
+                         double score) {
+    }
+
+    /**
+     * Локальная оценка резюме для вакансии.
+     *
+     * @return резюме с оценкой не ниже {@code minScore} по убыванию оценки
+     */
+    public List<Scored> localStage(VacancyTextView vacancy, List<ResumeTextView> resumes, double minScore) {
+        VacancyProfile profile = preScorer.vacancy(vacancy.getTitle(), vacancy.getSkills(), vacancy.getExperience());
+        List<Scored> scored = new ArrayList<>();
+        for (ResumeTextView resume : resumes) {
+            try {
+                List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience =
+                        JsonbCodec.readList(resume.getWorkExperience(), ResumeVacancyFastMatchRequest.WorkExperienceDTO.class);
+                double score = preScorer.score(preScorer.candidate(resume.getRole(),
+                        JsonbCodec.readStrings(resume.getHardSkills()), workExperience), profile);
+                if (score >= minScore) {
+                    scored.add(new Scored(resume, workExperience, score));
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Резюме {} пропущено при подборе к вакансии {}: {}", resume.getId(), vacancy.getId(), e.getMessage());
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(c -> c.resume().getId()));
+        return scored;
+    }
+
+    /**
+     * Спрашивает быстрый LLM-подбор, подходит ли вакансия каждому резюме.
+     *
+     * @return вердикт по ID резюме; резюме, по которым вызов не удался, в ответе нет
+     */
+    public Map<Integer, Boolean> verdicts(List<Scored> candidates, VacancyTextView vacancy) {
+        return fastMatchClient.shortlist(candidates.stream()
+                .map(c -> fastMatchRequest(c, vacancy))
+                .toList());
+    }
+
+    /**
+     * Сохраняет быстрые соответствия вакансии одним пакетом. Пары, уже сохраненные параллельным запросом,
+     * пропускаются по уникальному индексу (resume_id, vacancy_id), остальные пары пакета записываются.
+     *
+     * @throws org.springframework.dao.DataAccessException если пакет не записан
+     */
+    public void save(Set<Integer> resumeIds, Long vacancyId) {
+        insert(resumeIds.stream().map(id -> new Object[]{id, vacancyId}).toList());
+    }
+
+    /**
+     * Сохраняет быстрые соответствия загруженного резюме одним пакетом, так же пропуская уже сохраненные пары.
+     *
+     * @throws org.springframework.dao.DataAccessException если пакет не записан
+     */
+    public void save(Integer resumeId, Set<Long> vacancyIds) {
+        insert(vacancyIds.stream().map(id -> new Object[]{resumeId, id}).toList());
+    }
+
+    private void insert(List<Object[]> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        // вакансия могла быть удалена после чтения каталога: такая пара пропускается, а не роняет пакет
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO resume_vacancy_fast_match (resume_id, vacancy_id) SELECT ?, v.id FROM vacancy v " +
+                        "WHERE v.id = ? ON CONFLICT (resume_id, vacancy_id) DO NOTHING",
+                pairs);
+    }
+
+    private static ResumeVacancyFastMatchRequest.ResumeDTO fastMatchRequest(Scored candidate, VacancyTextView vacancy) {
+        ResumeVacancyFastMatchRequest.VacancyDTO vacancyDto = new ResumeVacancyFastMatchRequest.VacancyDTO();
+        vacancyDto.setId(vacancy.getId().intValue());
+        vacancyDto.setRequiredRole(vacancy.getTitle());
+        vacancyDto.setRequiredExperienceYears(vacancy.getExperience());
+        vacancyDto.setSkills(vacancy.getSkills());
+        return new ResumeVacancyFastMatchRequest.ResumeDTO(candidate.resume().getId(), candidate.resume().getRole(),
+                candidate.workExperience(), List.of(vacancyDto));
+    }
+}
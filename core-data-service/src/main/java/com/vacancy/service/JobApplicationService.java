@@ -1,17 +1,19 @@
 package com.vacancy.service;
 
+import com.vacancy.dto.CursorPage;
 import com.vacancy.dto.JobApplicationDto;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.model.JobApplication;
 import com.vacancy.repository.JobApplicationRepository;
 import com.vacancy.repository.ResumeRepository;
 import com.vacancy.repository.VacancyRepository;
+import com.vacancy.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -47,13 +49,15 @@ public class JobApplicationService {
     }
 
     @Transactional(readOnly = true)
-    public List<JobApplicationDto> getAllJobApplications() {
-        log.info("Получение списка всех откликов");
-        List<JobApplicationDto> jobApplications = jobApplicationRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        log.info("Найдено {} откликов", jobApplications.size());
-        return jobApplications;
+    public CursorPage<JobApplicationDto> getAllJobApplications(ListFilterRequest filter) {
+        log.info("Получение страницы откликов");
+        List<JobApplication> rows = jobApplicationRepository.findPage(filter.statusOrNull(),
+                filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), filter.cursorId(), filter.probe());
+        CursorPage<JobApplicationDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                application -> new KeysetCursor(application.getCreatedAt(), application.getId()), this::convertToDto);
+        log.info("Найдено {} откликов", page.getItems().size());
+        return page;
     }
 
     @Transactional
@@ -0,0 +1,126 @@
+package com.vacancy.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Будит запросы, ждущие сопоставление, которое считает другой узел.
+ * <p>
+ * Ведущий после сохранения результата снимает аренду и шлет {@code NOTIFY} в канал {@link #CHANNEL}
+ * с ключом пары. Узел слушает канал на одном выделенном соединении вне пула Hikari, чтобы не занимать
+ * соединение пула на все время работы. Уведомление может потеряться (переподключение, рестарт),
+ * поэтому ожидающие все равно перепроверяют аренду раз в {@code match.full.lease-poll-interval}.
+ */
+@Slf4j
+@Component
+public class MatchLeaseListener {
+    static final String CHANNEL = "match_lease_released";
+
+    private static final int RECEIVE_TIMEOUT_MS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final DataSource dataSource;
+    private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    public MatchLeaseListener(DataSourceProperties dataSourceProperties) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = Thread.ofPlatform().name("match-lease-listener").daemon().start(this::listen);
+    }
+
+    /**
+     * Подписывает ожидающего на освобождение аренды пары. Подписываться нужно до проверки аренды,
+     * иначе уведомление между проверкой и подпиской будет пропущено.
+     *
+     * @param resumeId  ID резюме
+     * @param vacancyId ID вакансии
+     * @return future, который завершится при освобождении аренды пары любым узлом
+     */
+    public CompletableFuture<Void> subscribe(Integer resumeId, Long vacancyId) {
+        return waiters.computeIfAbsent(key(resumeId, vacancyId), k -> new CompletableFuture<>());
+    }
+
+    static String key(Integer resumeId, Long vacancyId) {
+        return resumeId + ":" + vacancyId;
+    }
+
+    private void listen() {
+        long delay = 1_000;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                log.info("Подписка на освобождение аренд сопоставления ({}) активна", CHANNEL);
+                delay = 1_000;
+                // пока соединения не было, уведомления могли пропасть: пусть все перепроверят аренды
+                wakeAll();
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(RECEIVE_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        CompletableFuture<Void> released = waiters.remove(notification.getParameter());
+                        if (released != null) {
+                            released.complete(null);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение для уведомлений об арендах потеряно, переподключение через {} мс: {}",
+                        delay, e.getMessage());
+                wakeAll();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void wakeAll() {
+        waiters.keySet().forEach(key -> {
+            CompletableFuture<Void> waiter = waiters.remove(key);
+            if (waiter != null) {
+                waiter.complete(null);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        wakeAll();
+    }
+}
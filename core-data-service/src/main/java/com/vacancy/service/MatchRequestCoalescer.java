@@ -0,0 +1,163 @@
+package com.vacancy.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Схлопывает одновременные одинаковые запросы полного сопоставления в один вызов LLM-скорера.
+ * <p>
+ * Внутри узла: первый запрос по ключу (резюме, вакансия, отпечаток) становится ведущим,
+ * остальные ждут его {@link CompletableFuture} и получают тот же результат.
+ * Между узлами: ведущий берет аренду пары в таблице {@code match_leases}. Advisory lock не подходит,
+ * так как держал бы соединение с БД все время ответа LLM. Узел, не получивший аренду, ждет уведомления
+ * об ее освобождении ({@link MatchLeaseListener}), затем забирает сохраненный результат или аренду.
+ * Аренда живет не меньше таймаута скорера, иначе истекла бы у живого ведущего и пару посчитали бы дважды.
+ */
+@Slf4j
+@Component
+public class MatchRequestCoalescer {
+    private final JdbcTemplate jdbcTemplate;
+    private final MatchLeaseListener leaseListener;
+    private final MeterRegistry meterRegistry;
+    private final Duration leaseTtl;
+    private final Duration pollInterval;
+    private final Duration waitTimeout;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public MatchRequestCoalescer(JdbcTemplate jdbcTemplate,
+                                 MatchLeaseListener leaseListener,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${match.full.lease-ttl:4m}") Duration leaseTtl,
+                                 @Value("${match.full.lease-poll-interval:5s}") Duration pollInterval,
+                                 @Value("${match.full.wait-timeout:5m}") Duration waitTimeout,
+                                 @Value("${match.full.batch.timeout:3m}") Duration scorerTimeout) {
+        if (leaseTtl.compareTo(scorerTimeout) < 0) {
+            throw new IllegalStateException("match.full.lease-ttl (" + leaseTtl + ") должен быть не меньше "
+                    + "match.full.batch.timeout (" + scorerTimeout + ")");
+        }
+        if (waitTimeout.compareTo(leaseTtl) < 0) {
+            throw new IllegalStateException("match.full.wait-timeout (" + waitTimeout + ") должен быть не меньше "
+                    + "match.full.lease-ttl (" + leaseTtl + "), иначе ожидающие не переживут упавшего ведущего");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseListener = leaseListener;
+        this.meterRegistry = meterRegistry;
+        this.leaseTtl = leaseTtl;
+        this.pollInterval = pollInterval;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Выполняет вычисление один раз на ключ среди всех одновременных запросов кластера.
+     *
+     * @param resumeId    ID резюме
+     * @param vacancyId   ID вакансии
+     * @param fingerprint отпечаток входных данных
+     * @param computation вызов скорера и сохранение результата, выполняется только ведущим
+     * @param stored      поиск результата, сохраненного другим узлом, null - результата еще нет
+     * @return результат ведущего запроса
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Integer resumeId, Long vacancyId, String fingerprint,
+                         Supplier<T> computation, Supplier<T> stored) {
+        String key = resumeId + ":" + vacancyId + ":" + fingerprint;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            meterRegistry.counter("resume.match.full.coalesced", "scope", "node").increment();
+            log.info("Сопоставление {} уже выполняется на этом узле, ждем результат", key);
+            try {
+                return (T) leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            T result = withLease(resumeId, vacancyId, fingerprint, computation, stored);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> T withLease(Integer resumeId, Long vacancyId, String fingerprint,
+                            Supplier<T> computation, Supplier<T> stored) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        boolean waited = false;
+        while (true) {
+            CompletableFuture<Void> released = leaseListener.subscribe(resumeId, vacancyId);
+            if (tryAcquire(resumeId, vacancyId, fingerprint)) {
+                try {
+                    return computation.get();
+                } finally {
+                    release(resumeId, vacancyId);
+                }
+            }
+            if (!waited) {
+                waited = true;
+                meterRegistry.counter("resume.match.full.coalesced", "scope", "cluster").increment();
+                log.info("Сопоставление резюме {} и вакансии {} выполняет другой узел, ждем", resumeId, vacancyId);
+            }
+            T result = stored.get();
+            if (result != null) {
+                return result;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("Не дождались сопоставления резюме " + resumeId + " и вакансии " + vacancyId);
+            }
+            try {
+                released.get(Math.min(pollInterval.toNanos(), deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // уведомления не было: перепроверяем аренду, вдруг она истекла у упавшего ведущего
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Ожидание сопоставления прервано", e);
+            }
+        }
+    }
+
+    private boolean tryAcquire(Integer resumeId, Long vacancyId, String fingerprint) {
+        int updated = jdbcTemplate.update(
+                "INSERT INTO match_leases (resume_id, vacancy_id, fingerprint, owner, expires_at) " +
+                        "VALUES (?, ?, ?, ?, now() + make_interval(secs => ?)) " +
+                        "ON CONFLICT (resume_id, vacancy_id) DO UPDATE " +
+                        "SET fingerprint = EXCLUDED.fingerprint, owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+                        "WHERE match_leases.expires_at < now()",
+                resumeId, vacancyId, fingerprint, nodeId, (double) leaseTtl.toSeconds());
+        return updated == 1;
+    }
+
+    private void release(Integer resumeId, Long vacancyId) {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM match_leases WHERE resume_id = ? AND vacancy_id = ? AND owner = ?",
+                    resumeId, vacancyId, nodeId);
+            if (deleted == 1) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+                }, MatchLeaseListener.CHANNEL, MatchLeaseListener.key(resumeId, vacancyId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось снять аренду сопоставления резюме {} и вакансии {}, истечет сама", resumeId, vacancyId, e);
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package com.vacancy.service;
 
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.dto.OfferDto;
 import com.vacancy.model.Offer;
 import com.vacancy.repository.JobApplicationRepository;
 import com.vacancy.repository.OfferRepository;
+import com.vacancy.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -43,13 +45,14 @@ public class OfferService {
     }
 
     @Transactional(readOnly = true)
-    public List<OfferDto> getAllOffers() {
-        log.info("Получение списка всех офферов");
-        List<OfferDto> offers = offerRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        log.info("Найдено {} офферов", offers.size());
-        return offers;
+    public CursorPage<OfferDto> getAllOffers(ListFilterRequest filter) {
+        log.info("Получение страницы офферов");
+        List<Offer> rows = offerRepository.findPage(filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), filter.cursorId(), filter.probe());
+        CursorPage<OfferDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                offer -> new KeysetCursor(offer.getCreatedAt(), offer.getId()), this::convertToDto);
+        log.info("Найдено {} офферов", page.getItems().size());
+        return page;
     }
 
     @Transactional
@@ -0,0 +1,11 @@
+package com.vacancy.service;
+
+/**
+ * Событие изменения резюме: создание, обновление или удаление.
+ * Слушатели получают его после коммита и при необходимости перечитывают резюме по ID.
+ *
+ * @param resumeId ID резюме
+ * @param userId   владелец резюме
+ */
+public record ResumeChangedEvent(Integer resumeId, Long userId) {
+}
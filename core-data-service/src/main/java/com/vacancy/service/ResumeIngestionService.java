@@ -0,0 +1,407 @@
+package com.vacancy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.dto.CandidateDTO;
+import com.vacancy.dto.ResumeBatchDto;
+import com.vacancy.dto.ResumeIngestionDto;
+import com.vacancy.dto.ResumeIngestionDto.Stage;
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.model.Resume;
+import com.vacancy.model.User;
+import com.vacancy.storage.SpooledUpload;
+import com.vacancy.storage.UploadSpooler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Фоновая загрузка резюме: нормализация через LLM, сохранение и быстрый подбор вакансий
+ * выполняются в пуле {@code resumeIngestionExecutor}, а клиент опрашивает состояние по ID.
+ * Состояния хранятся в памяти узла и удаляются через {@code resume.ingestion.retention} после завершения.
+ * Пакетная загрузка идет в отдельном пуле {@code resumeBatchIngestionExecutor}, чтобы не задерживать
+ * одиночные загрузки, обрабатывает не больше {@code resume.ingestion.batch-parallelism} файлов одновременно
+ * и читает каталог вакансий для быстрого подбора один раз на пакет.
+ */
+@Slf4j
+@Service
+public class ResumeIngestionService {
+    private final ResumeService resumeService;
+    private final VacancyCatalogCache vacancyCatalogCache;
+    private final UploadSpooler uploadSpooler;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final TaskExecutor batchExecutor;
+    private final Duration retention;
+    private final int batchParallelism;
+    private final int maxBatchFiles;
+    private final Map<UUID, IngestionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, IngestionBatch> batches = new ConcurrentHashMap<>();
+
+    public ResumeIngestionService(ResumeService resumeService,
+                                  VacancyCatalogCache vacancyCatalogCache,
+                                  UploadSpooler uploadSpooler,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("resumeIngestionExecutor") TaskExecutor executor,
+                                  @Qualifier("resumeBatchIngestionExecutor") TaskExecutor batchExecutor,
+                                  @Value("${resume.ingestion.retention:1h}") Duration retention,
+                                  @Value("${resume.ingestion.batch-parallelism:4}") int batchParallelism,
+                                  @Value("${resume.ingestion.max-batch-files:1000}") int maxBatchFiles) {
+        this.resumeService = resumeService;
+        this.vacancyCatalogCache = vacancyCatalogCache;
+        this.uploadSpooler = uploadSpooler;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.batchExecutor = batchExecutor;
+        this.retention = retention;
+        // больше обработчиков, чем потоков пула, только стояли бы в очереди
+        this.batchParallelism = batchExecutor instanceof ThreadPoolTaskExecutor pool
+                ? Math.min(batchParallelism, pool.getMaxPoolSize()) : batchParallelism;
+        this.maxBatchFiles = maxBatchFiles;
+    }
+
+    /**
+     * Принимает файл резюме и ставит его обработку в очередь.
+     * Файл сбрасывается на диск в потоке запроса, так как multipart удаляется после ответа.
+     *
+     * @param email email кандидата
+     * @param file  PDF резюме
+     * @param user  пользователь, загружающий резюме
+     * @return состояние загрузки
+     */
+    public ResumeIngestionDto submit(String email, MultipartFile file, User user) {
+        evictFinished();
+        SpooledUpload upload;
+        try {
+            upload = uploadSpooler.spool(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при приеме файла резюме", e);
+        }
+        IngestionJob job = new IngestionJob(UUID.randomUUID(), user.getId(), email, upload.originalFilename());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> process(job, upload, user, () -> vacancyCatalogCache.get(user)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            closeQuietly(upload);
+            throw new RuntimeException("Очередь загрузки резюме переполнена, повторите позже", e);
+        }
+        log.info("Загрузка резюме {} поставлена в очередь (user={})", job.id, user.getUsername());
+        return job.toDto();
+    }
+
+    /**
+     * Принимает пакет резюме: отдельные PDF и ZIP-архивы с PDF внутри.
+     * Все файлы сбрасываются на диск в потоке запроса, затем обрабатываются в фоне
+     * не более чем {@code batch-parallelism} одновременно.
+     *
+     * @param files      PDF-файлы и ZIP-архивы
+     * @param emailsJson JSON-объект "имя файла" -> "email кандидата"
+     * @param user       пользователь, загружающий резюме
+     * @return состояние пакета
+     */
+    public ResumeBatchDto submitBatch(List<MultipartFile> files, String emailsJson, User user) {
+        evictFinished();
+        Map<String, String> emails = parseEmails(emailsJson);
+        List<SpooledUpload> uploads = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                if (isZip(file)) {
+                    spoolZip(file, uploads);
+                } else {
+                    uploads.add(uploadSpooler.spool(file));
+                }
+                checkBatchSize(uploads.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            uploads.forEach(ResumeIngestionService::closeQuietly);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Ошибка при приеме пакета резюме", e);
+        }
+        if (uploads.isEmpty()) {
+            throw new RuntimeException("В пакете нет PDF-файлов");
+        }
+
+        IngestionBatch batch = new IngestionBatch(UUID.randomUUID(), user.getId(), batchParallelism);
+        for (SpooledUpload upload : uploads) {
+            String email = emails.get(upload.originalFilename());
+            IngestionJob job = new IngestionJob(UUID.randomUUID(), user.getId(), email, upload.originalFilename());
+            jobs.put(job.id, job);
+            batch.jobs.add(job);
+            if (email == null || email.isBlank()) {
+                job.fail(new IllegalArgumentException("Не указан email для файла " + upload.originalFilename()));
+                closeQuietly(upload);
+            } else {
+                batch.pending.add(new PendingUpload(job, upload));
+            }
+        }
+        batches.put(batch.id, batch);
+
+        Supplier<List<ResumeVacancyFastMatchRequest.VacancyDTO>> catalog =
+                () -> batch.catalog(() -> vacancyCatalogCache.get(user));
+        int workers = Math.min(batchParallelism, batch.pending.size());
+        for (int i = 0; i < workers; i++) {
+            try {
+                batchExecutor.execute(() -> drain(batch, user, catalog));
+            } catch (TaskRejectedException e) {
+                if (i == 0) {
+                    batch.rejectPending(e);
+                    batches.remove(batch.id);
+                    batch.jobs.forEach(job -> jobs.remove(job.id));
+                    throw new RuntimeException("Очередь загрузки резюме переполнена, повторите позже", e);
+                }
+                log.warn("Пакет {} обрабатывается с параллелизмом {} вместо {}", batch.id, i, workers);
+                break;
+            }
+        }
+        log.info("Пакет резюме {} из {} файлов поставлен в очередь (user={})", batch.id, batch.jobs.size(), user.getUsername());
+        return batch.toDto();
+    }
+
+    /**
+     * Получает состояние пакетной загрузки с результатом по каждому файлу.
+     *
+     * @param id   ID пакета
+     * @param user текущий пользователь
+     * @return состояние пакета
+     * @throws RuntimeException если пакет не найден или принадлежит другому пользователю
+     */
+    public ResumeBatchDto getBatch(UUID id, User user) {
+        IngestionBatch batch = batches.get(id);
+        if (batch == null || !batch.userId.equals(user.getId())) {
+            throw new RuntimeException("Batch not found");
+        }
+        return batch.toDto();
+    }
+
+    /**
+     * Получает состояние загрузки.
+     *
+     * @param id   ID загрузки
+     * @param user текущий пользователь
+     * @return состояние загрузки
+     * @throws RuntimeException если загрузка не найдена или принадлежит другому пользователю
+     */
+    public ResumeIngestionDto getIngestion(UUID id, User user) {
+        IngestionJob job = jobs.get(id);
+        if (job == null || !job.userId.equals(user.getId())) {
+            throw new RuntimeException("Ingestion not found");
+        }
+        return job.toDto();
+    }
+
+    private void drain(IngestionBatch batch, User user,
+                       Supplier<List<ResumeVacancyFastMatchRequest.VacancyDTO>> catalog) {
+        PendingUpload next;
+        while ((next = batch.pending.poll()) != null) {
+            process(next.job(), next.upload(), user, catalog);
+        }
+    }
+
+    private void process(IngestionJob job, SpooledUpload upload, User user,
+                         Supplier<List<ResumeVacancyFastMatchRequest.VacancyDTO>> catalog) {
+        try (upload) {
+            job.enter(Stage.NORMALIZING);
+            CandidateDTO candidate = resumeService.normalizeResume(job.email, upload);
+            job.enter(Stage.SAVING);
+            Resume resume = resumeService.saveNormalizedResume(job.email, candidate, upload, user);
+            job.resumeId = resume.getId();
+            job.enter(Stage.FAST_MATCHING);
+            resumeService.fastMatchResume(resume, catalog.get());
+            job.enter(Stage.COMPLETED);
+            log.info("Загрузка резюме {} завершена, id резюме={}", job.id, resume.getId());
+        } catch (Exception e) {
+            log.error("Ошибка при загрузке и нормализации резюме {}: {}", job.id, e.getMessage(), e);
+            job.fail(e);
+        }
+    }
+
+    private void evictFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+        batches.values().removeIf(batch -> batch.finishedBefore(threshold));
+    }
+
+    private Map<String, String> parseEmails(String emailsJson) {
+        if (emailsJson == null || emailsJson.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(emailsJson, new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Некорректный формат emails: ожидается JSON-объект {\"файл.pdf\": \"email\"}", e);
+        }
+    }
+
+    private void spoolZip(MultipartFile file, List<SpooledUpload> uploads) throws IOException {
+        try (InputStream raw = file.getInputStream(); ZipInputStream zip = new ZipInputStream(raw)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = Paths.get(entry.getName()).getFileName().toString();
+                if (!entry.isDirectory() && name.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    uploads.add(uploadSpooler.spool(zip, name));
+                    checkBatchSize(uploads.size());
+                }
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchFiles) {
+            throw new RuntimeException("В пакете больше " + maxBatchFiles + " файлов");
+        }
+    }
+
+    private static boolean isZip(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        return "application/zip".equals(file.getContentType())
+                || (name != null && name.toLowerCase(Locale.ROOT).endsWith(".zip"));
+    }
+
+    private static void closeQuietly(SpooledUpload upload) {
+        try {
+            upload.close();
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}", upload.path(), e);
+        }
+    }
+
+    private record PendingUpload(IngestionJob job, SpooledUpload upload) {
+    }
+
+    private static final class IngestionBatch {
+        private final UUID id;
+        private final Long userId;
+        private final int parallelism;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<IngestionJob> jobs = new ArrayList<>();
+        private final Queue<PendingUpload> pending = new ConcurrentLinkedQueue<>();
+        private List<ResumeVacancyFastMatchRequest.VacancyDTO> catalog;
+
+        private IngestionBatch(UUID id, Long userId, int parallelism) {
+            this.id = id;
+            this.userId = userId;
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * Каталог вакансий читается первым файлом, дошедшим до быстрого подбора, и переиспользуется остальными.
+         */
+        private synchronized List<ResumeVacancyFastMatchRequest.VacancyDTO> catalog(
+                Supplier<List<ResumeVacancyFastMatchRequest.VacancyDTO>> loader) {
+            if (catalog == null) {
+                catalog = loader.get();
+            }
+            return catalog;
+        }
+
+        private void rejectPending(Exception e) {
+            PendingUpload next;
+            while ((next = pending.poll()) != null) {
+                next.job().fail(e);
+                closeQuietly(next.upload());
+            }
+        }
+
+        private boolean finishedBefore(LocalDateTime threshold) {
+            return jobs.stream().allMatch(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+        }
+
+        private ResumeBatchDto toDto() {
+            List<ResumeIngestionDto> items = jobs.stream().map(IngestionJob::toDto).toList();
+            ResumeBatchDto dto = new ResumeBatchDto();
+            dto.setId(id);
+            dto.setTotal(items.size());
+            dto.setCompleted((int) items.stream().filter(i -> i.getStage() == Stage.COMPLETED).count());
+            dto.setFailed((int) items.stream().filter(i -> i.getStage() == Stage.FAILED).count());
+            dto.setParallelism(parallelism);
+            dto.setCreatedAt(createdAt);
+            if (items.stream().allMatch(i -> i.getStage().isFinished())) {
+                dto.setFinishedAt(items.stream().map(ResumeIngestionDto::getFinishedAt)
+                        .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(createdAt));
+            }
+            dto.setItems(items);
+            return dto;
+        }
+    }
+
+    private static final class IngestionJob {
+        private final UUID id;
+        private final Long userId;
+        private final String email;
+        private final String fileName;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final Map<Stage, Long> durations = new EnumMap<>(Stage.class);
+        private volatile Stage stage = Stage.QUEUED;
+        private volatile Integer resumeId;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private long stageStartedNanos = System.nanoTime();
+
+        private IngestionJob(UUID id, Long userId, String email, String fileName) {
+            this.id = id;
+            this.userId = userId;
+            this.email = email;
+            this.fileName = fileName;
+        }
+
+        private synchronized void enter(Stage next) {
+            long now = System.nanoTime();
+            durations.put(stage, Duration.ofNanos(now - stageStartedNanos).toMillis());
+            stageStartedNanos = now;
+            stage = next;
+            if (next.isFinished()) {
+                finishedAt = LocalDateTime.now();
+            }
+        }
+
+        private synchronized void fail(Exception e) {
+            error = e.getMessage();
+            enter(Stage.FAILED);
+        }
+
+        private synchronized ResumeIngestionDto toDto() {
+            ResumeIngestionDto dto = new ResumeIngestionDto();
+            dto.setId(id);
+            dto.setStage(stage);
+            dto.setFileName(fileName);
+            dto.setEmail(email);
+            dto.setResumeId(resumeId);
+            dto.setError(error);
+            dto.setCreatedAt(createdAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setStageDurationsMs(new EnumMap<>(durations));
+            return dto;
+        }
+    }
+}
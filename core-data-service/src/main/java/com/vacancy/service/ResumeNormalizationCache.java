@@ -0,0 +1,132 @@
+package com.vacancy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.dto.CandidateDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Кэш результатов LLM-нормализации резюме по SHA-256 файла и версии нормализатора.
+ * Два уровня: LRU в памяти узла и таблица {@code resume_normalization_cache} в Postgres.
+ * В обоих уровнях хранится JSON, поэтому каждый вызов получает собственную копию {@link CandidateDTO}.
+ * Кэш не влияет на исход загрузки: ошибка таблицы при чтении считается промахом, при записи - пропускается.
+ */
+@Slf4j
+@Component
+public class ResumeNormalizationCache {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String normalizerVersion;
+    private final Map<String, String> memory;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public ResumeNormalizationCache(JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${resume.normalization-cache.normalizer-version:v1}") String normalizerVersion,
+                                    @Value("${resume.normalization-cache.max-entries:1000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.normalizerVersion = normalizerVersion;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.memoryHits = Counter.builder("resume.normalization.cache")
+                .description("Обращения к кэшу нормализации резюме")
+                .tag("result", "hit").tag("tier", "memory").register(meterRegistry);
+        this.databaseHits = Counter.builder("resume.normalization.cache")
+                .description("Обращения к кэшу нормализации резюме")
+                .tag("result", "hit").tag("tier", "database").register(meterRegistry);
+        this.misses = Counter.builder("resume.normalization.cache")
+                .description("Обращения к кэшу нормализации резюме")
+                .tag("result", "miss").tag("tier", "none").register(meterRegistry);
+    }
+
+    /**
+     * Ищет нормализованное резюме сначала в памяти, затем в БД.
+     *
+     * @param sha256 SHA-256 содержимого PDF
+     * @return нормализованные данные кандидата, если файл уже разбирался текущей версией нормализатора
+     */
+    public Optional<CandidateDTO> get(String sha256) {
+        String payload;
+        synchronized (memory) {
+            payload = memory.get(sha256);
+        }
+        if (payload != null) {
+            memoryHits.increment();
+            return Optional.of(read(payload));
+        }
+        Optional<CandidateDTO> stored;
+        try {
+            stored = jdbcTemplate.queryForList(
+                            "SELECT payload::text FROM resume_normalization_cache WHERE content_sha256 = ? AND normalizer_version = ?",
+                            String.class, sha256, normalizerVersion).stream()
+                    .findFirst()
+                    .map(row -> {
+                        CandidateDTO candidate = read(row);
+                        remember(sha256, row);
+                        return candidate;
+                    });
+        } catch (DataAccessException | IllegalStateException e) {
+            log.warn("Кэш нормализации недоступен для {}, резюме нормализуется заново: {}", sha256, e.getMessage());
+            stored = Optional.empty();
+        }
+        (stored.isPresent() ? databaseHits : misses).increment();
+        return stored;
+    }
+
+    /**
+     * Сохраняет результат нормализации в оба уровня кэша.
+     *
+     * @param sha256    SHA-256 содержимого PDF
+     * @param candidate ответ сервиса нормализации
+     */
+    public void put(String sha256, CandidateDTO candidate) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(candidate);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать нормализованное резюме {} для кэша", sha256, e);
+            return;
+        }
+        remember(sha256, payload);
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO resume_normalization_cache (content_sha256, normalizer_version, payload, created_at) " +
+                            "VALUES (?, ?, CAST(? AS jsonb), now()) ON CONFLICT (content_sha256, normalizer_version) DO NOTHING",
+                    sha256, normalizerVersion, payload);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить нормализованное резюме {} в кэш: {}", sha256, e.getMessage());
+        }
+    }
+
+    private void remember(String sha256, String payload) {
+        synchronized (memory) {
+            memory.put(sha256, payload);
+        }
+    }
+
+    private CandidateDTO read(String payload) {
+        try {
+            return objectMapper.readValue(payload, CandidateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка чтения кэша нормализации резюме", e);
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.vacancy.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vacancy.config.Downstream;
+import com.vacancy.config.Downstreams;
 import com.vacancy.dto.CandidateDTO;
-import com.vacancy.dto.MatchedVacancyIdResponse;
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.dto.ResumeDto;
+import com.vacancy.dto.ResumeSummaryDto;
 import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.exception.InvalidPatchException;
 import com.vacancy.model.CandidateStatus;
 import com.vacancy.model.Resume;
-import com.vacancy.model.ResumeVacancyFastMatch;
 import com.vacancy.model.User;
 import com.vacancy.repository.ResumeRepository;
 import com.vacancy.repository.ResumeVacancyFastMatchRepository;
-import com.vacancy.utils.JsonUtils;
+import com.vacancy.storage.PdfBlobStore;
+import com.vacancy.storage.PdfReleasedEvent;
+import com.vacancy.storage.SpooledUpload;
+import com.vacancy.storage.StoredBlob;
+import com.vacancy.utils.EntityVersions;
+import com.vacancy.utils.JsonbCodec;
+import com.vacancy.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -23,11 +35,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -39,10 +57,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ResumeService {
     private final ResumeRepository resumeRepository;
-    private final JsonUtils jsonUtils;
-    private final VacancyService vacancyService;
     private final ObjectMapper objectMapper;
     private final ResumeVacancyFastMatchRepository repository;
+    private final PdfBlobStore pdfBlobStore;
+    private final ResumeNormalizationCache normalizationCache;
+    private final VacancyPreScorer vacancyPreScorer;
+    private final VacancyCatalogCache vacancyCatalogCache;
+    private final FastMatchClient fastMatchClient;
+    private final FastMatchPipeline fastMatchPipeline;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RestTemplate restTemplate;
+    private final Downstreams downstreams;
 
     /**
      * Создает новое резюме.
@@ -57,8 +82,9 @@ public class ResumeService {
         Resume resume = convertToEntity(resumeDto);
         resume.setUser(user);
         Resume savedResume = resumeRepository.save(resume);
+        eventPublisher.publishEvent(new ResumeChangedEvent(savedResume.getId(), user.getId()));
         log.info("Резюме успешно создано с ID: {}", savedResume.getId());
-        return convertToDto(savedResume);
+        return convertToDto(savedResume, List.of());
     }
 
     /**
@@ -72,7 +98,8 @@ public class ResumeService {
     public ResumeDto getResume(Integer id) {
         log.info("Получение резюме по ID: {}", id);
         return resumeRepository.findById(id)
-                .map(this::convertToDto)
+                .map(resume -> convertToDto(resume, loadMatchedVacancies(List.of(resume.getId()))
+                        .getOrDefault(resume.getId(), List.of())))
                 .orElseThrow(() -> {
                     log.error("Резюме с ID {} не найдено", id);
                     return new RuntimeException("Resume not found");
@@ -80,19 +107,67 @@ public class ResumeService {
     }
 
     /**
-     * Получает список всех резюме пользователя.
+     * Получает страницу резюме пользователя.
+     * Пагинация по ключу (created_at, id), сортировка от новых к старым.
      *
-     * @param user пользователь
-     * @return список резюме в формате DTO
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   пользователь
+     * @return страница резюме в формате DTO
      */
     @Transactional(readOnly = true)
-    public List<ResumeDto> getAllResumes(User user) {
-        log.info("Получение списка всех резюме пользователя {}", user.getUsername());
-        List<ResumeDto> resumes = resumeRepository.findByUser(user).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        log.info("Найдено {} резюме", resumes.size());
-        return resumes;
+    public CursorPage<ResumeDto> getAllResumes(ListFilterRequest filter, User user) {
+        log.info("Получение страницы резюме пользователя {}", user.getUsername());
+        List<Resume> rows = resumeRepository.findPageByUser(user, statusIdOrNull(filter), filter.sourceOrNull(),
+                filter.likePrefix(), filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), resumeCursorId(filter), filter.probe());
+        Map<Integer, List<ResumeDto.MatchedVacancyShortDto>> matchedVacancies = loadMatchedVacancies(
+                rows.stream().map(Resume::getId).toList());
+        CursorPage<ResumeDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                resume -> new KeysetCursor(resume.getCreatedAt(), resume.getId()),
+                resume -> convertToDto(resume, matchedVacancies.getOrDefault(resume.getId(), List.of())));
+        log.info("Найдено {} резюме", page.getItems().size());
+        return page;
+    }
+
+    /**
+     * Получает страницу кратких резюме пользователя для карточек кандидатов.
+     * PDF и объемные jsonb-поля не загружаются.
+     *
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   пользователь
+     * @return страница кратких DTO резюме
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ResumeSummaryDto> getResumeSummaries(ListFilterRequest filter, User user) {
+        log.info("Получение краткого списка резюме пользователя {}", user.getUsername());
+        List<ResumeRepository.ResumeSummaryView> rows = resumeRepository.findSummaryPageByUser(user,
+                statusIdOrNull(filter), filter.sourceOrNull(), filter.likePrefix(),
+                filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), resumeCursorId(filter), filter.probe());
+        Map<Integer, List<ResumeDto.MatchedVacancyShortDto>> matchedVacancies = loadMatchedVacancies(
+                rows.stream().map(ResumeRepository.ResumeSummaryView::getId).toList());
+        CursorPage<ResumeSummaryDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                view -> new KeysetCursor(view.getCreatedAt(), view.getId()),
+                view -> convertToSummaryDto(view, matchedVacancies.getOrDefault(view.getId(), List.of())));
+        log.info("Найдено {} резюме", page.getItems().size());
+        return page;
+    }
+
+    private Integer statusIdOrNull(ListFilterRequest filter) {
+        String status = filter.statusOrNull();
+        if (status == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(status);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Статус резюме должен быть ID статуса кандидата: " + status, e);
+        }
+    }
+
+    private Integer resumeCursorId(ListFilterRequest filter) {
+        Long cursorId = filter.cursorId();
+        return cursorId != null ? Math.toIntExact(cursorId) : null;
     }
 
     /**
@@ -118,7 +193,71 @@ public class ResumeService {
         }
         updateEntityFromDto(existingResume, resumeDto);
         resumeRepository.save(existingResume);
-        return convertToDto(existingResume);
+        eventPublisher.publishEvent(new ResumeChangedEvent(id, user.getId()));
+        return convertToDto(existingResume, loadMatchedVacancies(List.of(id)).getOrDefault(id, List.of()));
+    }
+
+    /**
+     * Частично обновляет резюме по JSON Merge Patch (RFC 7386): меняются только поля из тела запроса,
+     * {@code null} очищает поле. Благодаря {@code @DynamicUpdate} UPDATE содержит только измененные колонки.
+     *
+     * @param id              ID резюме
+     * @param patch           JSON Merge Patch
+     * @param expectedVersion версия из If-Match, null - без проверки
+     * @param user            пользователь, выполняющий обновление
+     * @return обновленное резюме с новой версией
+     * @throws RuntimeException если резюме не найдено или доступ запрещен
+     * @throws InvalidPatchException если поле неизвестно, нельзя изменить или тело некорректно
+     */
+    @Transactional
+    public ResumeDto patchResume(Integer id, ObjectNode patch, Long expectedVersion, User user) {
+        log.info("Частичное обновление резюме с ID: {} пользователем {}", id, user.getUsername());
+        Resume existingResume = resumeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Resume not found"));
+        if (!existingResume.getUser().getId().equals(user.getId())) {
+            log.warn("Пользователь {} пытался обновить чужое резюме {}", user.getUsername(), id);
+            throw new RuntimeException("Access denied");
+        }
+        EntityVersions.check(Resume.class, id, existingResume.getVersion(), expectedVersion);
+        ResumeDto changes;
+        try {
+            changes = objectMapper.treeToValue(patch, ResumeDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("Некорректное тело PATCH: " + e.getOriginalMessage(), e);
+        }
+        patch.fieldNames().forEachRemaining(field -> applyPatchField(existingResume, field, changes));
+        resumeRepository.saveAndFlush(existingResume);
+        eventPublisher.publishEvent(new ResumeChangedEvent(id, user.getId()));
+        return convertToDto(existingResume, loadMatchedVacancies(List.of(id)).getOrDefault(id, List.of()));
+    }
+
+    private void applyPatchField(Resume entity, String field, ResumeDto changes) {
+        switch (field) {
+            case "email" -> {
+                if (changes.getEmail() == null) {
+                    throw new InvalidPatchException("email", "Поле email обязательно");
+                }
+                entity.setEmail(changes.getEmail());
+            }
+            case "source" -> entity.setSource(changes.getSource());
+            case "name" -> entity.setName(changes.getName());
+            case "phone" -> entity.setPhone(changes.getPhone());
+            case "role" -> entity.setRole(changes.getRole());
+            case "hardSkills" -> entity.setHardSkills(JsonbCodec.writeStrings(changes.getHardSkills()));
+            case "softSkills" -> entity.setSoftSkills(JsonbCodec.writeStrings(changes.getSoftSkills()));
+            case "education" -> entity.setEducation(JsonbCodec.write(changes.getEducation()));
+            case "workExperience" -> entity.setWorkExperience(JsonbCodec.write(changes.getWorkExperience()));
+            case "pdfFile" -> {
+                if (changes.getPdfFile() != null) {
+                    storePdf(entity, changes.getPdfFile());
+                } else {
+                    releasePdf(entity.getPdfSha256());
+                    entity.setPdfSha256(null);
+                    entity.setPdfSize(null);
+                }
+            }
+            default -> throw new InvalidPatchException(field, "Поле " + field + " нельзя изменить через PATCH");
+        }
     }
 
     /**
@@ -137,6 +276,8 @@ public class ResumeService {
             throw new RuntimeException("Access denied");
         }
         resumeRepository.deleteById(id);
+        eventPublisher.publishEvent(new ResumeChangedEvent(id, user.getId()));
+        releasePdf(existingResume.getPdfSha256());
         log.info("Резюме с ID {} успешно удалено", id);
     }
 
@@ -154,17 +295,12 @@ public class ResumeService {
         entity.setName(dto.getName());
         entity.setPhone(dto.getPhone());
         entity.setRole(dto.getRole());
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            entity.setHardSkills(dto.getHardSkills() != null ? objectMapper.writeValueAsString(dto.getHardSkills()) : null);
-            entity.setSoftSkills(dto.getSoftSkills() != null ? objectMapper.writeValueAsString(dto.getSoftSkills()) : null);
-            entity.setEducation(dto.getEducation() != null ? objectMapper.writeValueAsString(dto.getEducation()) : null);
-            entity.setWorkExperience(dto.getWorkExperience() != null ? objectMapper.writeValueAsString(dto.getWorkExperience()) : null);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Ошибка сериализации jsonb-полей", e);
-        }
+        entity.setHardSkills(JsonbCodec.writeStrings(dto.getHardSkills()));
+        entity.setSoftSkills(JsonbCodec.writeStrings(dto.getSoftSkills()));
+        entity.setEducation(JsonbCodec.write(dto.getEducation()));
+        entity.setWorkExperience(JsonbCodec.write(dto.getWorkExperience()));
         if (dto.getPdfFile() != null) {
-            entity.setPdfContent(java.util.Base64.getDecoder().decode(dto.getPdfFile()));
+            storePdf(entity, dto.getPdfFile());
         }
         return entity;
     }
@@ -181,27 +317,53 @@ public class ResumeService {
         entity.setName(dto.getName());
         entity.setPhone(dto.getPhone());
         entity.setRole(dto.getRole());
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            entity.setHardSkills(dto.getHardSkills() != null ? objectMapper.writeValueAsString(dto.getHardSkills()) : null);
-            entity.setSoftSkills(dto.getSoftSkills() != null ? objectMapper.writeValueAsString(dto.getSoftSkills()) : null);
-            entity.setEducation(dto.getEducation() != null ? objectMapper.writeValueAsString(dto.getEducation()) : null);
-            entity.setWorkExperience(dto.getWorkExperience() != null ? objectMapper.writeValueAsString(dto.getWorkExperience()) : null);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Ошибка сериализации jsonb-полей", e);
-        }
+        entity.setHardSkills(JsonbCodec.writeStrings(dto.getHardSkills()));
+        entity.setSoftSkills(JsonbCodec.writeStrings(dto.getSoftSkills()));
+        entity.setEducation(JsonbCodec.write(dto.getEducation()));
+        entity.setWorkExperience(JsonbCodec.write(dto.getWorkExperience()));
         if (dto.getPdfFile() != null) {
-            entity.setPdfContent(java.util.Base64.getDecoder().decode(dto.getPdfFile()));
+            storePdf(entity, dto.getPdfFile());
+        }
+    }
+
+    /**
+     * Сохраняет PDF из base64 в хранилище и привязывает его к резюме по хэшу.
+     *
+     * @param entity    резюме
+     * @param pdfBase64 содержимое PDF в base64
+     */
+    private void storePdf(Resume entity, String pdfBase64) {
+        try (InputStream pdf = Base64.getDecoder().wrap(
+                new ByteArrayInputStream(pdfBase64.getBytes(StandardCharsets.US_ASCII)))) {
+            StoredBlob blob = pdfBlobStore.store(pdf);
+            if (!blob.sha256().equals(entity.getPdfSha256())) {
+                releasePdf(entity.getPdfSha256());
+            }
+            entity.setPdfSha256(blob.sha256());
+            entity.setPdfSize(blob.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка сохранения PDF резюме", e);
+        }
+    }
+
+    /**
+     * Сообщает, что резюме больше не ссылается на PDF; файл удаляется после коммита,
+     * если на него не ссылаются другие резюме.
+     */
+    private void releasePdf(String sha256) {
+        if (sha256 != null) {
+            eventPublisher.publishEvent(new PdfReleasedEvent(sha256));
         }
     }
 
     /**
      * Конвертирует сущность Resume в DTO.
      *
-     * @param entity сущность для конвертации
+     * @param entity           сущность для конвертации
+     * @param matchedVacancies подходящие вакансии, загруженные через {@link #loadMatchedVacancies}
      * @return DTO
      */
-    private ResumeDto convertToDto(Resume entity) {
+    private ResumeDto convertToDto(Resume entity, List<ResumeDto.MatchedVacancyShortDto> matchedVacancies) {
         ResumeDto dto = new ResumeDto();
         dto.setId(entity.getId());
         dto.setEmail(entity.getEmail());
@@ -209,117 +371,200 @@ public class ResumeService {
         dto.setName(entity.getName());
         dto.setPhone(entity.getPhone());
         dto.setRole(entity.getRole());
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            dto.setHardSkills(entity.getHardSkills() != null ? objectMapper.readValue(entity.getHardSkills(), new TypeReference<List<String>>() {
-            }) : null);
-            dto.setSoftSkills(entity.getSoftSkills() != null ? objectMapper.readValue(entity.getSoftSkills(), new TypeReference<List<String>>() {
-            }) : null);
-            dto.setEducation(entity.getEducation() != null ? objectMapper.readValue(entity.getEducation(), new TypeReference<List<Map<String, Object>>>() {
-            }) : null);
-            dto.setWorkExperience(entity.getWorkExperience() != null ? objectMapper.readValue(entity.getWorkExperience(), new TypeReference<List<Map<String, Object>>>() {
-            }) : null);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка десериализации jsonb-полей", e);
-        }
+        dto.setHardSkills(JsonbCodec.readStrings(entity.getHardSkills()));
+        dto.setSoftSkills(JsonbCodec.readStrings(entity.getSoftSkills()));
+        dto.setEducation(JsonbCodec.readObjects(entity.getEducation()));
+        dto.setWorkExperience(JsonbCodec.readObjects(entity.getWorkExperience()));
         dto.setCreatedAt(entity.getCreatedAt());
+        dto.setVersion(entity.getVersion());
         dto.setCandidateStatus(entity.getCandidateStatus());
+        if (entity.getPdfSha256() != null) {
+            dto.setPdfUrl("/api/resumes/" + entity.getId() + "/pdf");
+            dto.setPdfSize(entity.getPdfSize());
+        }
+        dto.setMatchedVacancies(matchedVacancies);
+        return dto;
+    }
 
-        // Добавляем подходящие вакансии
-        List<ResumeVacancyFastMatch> fastMatches = repository.findAll().stream()
-            .filter(fm -> fm.getResume().getId().equals(entity.getId()))
-            .collect(Collectors.toList());
-        List<ResumeDto.MatchedVacancyShortDto> matchedVacancies = fastMatches.stream().map(fm -> {
-            ResumeDto.MatchedVacancyShortDto mv = new ResumeDto.MatchedVacancyShortDto();
-            mv.setVacancyId(fm.getVacancy().getId());
-            mv.setTitle(fm.getVacancy().getTitle());
-            return mv;
-        }).collect(Collectors.toList());
+    /**
+     * Конвертирует краткое представление резюме в DTO.
+     *
+     * @param view             краткое представление резюме
+     * @param matchedVacancies подходящие вакансии
+     * @return краткий DTO
+     */
+    private ResumeSummaryDto convertToSummaryDto(ResumeRepository.ResumeSummaryView view,
+                                                 List<ResumeDto.MatchedVacancyShortDto> matchedVacancies) {
+        ResumeSummaryDto dto = new ResumeSummaryDto();
+        dto.setId(view.getId());
+        dto.setEmail(view.getEmail());
+        dto.setName(view.getName());
+        dto.setPhone(view.getPhone());
+        dto.setRole(view.getRole());
+        dto.setSource(view.getSource());
+        dto.setCreatedAt(view.getCreatedAt());
+        dto.setHardSkills(JsonbCodec.readStrings(view.getHardSkills()));
+        if (view.getStatusId() != null) {
+            dto.setCandidateStatus(CandidateStatus.builder()
+                    .id(view.getStatusId())
+                    .title(view.getStatusTitle())
+                    .description(view.getStatusDescription())
+                    .build());
+        }
         dto.setMatchedVacancies(matchedVacancies);
         return dto;
     }
 
-    @Transactional
-    public void uploadAndNormalizeResume(String email, MultipartFile file, User user) {
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-            org.springframework.util.MultiValueMap<String, Object> body = new org.springframework.util.LinkedMultiValueMap<>();
-            body.add("file", new org.springframework.core.io.ByteArrayResource(file.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return file.getOriginalFilename();
-                }
-            });
-            body.add("email", email);
-            HttpEntity<org.springframework.util.MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-            ResponseEntity<CandidateDTO> response = restTemplate.postForEntity("http://127.0.0.1:8000/resume/upload-resume", requestEntity, CandidateDTO.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                log.error("Ошибка загрузки/нормализации резюме: {}", response.getStatusCode());
-                throw new RuntimeException("Ошибка загрузки/нормализации резюме: " + response.getStatusCode());
-            }
-            log.info("Ответ от сервиса нормализации: {}", response.getBody());
-            CandidateDTO resp = response.getBody();
+    /**
+     * Загружает подходящие вакансии для набора резюме одним запросом.
+     *
+     * @param resumeIds ID резюме
+     * @return подходящие вакансии, сгруппированные по ID резюме
+     */
+    private Map<Integer, List<ResumeDto.MatchedVacancyShortDto>> loadMatchedVacancies(Collection<Integer> resumeIds) {
+        if (resumeIds.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findMatchedVacanciesByResumeIds(resumeIds).stream()
+                .collect(Collectors.groupingBy(
+                        ResumeVacancyFastMatchRepository.MatchedVacancyView::getResumeId,
+                        Collectors.mapping(view -> {
+                            ResumeDto.MatchedVacancyShortDto mv = new ResumeDto.MatchedVacancyShortDto();
+                            mv.setVacancyId(view.getVacancyId());
+                            mv.setTitle(view.getTitle());
+                            return mv;
+                        }, Collectors.toList())));
+    }
 
-            Resume resume = new Resume();
-            resume.setEmail(email);
-            resume.setUser(user);
-            resume.setSource("upload");
-            resume.setName(resp.getName());
-            resume.setPhone(resp.getPhone());
-            resume.setRole(resp.getRole());
-            resume.setHardSkills(jsonUtils.toJson(resp.getHardSkills()));
-            resume.setSoftSkills(jsonUtils.toJson(resp.getSoftSkills()));
-            resume.setEducation(jsonUtils.toJson(resp.getEducation()));
-            resume.setWorkExperience(jsonUtils.toJson(resp.getWorkExperience()));
-            resume.setPdfContent(file.getBytes());
-            resume.setCandidateStatus(CandidateStatus.builder().id(1).build());
+    /**
+     * Нормализует PDF резюме через LLM-сервис.
+     * Файл уходит в сервис потоком из временного файла, без копии в памяти.
+     * Вызывается без открытой транзакции: ответ LLM может занимать десятки секунд.
+     * Повторно загруженный файл с тем же SHA-256 берется из {@link ResumeNormalizationCache}.
+     *
+     * @param email  email кандидата
+     * @param upload сброшенный на диск PDF резюме
+     * @return нормализованные данные кандидата
+     */
+    public CandidateDTO normalizeResume(String email, SpooledUpload upload) {
+        Optional<CandidateDTO> cached = normalizationCache.get(upload.sha256());
+        if (cached.isPresent()) {
+            log.info("Резюме {} уже нормализовано ранее (sha256={}), LLM не вызывается", upload.originalFilename(), upload.sha256());
+            return cached.get();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        org.springframework.util.MultiValueMap<String, Object> body = new org.springframework.util.LinkedMultiValueMap<>();
+        body.add("file", new FileSystemResource(upload.path()) {
+            @Override
+            public String getFilename() {
+                return upload.originalFilename();
+            }
+        });
+        body.add("email", email);
+        HttpEntity<org.springframework.util.MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        ResponseEntity<CandidateDTO> response = restTemplate.postForEntity(downstreams.url(Downstream.LLM, "/resume/upload-resume"), requestEntity, CandidateDTO.class);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            log.error("Ошибка загрузки/нормализации резюме: {}", response.getStatusCode());
+            throw new RuntimeException("Ошибка загрузки/нормализации резюме: " + response.getStatusCode());
+        }
+        log.info("Ответ от сервиса нормализации: {}", response.getBody());
+        normalizationCache.put(upload.sha256(), response.getBody());
+        return response.getBody();
+    }
 
-            Resume res = resumeRepository.save(resume);
-            log.info("Резюме успешно загружено и нормализовано, id={}", res.getId());
+    /**
+     * Сохраняет нормализованное резюме и его PDF в хранилище.
+     *
+     * @param email  email кандидата
+     * @param resp   нормализованные данные кандидата
+     * @param upload сброшенный на диск PDF резюме
+     * @param user   пользователь, загружающий резюме
+     * @return сохраненное резюме
+     */
+    @Transactional
+    public Resume saveNormalizedResume(String email, CandidateDTO resp, SpooledUpload upload, User user) {
+        Resume resume = new Resume();
+        resume.setEmail(email);
+        resume.setUser(user);
+        resume.setSource("upload");
+        resume.setName(resp.getName());
+        resume.setPhone(resp.getPhone());
+        resume.setRole(resp.getRole());
+        resume.setHardSkills(JsonbCodec.writeStrings(resp.getHardSkills()));
+        resume.setSoftSkills(JsonbCodec.writeStrings(resp.getSoftSkills()));
+        resume.setEducation(JsonbCodec.write(resp.getEducation()));
+        resume.setWorkExperience(JsonbCodec.write(resp.getWorkExperience()));
+        try (InputStream content = Files.newInputStream(upload.path())) {
+            StoredBlob pdf = pdfBlobStore.store(content, upload.sha256(), upload.size());
+            resume.setPdfSha256(pdf.sha256());
+            resume.setPdfSize(pdf.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка сохранения PDF резюме", e);
+        }
+        resume.setCandidateStatus(CandidateStatus.builder().id(1).build());
 
-            log.info("Выполняем запрос для поиска подходящих вакансий");
+        Resume res = resumeRepository.save(resume);
+        eventPublisher.publishEvent(new ResumeChangedEvent(res.getId(), user.getId()));
+        log.info("Резюме успешно загружено и нормализовано, id={}", res.getId());
+        return res;
+    }
 
-            ResumeVacancyFastMatchRequest request = new ResumeVacancyFastMatchRequest();
-            ResumeVacancyFastMatchRequest.ResumeDTO dto = new ResumeVacancyFastMatchRequest.ResumeDTO();
-            dto.setId(res.getId());
-            dto.setDesiredRole(res.getRole());
-            dto.setVacancy(vacancyService.getAllVacancyShort(user));
-            dto.setWorkExperience(parseWorkExperienceJson(res.getWorkExperience()));
-            request.setResume(dto);
+    /**
+     * Подбирает подходящие вакансии пользователя через LLM-сервис и сохраняет быстрые соответствия.
+     * Вызывается без открытой транзакции.
+     *
+     * @param resume сохраненное резюме
+     * @param user   владелец резюме и вакансий
+     */
+    public void fastMatchResume(Resume resume, User user) {
+        fastMatchResume(resume, vacancyCatalogCache.get(user));
+    }
 
-            HttpHeaders headers2 = new HttpHeaders();
-            headers2.setContentType(MediaType.APPLICATION_JSON);
-            String request2 = objectMapper.writeValueAsString(request);
-            log.info("запрос для сопоставления: {}", request2);
-            HttpEntity<String> httpEntity = new HttpEntity<>(request2, headers2);
+    /**
+     * Подбирает подходящие вакансии по заранее загруженному каталогу.
+     * Используется пакетной загрузкой, чтобы читать каталог один раз на пакет.
+     *
+     * @param resume  сохраненное резюме
+     * @param catalog краткий каталог вакансий пользователя
+     */
+    public void fastMatchResume(Resume resume, List<ResumeVacancyFastMatchRequest.VacancyDTO> catalog) {
+        log.info("Выполняем запрос для поиска подходящих вакансий");
+        ResumeVacancyFastMatchRequest.ResumeDTO dto = new ResumeVacancyFastMatchRequest.ResumeDTO();
+        dto.setId(resume.getId());
+        dto.setDesiredRole(resume.getRole());
+        List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience = parseWorkExperienceJson(resume.getWorkExperience());
+        dto.setWorkExperience(workExperience);
+        dto.setVacancy(vacancyPreScorer.topK(resume.getRole(), JsonbCodec.readStrings(resume.getHardSkills()),
+                workExperience, catalog));
 
-            ResponseEntity<MatchedVacancyIdResponse> listResponseEntity = restTemplate.postForEntity("http://0.0.0.0:8000/resume/match-vacancies", httpEntity, MatchedVacancyIdResponse.class);
-            List<ResumeVacancyFastMatch> fastMatch = new ArrayList<>();
-            listResponseEntity.getBody().getMatchedVacancyIds().forEach(i -> {
-                fastMatch.add(ResumeVacancyFastMatch.builder()
-                        .resume(resume)
-                        .vacancy(vacancyService.getVacancyById((long) i))
-                        .build());
-            });
-            repository.saveAll(fastMatch);
-        } catch (Exception e) {
-            log.error("Ошибка при загрузке и нормализации резюме: {}", e.getMessage(), e);
-            throw new RuntimeException("Ошибка при загрузке и нормализации резюме", e);
-        }
+        fastMatchPipeline.save(resume.getId(), fastMatchClient.match(dto));
     }
 
     public List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> parseWorkExperienceJson(String json) {
-        try {
-            return objectMapper.readValue(
-                    json,
-                    new TypeReference<List<ResumeVacancyFastMatchRequest.WorkExperienceDTO>>() {
-                    }
-            );
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при разборе JSON в WorkExperienceDTO", e);
+        return JsonbCodec.readList(json, ResumeVacancyFastMatchRequest.WorkExperienceDTO.class);
+    }
+
+    /**
+     * Возвращает сведения о PDF резюме для отдачи файла.
+     *
+     * @param id   ID резюме
+     * @param user пользователь, запрашивающий файл
+     * @return хэш и размер PDF
+     * @throws RuntimeException если резюме не найдено, у него нет PDF или доступ запрещен
+     */
+    @Transactional(readOnly = true)
+    public StoredBlob getResumePdf(Integer id, User user) {
+        Resume resume = resumeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Resume not found"));
+        if (!resume.getUser().getId().equals(user.getId())) {
+            log.warn("Пользователь {} пытался скачать PDF чужого резюме {}", user.getUsername(), id);
+            throw new RuntimeException("Access denied");
+        }
+        if (resume.getPdfSha256() == null) {
+            throw new RuntimeException("Resume PDF not found");
         }
+        return new StoredBlob(resume.getPdfSha256(), resume.getPdfSize());
     }
 
     public void updateStatus(Integer resumeId, Integer statusId) {
@@ -0,0 +1,188 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeVacancyBulkMatchRequest;
+import com.vacancy.dto.ResumeVacancyMatchFullRequest;
+import com.vacancy.dto.ResumeVacancyMatchResponseDto;
+import com.vacancy.model.User;
+import com.vacancy.model.Vacancy;
+import com.vacancy.repository.ResumeVacancyFastMatchRepository;
+import com.vacancy.repository.VacancyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пакетный полный матчинг набора резюме с вакансией.
+ * Каждое резюме сопоставляется через {@link ResumeVacancyMatchService#matchFull}, не более
+ * {@code match.full.bulk.concurrency} одновременно, и результат сразу отправляется клиенту событием SSE.
+ * Общее время определяется самыми медленными вызовами скорера, а не их суммой.
+ */
+@Slf4j
+@Service
+public class ResumeVacancyBulkMatchService {
+    private final ResumeVacancyMatchService matchService;
+    private final VacancyRepository vacancyRepository;
+    private final ResumeVacancyFastMatchRepository fastMatchRepository;
+    private final TaskExecutor executor;
+    private final int concurrency;
+    private final int maxResumes;
+    private final Duration timeout;
+
+    public ResumeVacancyBulkMatchService(ResumeVacancyMatchService matchService,
+                                         VacancyRepository vacancyRepository,
+                                         ResumeVacancyFastMatchRepository fastMatchRepository,
+                                         @Qualifier("bulkMatchExecutor") TaskExecutor executor,
+                                         @Value("${match.full.bulk.concurrency:8}") int concurrency,
+                                         @Value("${match.full.bulk.max-resumes:500}") int maxResumes,
+                                         @Value("${match.full.bulk.timeout:30m}") Duration timeout) {
+        this.matchService = matchService;
+        this.vacancyRepository = vacancyRepository;
+        this.fastMatchRepository = fastMatchRepository;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.maxResumes = maxResumes;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Запускает пакетный матчинг и возвращает поток событий.
+     * События: {@code match} - результат по резюме, {@code error} - ошибка по резюме, {@code done} - итог.
+     *
+     * @param request вакансия и набор резюме
+     * @param user    текущий пользователь
+     * @return SSE-поток результатов
+     * @throws RuntimeException если вакансия не найдена, доступ запрещен или резюме не выбраны
+     */
+    public SseEmitter matchAll(ResumeVacancyBulkMatchRequest request, User user) {
+        Vacancy vacancy = vacancyRepository.findById(request.getVacancyId())
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!vacancy.getUser().getId().equals(user.getId())) {
+            log.warn("Пользователь {} пытался сопоставить резюме с чужой вакансией {}", user.getUsername(), vacancy.getId());
+            throw new RuntimeException("Access denied");
+        }
+        List<Integer> resumeIds = request.isAllFastMatched()
+                ? fastMatchRepository.findResumeIdsByVacancyId(vacancy.getId(), user)
+                : request.getResumeIds() != null ? List.copyOf(new LinkedHashSet<>(request.getResumeIds())) : List.of();
+        if (resumeIds.isEmpty()) {
+            throw new RuntimeException("Не выбраны резюме для сопоставления");
+        }
+        if (resumeIds.size() > maxResumes) {
+            throw new RuntimeException("За один запрос можно сопоставить не больше " + maxResumes + " резюме");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        BulkRun run = new BulkRun(emitter, resumeIds.size());
+        emitter.onCompletion(() -> run.cancelled.set(true));
+        emitter.onTimeout(run::cancel);
+        emitter.onError(e -> run.cancelled.set(true));
+        run.pending.addAll(resumeIds);
+
+        int workers = Math.min(concurrency, resumeIds.size());
+        log.info("Пакетный матчинг вакансии {}: {} резюме, параллельно {}", vacancy.getId(), resumeIds.size(), workers);
+        // у пула нет очереди: если свободного потока нет, запрос отклоняется сразу, а не ждет чужие пакеты
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(() -> drain(run, request, user));
+            } catch (TaskRejectedException e) {
+                if (i == 0) {
+                    run.cancelled.set(true);
+                    throw new RuntimeException("Пул пакетного матчинга перегружен, повторите позже", e);
+                }
+                log.warn("Пакетный матчинг вакансии {} идет с параллелизмом {} вместо {}", vacancy.getId(), i, workers);
+                break;
+            }
+        }
+        return emitter;
+    }
+
+    private void drain(BulkRun run, ResumeVacancyBulkMatchRequest request, User user) {
+        Integer resumeId;
+        while (!run.cancelled.get() && (resumeId = run.pending.poll()) != null) {
+            ResumeVacancyMatchFullRequest single = new ResumeVacancyMatchFullRequest();
+            single.setResumeId(resumeId);
+            single.setVacancyId(request.getVacancyId());
+            single.setForceRefresh(request.isForceRefresh());
+            try {
+                ResumeVacancyMatchResponseDto result = matchService.matchFull(single, user);
+                run.succeeded.incrementAndGet();
+                run.send("match", result);
+            } catch (RuntimeException e) {
+                log.error("Ошибка пакетного матчинга резюме {} и вакансии {}: {}", resumeId, request.getVacancyId(), e.getMessage());
+                run.failed.incrementAndGet();
+                run.send("error", Map.of("resumeId", resumeId, "error", String.valueOf(e.getMessage())));
+            } catch (Error e) {
+                // поток пула погибнет вместе с оставшимися резюме: закрываем поток событий, а не ждем таймаута
+                log.error("Пакетный матчинг вакансии {} остановлен на резюме {}", request.getVacancyId(), resumeId, e);
+                run.cancel();
+                throw e;
+            } finally {
+                run.finishOne();
+            }
+        }
+    }
+
+    private static final class BulkRun {
+        private final SseEmitter emitter;
+        private final int total;
+        private final Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private BulkRun(SseEmitter emitter, int total) {
+            this.emitter = emitter;
+            this.total = total;
+        }
+
+        private synchronized void send(String event, Object data) {
+            if (cancelled.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+            } catch (IOException | IllegalStateException e) {
+                log.info("Клиент отключился от пакетного матчинга, оставшиеся резюме не обрабатываются");
+                cancel();
+            }
+        }
+
+        /**
+         * Останавливает обработку и завершает поток, чтобы асинхронный запрос не висел до таймаута.
+         */
+        private void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    log.debug("Поток пакетного матчинга уже завершен: {}", e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Отправляет итог после последнего резюме; остановленный пакет уже завершил поток.
+         * Поток завершается через {@link #cancel()}, чтобы {@code complete} вызывался ровно один раз.
+         */
+        private void finishOne() {
+            if (finished.incrementAndGet() == total && !cancelled.get()) {
+                send("done", Map.of("total", total, "succeeded", succeeded.get(), "failed", failed.get()));
+                cancel();
+            }
+        }
+    }
+}
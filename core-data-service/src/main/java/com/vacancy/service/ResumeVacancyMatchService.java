@@ -1,9 +1,5 @@
 package com.vacancy.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.vacancy.dto.ResumeVacancyMatchRequestDto;
 import com.vacancy.dto.ResumeVacancyMatchResponseDto;
 import com.vacancy.model.ResumeVacancyMatch;
@@ -12,11 +8,19 @@ import com.vacancy.repository.ResumeVacancyMatchRepository;
 import com.vacancy.repository.ResumeRepository;
 import com.vacancy.repository.VacancyRepository;
 import com.vacancy.repository.UserRepository;
+import com.vacancy.utils.JsonbCodec;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.stream.Collectors;
 import com.vacancy.dto.ResumeVacancyMatchFullRequest;
@@ -24,10 +28,6 @@ import com.vacancy.dto.ResumeDto;
 import com.vacancy.dto.VacancyDto;
 import com.vacancy.service.ResumeService;
 import com.vacancy.service.VacancyService;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.HttpEntity;
-import org.springframework.web.client.RestTemplate;
 import com.vacancy.dto.ResumeVacancyMatchExternalRequest;
 
 @Slf4j
@@ -38,10 +38,15 @@ public class ResumeVacancyMatchService {
     private final ResumeRepository resumeRepository;
     private final VacancyRepository vacancyRepository;
     private final UserRepository userRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
     private final ResumeService resumeService;
     private final VacancyService vacancyService;
-    private final RestTemplate restTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final MatchRequestCoalescer coalescer;
+    private final ScoringBatchClient scoringBatchClient;
+
+    @Value("${match.full.scorer-version:v1}")
+    private String scorerVersion;
 
 
     @Transactional
@@ -80,6 +85,19 @@ public class ResumeVacancyMatchService {
 
     @Transactional
     public ResumeVacancyMatchResponseDto saveFromResponse(ResumeVacancyMatchResponseDto dto, User user) {
+        return saveFromResponse(dto, user, null);
+    }
+
+    /**
+     * Сохраняет результат сопоставления вместе с отпечатком входных данных, по которым он получен.
+     *
+     * @param dto         результат внешнего сервиса
+     * @param user        пользователь
+     * @param fingerprint SHA-256 запроса к сервису, null - результат не привязан к входным данным
+     * @return сохраненный результат
+     */
+    @Transactional
+    public ResumeVacancyMatchResponseDto saveFromResponse(ResumeVacancyMatchResponseDto dto, User user, String fingerprint) {
         ResumeVacancyMatch entity = matchRepository.findByResume_IdAndVacancy_Id(dto.getResumeId(), dto.getVacancyId());
         if (entity == null) {
             entity = new ResumeVacancyMatch();
@@ -89,43 +107,111 @@ public class ResumeVacancyMatchService {
                     .orElseThrow(() -> new RuntimeException("Vacancy not found")));
         }
         entity.setUser(user);
-        try {
-            entity.setMatchedSkills(dto.getMatchedSkills() != null ? objectMapper.writeValueAsString(dto.getMatchedSkills()) : null);
-            entity.setUnmatchedSkills(dto.getUnmatchedSkills() != null ? objectMapper.writeValueAsString(dto.getUnmatchedSkills()) : null);
-            entity.setLlmComment(dto.getLlmComment());
-            entity.setScore(dto.getScore());
-            entity.setPositives(dto.getPositives() != null ? objectMapper.writeValueAsString(dto.getPositives()) : null);
-            entity.setNegatives(dto.getNegatives() != null ? objectMapper.writeValueAsString(dto.getNegatives()) : null);
-            entity.setVerdict(dto.getVerdict());
-            entity.setClarifyingQuestions(dto.getClarifyingQuestions() != null ? objectMapper.writeValueAsString(dto.getClarifyingQuestions()) : null);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка сериализации jsonb-полей", e);
-        }
+        entity.setMatchedSkills(JsonbCodec.writeStrings(dto.getMatchedSkills()));
+        entity.setUnmatchedSkills(JsonbCodec.writeStrings(dto.getUnmatchedSkills()));
+        entity.setLlmComment(dto.getLlmComment());
+        entity.setScore(dto.getScore());
+        entity.setPositives(JsonbCodec.writeStrings(dto.getPositives()));
+        entity.setNegatives(JsonbCodec.writeStrings(dto.getNegatives()));
+        entity.setVerdict(dto.getVerdict());
+        entity.setClarifyingQuestions(JsonbCodec.writeStrings(dto.getClarifyingQuestions()));
+        entity.setInputFingerprint(fingerprint);
+        entity.setScoredAt(LocalDateTime.now());
         ResumeVacancyMatch saved = matchRepository.save(entity);
-        ResumeVacancyMatchResponseDto result = new ResumeVacancyMatchResponseDto();
-        result.setId(saved.getId());
-        result.setResumeId(saved.getResume().getId());
-        result.setVacancyId(saved.getVacancy().getId());
-        result.setUserId(saved.getUser() != null ? saved.getUser().getId() : null);
-        try {
-            result.setMatchedSkills(saved.getMatchedSkills() != null ? objectMapper.readValue(saved.getMatchedSkills(), new TypeReference<List<String>>() {}) : null);
-            result.setUnmatchedSkills(saved.getUnmatchedSkills() != null ? objectMapper.readValue(saved.getUnmatchedSkills(), new TypeReference<List<String>>() {}) : null);
-            result.setPositives(saved.getPositives() != null ? objectMapper.readValue(saved.getPositives(), new TypeReference<List<String>>() {}) : null);
-            result.setNegatives(saved.getNegatives() != null ? objectMapper.readValue(saved.getNegatives(), new TypeReference<List<String>>() {}) : null);
-            result.setClarifyingQuestions(saved.getClarifyingQuestions() != null ? objectMapper.readValue(saved.getClarifyingQuestions(), new TypeReference<List<String>>() {}) : null);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка десериализации jsonb-полей", e);
-        }
-        result.setLlmComment(saved.getLlmComment());
-        result.setCreatedAt(saved.getCreatedAt());
-        result.setScore(saved.getScore());
-        result.setVerdict(saved.getVerdict());
+        ResumeVacancyMatchResponseDto result = toResponseDto(saved);
         resumeService.updateStatus(entity.getResume().getId(), 3);
         return result;
     }
 
-    @Transactional
+    /**
+     * Полное сопоставление резюме и вакансии через внешний LLM-сервис.
+     * Выполняется в три фазы, чтобы соединение с БД не удерживалось на время ответа LLM (10-60 с):
+     * короткая read-only транзакция на чтение, вызов сервиса без транзакции, короткая транзакция на запись.
+     * Если сохраненное сопоставление получено по тем же данным (совпадает отпечаток запроса),
+     * оно возвращается без вызова сервиса, пока не передан {@code forceRefresh}.
+     * Одновременные запросы по той же паре схлопываются в один вызов через {@link MatchRequestCoalescer}.
+     *
+     * @param request ID резюме и вакансии
+     * @param user    пользователь, запросивший сопоставление
+     * @return сохраненный результат сопоставления
+     */
     public ResumeVacancyMatchResponseDto matchFull(ResumeVacancyMatchFullRequest request, User user) {
+        return matchFull(request, user, () -> {
+        });
+    }
+
+    /**
+     * То же, что {@link #matchFull(ResumeVacancyMatchFullRequest, User)}, с уведомлением о вызове скорера.
+     *
+     * @param onScorerCall вызывается перед обращением к скореру этим запросом; не вызывается, если результат
+     *                     взят из БД или посчитан параллельным запросом
+     */
+    public ResumeVacancyMatchResponseDto matchFull(ResumeVacancyMatchFullRequest request, User user, Runnable onScorerCall) {
+        PreparedMatch prepared = readOnlyTransaction().execute(status -> prepareMatch(request));
+        if (prepared.cached() != null) {
+            meterRegistry.counter("resume.match.full.cache", "result", "hit").increment();
+            log.info("Сопоставление резюме {} и вакансии {} не изменилось, LLM не вызывается", request.getResumeId(), request.getVacancyId());
+            return prepared.cached();
+        }
+        meterRegistry.counter("resume.match.full.cache", "result", request.isForceRefresh() ? "refresh" : "miss").increment();
+        return coalescer.execute(request.getResumeId(), request.getVacancyId(), prepared.fingerprint(),
+                () -> {
+                    onScorerCall.run();
+                    ResumeVacancyMatchResponseDto responseDto = callMatchFull(prepared.request());
+                    return transactionTemplate.execute(status -> saveFromResponse(responseDto, user, prepared.fingerprint()));
+                },
+                () -> readOnlyTransaction().execute(status -> findStored(request.getResumeId(), request.getVacancyId(),
+                        prepared.fingerprint(), request.isForceRefresh() ? prepared.scoredAt() : null)));
+    }
+
+    private PreparedMatch prepareMatch(ResumeVacancyMatchFullRequest request) {
+        ResumeVacancyMatchExternalRequest externalRequest = buildExternalRequest(request);
+        String fingerprint = fingerprint(externalRequest);
+        ResumeVacancyMatch existing = matchRepository.findByResume_IdAndVacancy_Id(request.getResumeId(), request.getVacancyId());
+        ResumeVacancyMatchResponseDto cached = !request.isForceRefresh() && matches(existing, fingerprint, null)
+                ? toResponseDto(existing) : null;
+        // при forceRefresh подходит только результат, посчитанный после этого момента
+        LocalDateTime scoredAt = existing != null && existing.getScoredAt() != null ? existing.getScoredAt() : LocalDateTime.MIN;
+        return new PreparedMatch(externalRequest, fingerprint, cached, scoredAt);
+    }
+
+    /**
+     * Ищет сохраненный результат по тем же входным данным.
+     *
+     * @param scoredAfter если задано - только результат, посчитанный позже (ожидание чужого forceRefresh)
+     */
+    private ResumeVacancyMatchResponseDto findStored(Integer resumeId, Long vacancyId, String fingerprint,
+                                                     LocalDateTime scoredAfter) {
+        ResumeVacancyMatch existing = matchRepository.findByResume_IdAndVacancy_Id(resumeId, vacancyId);
+        return matches(existing, fingerprint, scoredAfter) ? toResponseDto(existing) : null;
+    }
+
+    private static boolean matches(ResumeVacancyMatch existing, String fingerprint, LocalDateTime scoredAfter) {
+        return existing != null && fingerprint.equals(existing.getInputFingerprint())
+                && (scoredAfter == null || existing.getScoredAt() != null && existing.getScoredAt().isAfter(scoredAfter));
+    }
+
+    /**
+     * Отпечаток входных данных сопоставления: SHA-256 ровно того JSON, который уходит во внешний сервис,
+     * с версией скорера. Любое изменение отправляемых полей резюме или вакансии меняет отпечаток.
+     */
+    private String fingerprint(ResumeVacancyMatchExternalRequest externalRequest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scorerVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(JsonbCodec.write(externalRequest).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private record PreparedMatch(ResumeVacancyMatchExternalRequest request, String fingerprint,
+                                 ResumeVacancyMatchResponseDto cached, LocalDateTime scoredAt) {
+    }
+
+    private ResumeVacancyMatchExternalRequest buildExternalRequest(ResumeVacancyMatchFullRequest request) {
         ResumeDto resume = resumeService.getResume(request.getResumeId());
         VacancyDto vacancy = vacancyService.getVacancy(request.getVacancyId());
         // Маппинг в нужные DTO для внешнего сервиса
@@ -163,31 +249,40 @@ public class ResumeVacancyMatchService {
         ResumeVacancyMatchExternalRequest externalRequest = new ResumeVacancyMatchExternalRequest();
         externalRequest.setResume(resumeExternal);
         externalRequest.setVacancy(vacancyExternal);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        String json;
-        try {
-            json = mapper.writeValueAsString(externalRequest);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка сериализации запроса для внешнего сервиса", e);
-        }
-        log.info("Отправляем во внешний сервис: {}", json);
-        HttpEntity<String> httpEntity = new HttpEntity<>(json, headers);
-        String url = "http://0.0.0.0:8080/api/match-full";
-        ResumeVacancyMatchResponseDto responseDto;
+        return externalRequest;
+    }
+
+    private ResumeVacancyMatchResponseDto callMatchFull(ResumeVacancyMatchExternalRequest externalRequest) {
+        log.info("Отправляем во внешний сервис резюме {} и вакансию {}", externalRequest.getResume().getId(), externalRequest.getVacancy().getId());
         try {
-            ResponseEntity<ResumeVacancyMatchResponseDto> response = restTemplate.postForEntity(url, httpEntity, ResumeVacancyMatchResponseDto.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new RuntimeException("Ошибка от внешнего сервиса: " + response.getStatusCode() + ": " + response.getBody());
-            }
-            responseDto = response.getBody();
+            return scoringBatchClient.score(externalRequest);
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при обращении к внешнему сервису: " + e.getMessage(), e);
         }
-        return saveFromResponse(responseDto, user);
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private ResumeVacancyMatchResponseDto toResponseDto(ResumeVacancyMatch saved) {
+        ResumeVacancyMatchResponseDto result = new ResumeVacancyMatchResponseDto();
+        result.setId(saved.getId());
+        result.setResumeId(saved.getResume().getId());
+        result.setVacancyId(saved.getVacancy().getId());
+        result.setUserId(saved.getUser() != null ? saved.getUser().getId() : null);
+        result.setMatchedSkills(JsonbCodec.readStrings(saved.getMatchedSkills()));
+        result.setUnmatchedSkills(JsonbCodec.readStrings(saved.getUnmatchedSkills()));
+        result.setPositives(JsonbCodec.readStrings(saved.getPositives()));
+        result.setNegatives(JsonbCodec.readStrings(saved.getNegatives()));
+        result.setClarifyingQuestions(JsonbCodec.readStrings(saved.getClarifyingQuestions()));
+        result.setLlmComment(saved.getLlmComment());
+        result.setCreatedAt(saved.getCreatedAt());
+        result.setScore(saved.getScore());
+        result.setVerdict(saved.getVerdict());
+        return result;
     }
 
     private ResumeVacancyMatch toEntity(ResumeVacancyMatchRequestDto dto) {
@@ -205,18 +300,14 @@ public class ResumeVacancyMatchService {
     }
 
     private void updateEntityFromDto(ResumeVacancyMatch entity, ResumeVacancyMatchRequestDto dto) {
-        try {
-            entity.setMatchedSkills(dto.getMatchedSkills() != null ? objectMapper.writeValueAsString(dto.getMatchedSkills()) : null);
-            entity.setUnmatchedSkills(dto.getUnmatchedSkills() != null ? objectMapper.writeValueAsString(dto.getUnmatchedSkills()) : null);
-            entity.setLlmComment(dto.getLlmComment());
-            entity.setScore(dto.getScore());
-            entity.setPositives(dto.getPositives() != null ? objectMapper.writeValueAsString(dto.getPositives()) : null);
-            entity.setNegatives(dto.getNegatives() != null ? objectMapper.writeValueAsString(dto.getNegatives()) : null);
-            entity.setVerdict(dto.getVerdict());
-            entity.setClarifyingQuestions(dto.getClarifyingQuestions() != null ? objectMapper.writeValueAsString(dto.getClarifyingQuestions()) : null);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка сериализации jsonb-полей", e);
-        }
+        entity.setMatchedSkills(JsonbCodec.writeStrings(dto.getMatchedSkills()));
+        entity.setUnmatchedSkills(JsonbCodec.writeStrings(dto.getUnmatchedSkills()));
+        entity.setLlmComment(dto.getLlmComment());
+        entity.setScore(dto.getScore());
+        entity.setPositives(JsonbCodec.writeStrings(dto.getPositives()));
+        entity.setNegatives(JsonbCodec.writeStrings(dto.getNegatives()));
+        entity.setVerdict(dto.getVerdict());
+        entity.setClarifyingQuestions(JsonbCodec.writeStrings(dto.getClarifyingQuestions()));
     }
 
     private ResumeVacancyMatchRequestDto toDto(ResumeVacancyMatch entity) {
@@ -225,15 +316,11 @@ public class ResumeVacancyMatchService {
         dto.setResumeId(entity.getResume().getId());
         dto.setVacancyId(entity.getVacancy().getId());
         dto.setUserId(entity.getUser() != null ? entity.getUser().getId() : null);
-        try {
-            dto.setMatchedSkills(entity.getMatchedSkills() != null ? objectMapper.readValue(entity.getMatchedSkills(), new TypeReference<List<String>>() {}) : null);
-            dto.setUnmatchedSkills(entity.getUnmatchedSkills() != null ? objectMapper.readValue(entity.getUnmatchedSkills(), new TypeReference<List<String>>() {}) : null);
-            dto.setPositives(entity.getPositives() != null ? objectMapper.readValue(entity.getPositives(), new TypeReference<List<String>>() {}) : null);
-            dto.setNegatives(entity.getNegatives() != null ? objectMapper.readValue(entity.getNegatives(), new TypeReference<List<String>>() {}) : null);
-            dto.setClarifyingQuestions(entity.getClarifyingQuestions() != null ? objectMapper.readValue(entity.getClarifyingQuestions(), new TypeReference<List<String>>() {}) : null);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка десериализации jsonb-полей", e);
-        }
+        dto.setMatchedSkills(JsonbCodec.readStrings(entity.getMatchedSkills()));
+        dto.setUnmatchedSkills(JsonbCodec.readStrings(entity.getUnmatchedSkills()));
+        dto.setPositives(JsonbCodec.readStrings(entity.getPositives()));
+        dto.setNegatives(JsonbCodec.readStrings(entity.getNegatives()));
+        dto.setClarifyingQuestions(JsonbCodec.readStrings(entity.getClarifyingQuestions()));
         dto.setLlmComment(entity.getLlmComment());
         dto.setCreatedAt(entity.getCreatedAt());
         dto.setScore(entity.getScore());
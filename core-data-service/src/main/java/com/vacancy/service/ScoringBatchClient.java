@@ -0,0 +1,202 @@
+package com.vacancy.service;
+
+import com.vacancy.config.Downstream;
+import com.vacancy.config.Downstreams;
+import com.vacancy.dto.ResumeVacancyMatchBatchRequest;
+import com.vacancy.dto.ResumeVacancyMatchBatchResponse;
+import com.vacancy.dto.ResumeVacancyMatchExternalRequest;
+import com.vacancy.dto.ResumeVacancyMatchResponseDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Клиент LLM-скорера с микропакетами: одновременные запросы собираются в окне {@code match.full.batch.window}
+ * или до {@code match.full.batch.max-size} штук и уходят одним вызовом {@code /api/match-full/batch}.
+ * Ответы раздаются ожидающим вызывающим по порядку элементов. Если у скорера нет пакетного эндпоинта (404/405),
+ * клиент на {@code match.full.batch.recheck-interval} переходит на поэлементные вызовы {@code /api/match-full}.
+ * <p>
+ * Пакеты выключены по умолчанию ({@code match.full.batch.enabled}): скорер оценивает каждую пару пакета
+ * отдельным вызовом LLM, и пакет только добавляет ожидание окна и самой медленной пары.
+ */
+@Slf4j
+@Component
+public class ScoringBatchClient {
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final String batchUrl;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxSize;
+    private final Duration timeout;
+    private final Duration recheckInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("score-batcher").daemon().factory());
+    private final ExecutorService dispatcher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("score-dispatch-", 0).factory());
+    private List<PendingScore> buffer = new ArrayList<>();
+    private volatile long batchUnsupportedUntil;
+
+    public ScoringBatchClient(RestTemplate restTemplate,
+                              Downstreams downstreams,
+                              @Value("${match.full.batch.enabled:false}") boolean enabled,
+                              @Value("${match.full.batch.window:50ms}") Duration window,
+                              @Value("${match.full.batch.max-size:16}") int maxSize,
+                              @Value("${match.full.batch.timeout:3m}") Duration timeout,
+                              @Value("${match.full.batch.recheck-interval:10m}") Duration recheckInterval) {
+        this.restTemplate = restTemplate;
+        this.url = downstreams.url(Downstream.SCORER, "/api/match-full");
+        this.batchUrl = this.url + "/batch";
+        this.enabled = enabled;
+        this.window = window;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.recheckInterval = recheckInterval;
+    }
+
+    /**
+     * Оценивает пару резюме/вакансия, при возможности в одном пакете с параллельными запросами.
+     *
+     * @param request данные резюме и вакансии для скорера
+     * @return результат скорера
+     * @throws RuntimeException при ошибке скорера или истечении {@code match.full.batch.timeout}
+     */
+    public ResumeVacancyMatchResponseDto score(ResumeVacancyMatchExternalRequest request) {
+        if (!enabled || maxSize <= 1) {
+            return scoreOne(request);
+        }
+        PendingScore pending = new PendingScore(request, new CompletableFuture<>());
+        List<PendingScore> full = null;
+        synchronized (this) {
+            buffer.add(pending);
+            if (buffer.size() >= maxSize) {
+                full = takeBuffer();
+            } else if (buffer.size() == 1) {
+                scheduler.schedule(this::flushWindow, window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        try {
+            return pending.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Скорер не ответил за " + timeout.toSeconds() + " с", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание скорера прервано", e);
+        }
+    }
+
+    private void flushWindow() {
+        List<PendingScore> batch;
+        synchronized (this) {
+            batch = takeBuffer();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private List<PendingScore> takeBuffer() {
+        List<PendingScore> batch = buffer;
+        buffer = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingScore> batch) {
+        dispatcher.execute(() -> {
+            if (batch.size() == 1 || System.currentTimeMillis() < batchUnsupportedUntil) {
+                batch.forEach(pending -> dispatcher.execute(() -> completeOne(pending)));
+                return;
+            }
+            try {
+                sendBatch(batch);
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED) {
+                    log.warn("Скорер не поддерживает {}, поэлементные вызовы на {}", batchUrl, recheckInterval);
+                    batchUnsupportedUntil = System.currentTimeMillis() + recheckInterval.toMillis();
+                    batch.forEach(pending -> dispatcher.execute(() -> completeOne(pending)));
+                } else {
+                    failAll(batch, e);
+                }
+            } catch (RuntimeException e) {
+                failAll(batch, e);
+            }
+        });
+    }
+
+    private void sendBatch(List<PendingScore> batch) {
+        log.info("Отправляем в скорер пакет из {} пар", batch.size());
+        ResumeVacancyMatchBatchRequest body = new ResumeVacancyMatchBatchRequest(
+                batch.stream().map(PendingScore::request).toList());
+        ResponseEntity<ResumeVacancyMatchBatchResponse> response =
+                restTemplate.postForEntity(batchUrl, body, ResumeVacancyMatchBatchResponse.class);
+        List<ResumeVacancyMatchBatchResponse.Item> results = response.getBody() != null ? response.getBody().getResults() : null;
+        if (results == null || results.size() != batch.size()) {
+            throw new RuntimeException("Скорер вернул " + (results == null ? 0 : results.size()) + " результатов на пакет из " + batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingScore pending = batch.get(i);
+            ResumeVacancyMatchBatchResponse.Item item = results.get(i);
+            if (!Objects.equals(item.getResumeId(), pending.request().getResume().getId())
+                    || !Objects.equals(item.getVacancyId(), pending.request().getVacancy().getId())) {
+                pending.result().completeExceptionally(new RuntimeException("Скорер перепутал порядок результатов пакета"));
+            } else if (item.getResult() == null) {
+                pending.result().completeExceptionally(new RuntimeException("Ошибка от внешнего сервиса: " + item.getError()));
+            } else {
+                pending.result().complete(item.getResult());
+            }
+        }
+    }
+
+    private void completeOne(PendingScore pending) {
+        try {
+            pending.result().complete(scoreOne(pending.request()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private ResumeVacancyMatchResponseDto scoreOne(ResumeVacancyMatchExternalRequest request) {
+        ResponseEntity<ResumeVacancyMatchResponseDto> response = restTemplate.postForEntity(url, request, ResumeVacancyMatchResponseDto.class);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new RuntimeException("Ошибка от внешнего сервиса: " + response.getStatusCode() + ": " + response.getBody());
+        }
+        return response.getBody();
+    }
+
+    private static void failAll(List<PendingScore> batch, RuntimeException e) {
+        log.error("Ошибка пакетного вызова скорера: {}", e.getMessage());
+        batch.forEach(pending -> pending.result().completeExceptionally(e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private record PendingScore(ResumeVacancyMatchExternalRequest request,
+                                CompletableFuture<ResumeVacancyMatchResponseDto> result) {
+    }
+}
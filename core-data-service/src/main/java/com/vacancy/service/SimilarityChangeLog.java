@@ -0,0 +1,55 @@
+package com.vacancy.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Журнал изменений резюме и вакансий {@code similarity_changes}, который заполняют триггеры
+ * (db/012_similarity_changes.sql). По нему графы HNSW догоняют изменения, сделанные, пока узел
+ * был остановлен, и изменения с других узлов. Время берется из часов Postgres, а не узла.
+ */
+@Component
+public class SimilarityChangeLog {
+    private final JdbcTemplate jdbcTemplate;
+
+    public SimilarityChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Запись, изменившаяся у владельца.
+     */
+    public record Change(long recordId, long userId) {
+    }
+
+    public Instant now() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+    }
+
+    /**
+     * Записи корпуса, изменившиеся после {@code since}; запись с несколькими изменениями возвращается один раз.
+     *
+     * @param corpus корпус ({@code resumes} или {@code vacancies})
+     * @param since  нижняя граница {@code changed_at}, не включительно
+     */
+    public List<Change> since(String corpus, Instant since) {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT record_id, user_id FROM similarity_changes " +
+                        "WHERE corpus = ? AND changed_at > ? AND user_id IS NOT NULL",
+                (rs, i) -> new Change(rs.getLong("record_id"), rs.getLong("user_id")),
+                corpus, Timestamp.from(since));
+    }
+
+    /**
+     * Удаляет записи журнала старше {@code before}.
+     *
+     * @return число удаленных записей
+     */
+    public int purge(Instant before) {
+        return jdbcTemplate.update("DELETE FROM similarity_changes WHERE changed_at < ?", Timestamp.from(before));
+    }
+}
@@ -0,0 +1,663 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.dto.SimilarityHitDto;
+import com.vacancy.model.User;
+import com.vacancy.repository.ResumeRepository;
+import com.vacancy.repository.ResumeRepository.ResumeTextView;
+import com.vacancy.repository.VacancyRepository;
+import com.vacancy.repository.VacancyRepository.VacancyTextView;
+import com.vacancy.similarity.HashedEmbedding;
+import com.vacancy.similarity.HnswGraph;
+import com.vacancy.similarity.HnswStore;
+import com.vacancy.similarity.TfIdfCorpus;
+import com.vacancy.similarity.Vocabulary;
+import com.vacancy.utils.JsonbCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Рекомендации резюме и вакансий по сходству без вызова LLM.
+ * Вакансия описывается названием, навыками и требованиями, резюме - должностью, hard skills
+ * и технологиями из опыта работы. Индекс обновляется после коммита изменений через
+ * {@link ResumeChangedEvent} и {@link VacancyChangedEvent}.
+ * <p>
+ * Движок задается {@code similarity.engine}:
+ * <ul>
+ *     <li>{@code exact} - точный перебор TF-IDF ({@link TfIdfCorpus}), индекс в памяти строится при старте
+ *     и перестраивается в фоне, если старше {@code similarity.refresh-interval}: так подхватываются
+ *     изменения с других узлов;</li>
+ *     <li>{@code hnsw} - приближенный поиск по графам HNSW ({@link HnswGraph}) над хэшированными векторами,
+ *     графы лежат в файлах и после перезапуска обслуживают запросы без перестроения из Postgres. Изменения,
+ *     пропущенные узлом (остановка, правки на других узлах), переносятся из {@link SimilarityChangeLog}
+ *     при старте и раз в {@code similarity.hnsw.resync-interval}.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class SimilarityService {
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+    private static final String RESUMES = "resumes";
+    private static final String VACANCIES = "vacancies";
+
+    private final ResumeRepository resumeRepository;
+    private final VacancyRepository vacancyRepository;
+    private final boolean enabled;
+    private final boolean hnsw;
+    private final int rebuildPageSize;
+    private final int maxLimit;
+    private final int efSearch;
+    private final double compactRatio;
+    private final long refreshNanos;
+    private volatile ExactIndex index = ExactIndex.create();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Set<Integer> changedResumes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedVacancies = ConcurrentHashMap.newKeySet();
+    private final HnswStore hnswStore;
+    private final SimilarityChangeLog changeLog;
+    private final Duration resyncInterval;
+    private final Duration changeOverlap;
+    private final Duration changeRetention;
+    private final ScheduledExecutorService resyncScheduler;
+    private final Set<HnswGraph> compacting = ConcurrentHashMap.newKeySet();
+    /**
+     * Запись делит графы с поиском и событиями, перестроение корпуса с нуля берет ее исключительно.
+     */
+    private final ReentrantReadWriteLock graphLock = new ReentrantReadWriteLock();
+    private final Set<String> rebuilding = ConcurrentHashMap.newKeySet();
+
+    public SimilarityService(ResumeRepository resumeRepository,
+                             VacancyRepository vacancyRepository,
+                             SimilarityChangeLog changeLog,
+                             @Value("${similarity.enabled:true}") boolean enabled,
+                             @Value("${similarity.engine:exact}") String engine,
+                             @Value("${similarity.rebuild-page-size:1000}") int rebuildPageSize,
+                             @Value("${similarity.max-limit:100}") int maxLimit,
+                             @Value("${similarity.refresh-interval:10m}") Duration refreshInterval,
+                             @Value("${similarity.hnsw.path:./data/similarity}") String hnswPath,
+                             @Value("${similarity.hnsw.dimensions:256}") int dimensions,
+                             @Value("${similarity.hnsw.m:16}") int m,
+                             @Value("${similarity.hnsw.max-level:6}") int maxLevel,
+                             @Value("${similarity.hnsw.ef-construction:200}") int efConstruction,
+                             @Value("${similarity.hnsw.ef-search:100}") int efSearch,
+                             @Value("${similarity.hnsw.compact-ratio:0.3}") double compactRatio,
+                             @Value("${similarity.hnsw.resync-interval:1m}") Duration resyncInterval,
+                             @Value("${similarity.hnsw.change-overlap:5m}") Duration changeOverlap,
+                             @Value("${similarity.hnsw.change-retention:7d}") Duration changeRetention) {
+        this.resumeRepository = resumeRepository;
+        this.vacancyRepository = vacancyRepository;
+        this.enabled = enabled;
+        this.hnsw = "hnsw".equalsIgnoreCase(engine);
+        this.rebuildPageSize = rebuildPageSize;
+        this.maxLimit = maxLimit;
+        this.efSearch = efSearch;
+        this.compactRatio = compactRatio;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.hnswStore = hnsw
+                ? new HnswStore(Path.of(hnswPath), new HnswStore.Params(dimensions, m, maxLevel, efConstruction))
+                : null;
+        this.changeLog = changeLog;
+        this.resyncInterval = resyncInterval;
+        this.changeOverlap = changeOverlap;
+        this.changeRetention = changeRetention;
+        this.resyncScheduler = hnsw
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("similarity-resync").daemon().factory())
+                : null;
+    }
+
+    /**
+     * Вакансии пользователя, наиболее похожие на резюме.
+     *
+     * @param resumeId ID резюме
+     * @param limit    число рекомендаций
+     * @param user     владелец резюме и вакансий
+     * @return вакансии по убыванию сходства
+     * @throws RuntimeException если резюме не найдено или доступ запрещен
+     */
+    public List<SimilarityHitDto> recommendVacancies(Integer resumeId, int limit, User user) {
+        int k = Math.min(limit, maxLimit);
+        if (hnsw) {
+            return withGraphs(() -> {
+                float[] query = hnswStore.existing(RESUMES, user.getId())
+                        .flatMap(graph -> graph.vector(resumeId))
+                        .orElseGet(() -> embed(resumeRepository.findTextById(resumeId)
+                                .orElseThrow(() -> new RuntimeException("Resume not found")), user));
+                return searchHnsw(VACANCIES, query, k, user, ids -> vacancyRepository.findTextByIdIn(ids).stream()
+                        .collect(Collectors.toMap(VacancyTextView::getId, v -> Objects.toString(v.getTitle(), ""))));
+            });
+        }
+        ExactIndex current = currentIndex();
+        TfIdfCorpus.Document resume = current.resumes().find(resumeId)
+                .or(() -> resumeRepository.findTextById(resumeId).map(view -> indexResume(current, view)))
+                .orElseThrow(() -> new RuntimeException("Resume not found"));
+        checkOwner(resume.userId(), resume.id(), user);
+        return toDto(current.vacancies().topK(resume, user.getId(), k));
+    }
+
+    /**
+     * Резюме пользователя, наиболее похожие на вакансию.
+     *
+     * @param vacancyId ID вакансии
+     * @param limit     число рекомендаций
+     * @param user      владелец вакансии и резюме
+     * @return резюме по убыванию сходства
+     * @throws RuntimeException если вакансия не найдена или доступ запрещен
+     */
+    public List<SimilarityHitDto> recommendResumes(Long vacancyId, int limit, User user) {
+        int k = Math.min(limit, maxLimit);
+        if (hnsw) {
+            return withGraphs(() -> {
+                float[] query = hnswStore.existing(VACANCIES, user.getId())
+                        .flatMap(graph -> graph.vector(vacancyId))
+                        .orElseGet(() -> embed(vacancyRepository.findTextById(vacancyId)
+                                .orElseThrow(() -> new RuntimeException("Vacancy not found")), user));
+                return searchHnsw(RESUMES, query, k, user, ids -> resumeRepository.findTextByIdIn(
+                                ids.stream().map(Long::intValue).toList()).stream()
+                        .collect(Collectors.toMap(r -> r.getId().longValue(), r -> Objects.toString(r.getName(), ""))));
+            });
+        }
+        ExactIndex current = currentIndex();
+        TfIdfCorpus.Document vacancy = current.vacancies().find(vacancyId)
+                .or(() -> vacancyRepository.findTextById(vacancyId).map(view -> indexVacancy(current, view)))
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        checkOwner(vacancy.userId(), vacancy.id(), user);
+        return toDto(current.resumes().topK(vacancy, user.getId(), k));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (hnsw) {
+            resyncScheduler.scheduleWithFixedDelay(this::resyncGraphs, 0, resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            log.info("Индекс сходства TF-IDF: скалярные произведения - {}", TfIdfCorpus.dotImplementation());
+            refreshAsync();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResumeChanged(ResumeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (refreshing.get()) {
+            changedResumes.add(event.resumeId());
+        }
+        applyResume(event.resumeId(), event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVacancyChanged(VacancyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (refreshing.get()) {
+            changedVacancies.add(event.vacancyId());
+        }
+        applyVacancy(event.vacancyId(), event.userId());
+    }
+
+    private void applyResume(Integer resumeId, Long userId) {
+        resumeRepository.findTextById(resumeId).ifPresentOrElse(this::indexResume, () -> {
+            index.resumes().remove(resumeId);
+            removeFromGraph(RESUMES, userId, resumeId);
+        });
+    }
+
+    private void applyVacancy(Long vacancyId, Long userId) {
+        vacancyRepository.findTextById(vacancyId).ifPresentOrElse(this::indexVacancy, () -> {
+            index.vacancies().remove(vacancyId);
+            removeFromGraph(VACANCIES, userId, vacancyId);
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (hnswStore == null) {
+            return;
+        }
+        resyncScheduler.shutdownNow();
+        resyncScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        graphLock.writeLock().lock();
+        try {
+            hnswStore.close();
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Индекс TF-IDF; если он старше {@code similarity.refresh-interval}, в фоне запускается перестроение,
+     * а запрос обслуживается текущим индексом.
+     */
+    private ExactIndex currentIndex() {
+        ExactIndex current = index;
+        if (System.nanoTime() - current.builtAt() > refreshNanos) {
+            refreshAsync();
+        }
+        return current;
+    }
+
+    private void refreshAsync() {
+        if (refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("similarity-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Строит новый индекс из Postgres и подменяет им текущий. Записи, изменившиеся во время построения,
+     * после подмены перечитываются: страница с ними могла быть прочитана до коммита.
+     */
+    private void rebuild() {
+        long started = System.nanoTime();
+        try {
+            ExactIndex fresh = ExactIndex.create();
+            forEachResume(view -> skipMalformed(() -> indexResume(fresh, view), "резюме", view.getId()));
+            forEachVacancy(view -> skipMalformed(() -> indexVacancy(fresh, view), "вакансии", view.getId()));
+            index = fresh;
+            for (Integer id : List.copyOf(changedResumes)) {
+                changedResumes.remove(id);
+                resumeRepository.findTextById(id).ifPresentOrElse(this::indexResume, () -> fresh.resumes().remove(id));
+            }
+            for (Long id : List.copyOf(changedVacancies)) {
+                changedVacancies.remove(id);
+                vacancyRepository.findTextById(id).ifPresentOrElse(this::indexVacancy, () -> fresh.vacancies().remove(id));
+            }
+            log.info("Индекс сходства построен: {} резюме, {} вакансий за {} мс",
+                    fresh.resumes().size(), fresh.vacancies().size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения индекса сходства, следующая попытка через similarity.refresh-interval", e);
+            ExactIndex current = index;
+            index = new ExactIndex(current.resumes(), current.vacancies(), System.nanoTime());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Синхронизирует корпуса HNSW с Postgres. Корпус без завершенного построения с текущими параметрами
+     * или отставший больше чем на {@code similarity.hnsw.change-retention} строится заново, остальные
+     * догоняют изменения из журнала. Журнал перечитывается с запасом {@code change-overlap}: {@code changed_at}
+     * ставится в начале транзакции, и долгая транзакция может закоммитить изменение задним числом.
+     * Повторный перенос записи ничего не меняет.
+     */
+    private void resyncGraphs() {
+        try {
+            Instant now = changeLog.now();
+            syncCorpus(RESUMES, now);
+            syncCorpus(VACANCIES, now);
+            int purged = changeLog.purge(now.minus(changeRetention));
+            if (purged > 0) {
+                log.info("Из журнала изменений сходства удалено {} устаревших записей", purged);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Ошибка синхронизации графов HNSW с Postgres, повтор через {}", resyncInterval, e);
+        }
+    }
+
+    private void syncCorpus(String corpus, Instant now) throws IOException {
+        Optional<Instant> synced = hnswStore.isComplete(corpus) ? hnswStore.syncedAt(corpus) : Optional.empty();
+        Instant from;
+        if (synced.isPresent() && !synced.get().isBefore(now.minus(changeRetention))) {
+            from = synced.get();
+        } else {
+            rebuildCorpus(corpus);
+            from = now;
+        }
+        List<SimilarityChangeLog.Change> changes = changeLog.since(corpus, from.minus(changeOverlap));
+        for (SimilarityChangeLog.Change change : changes) {
+            skipMalformed(() -> replay(corpus, change), kind(corpus), change.recordId());
+        }
+        hnswStore.markSynced(corpus, now);
+        if (!changes.isEmpty()) {
+            log.info("В графы HNSW {} перенесено изменений из Postgres: {}", corpus, changes.size());
+        }
+    }
+
+    /**
+     * Строит корпус заново. Пока идет построение, события по корпусу пропускаются: их изменения уже есть
+     * в журнале и переносятся сразу после построения.
+     */
+    private void rebuildCorpus(String corpus) throws IOException {
+        long started = System.nanoTime();
+        graphLock.writeLock().lock();
+        try {
+            rebuilding.add(corpus);
+            hnswStore.reset(corpus);
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+        try {
+            if (RESUMES.equals(corpus)) {
+                forEachResume(view -> skipMalformed(() -> putVector(RESUMES, view.getUserId(), view.getId(),
+                        resumeTerms(view)), kind(corpus), view.getId()));
+            } else {
+                forEachVacancy(view -> skipMalformed(() -> putVector(VACANCIES, view.getUserId(), view.getId(),
+                        vacancyTerms(view)), kind(corpus), view.getId()));
+            }
+            hnswStore.markComplete(corpus);
+        } finally {
+            rebuilding.remove(corpus);
+        }
+        log.info("Графы HNSW {} построены за {} мс", corpus, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Приводит запись в графах к состоянию в Postgres: запись, удаленная или перешедшая к другому владельцу,
+     * убирается из графа прежнего владельца.
+     */
+    private void replay(String corpus, SimilarityChangeLog.Change change) {
+        if (RESUMES.equals(corpus)) {
+            resumeRepository.findTextById((int) change.recordId())
+                    .filter(view -> Objects.equals(view.getUserId(), change.userId()))
+                    .ifPresentOrElse(view -> putIntoGraph(RESUMES, change.userId(), change.recordId(), resumeTerms(view)),
+                            () -> removeFromGraph(RESUMES, change.userId(), change.recordId()));
+        } else {
+            vacancyRepository.findTextById(change.recordId())
+                    .filter(view -> Objects.equals(view.getUserId(), change.userId()))
+                    .ifPresentOrElse(view -> putIntoGraph(VACANCIES, change.userId(), change.recordId(), vacancyTerms(view)),
+                            () -> removeFromGraph(VACANCIES, change.userId(), change.recordId()));
+        }
+    }
+
+    private static String kind(String corpus) {
+        return RESUMES.equals(corpus) ? "резюме" : "вакансии";
+    }
+
+    private void forEachResume(Consumer<ResumeTextView> action) {
+        Integer cursor = 0;
+        List<ResumeTextView> page;
+        do {
+            page = resumeRepository.findTextPage(cursor, PageRequest.of(0, rebuildPageSize));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == rebuildPageSize);
+    }
+
+    private void forEachVacancy(Consumer<VacancyTextView> action) {
+        Long cursor = 0L;
+        List<VacancyTextView> page;
+        do {
+            page = vacancyRepository.findTextPage(cursor, PageRequest.of(0, rebuildPageSize));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == rebuildPageSize);
+    }
+
+    /**
+     * Ошибка одной записи (некорректные данные, закрытый граф, ошибка файла графа) не прерывает построение
+     * и перенос журнала для остальных записей.
+     */
+    private static void skipMalformed(Runnable indexing, String kind, Object id) {
+        try {
+            indexing.run();
+        } catch (IllegalArgumentException | IllegalStateException | UncheckedIOException e) {
+            log.warn("Пропуск {} {} при построении индекса сходства: {}", kind, id, e.getMessage());
+        }
+    }
+
+    private TfIdfCorpus.Document indexResume(ResumeTextView view) {
+        return indexResume(index, view);
+    }
+
+    private TfIdfCorpus.Document indexResume(ExactIndex target, ResumeTextView view) {
+        Map<String, Integer> counts = resumeTerms(view);
+        if (hnsw) {
+            putIntoGraph(RESUMES, view.getUserId(), view.getId(), counts);
+            return null;
+        }
+        TfIdfCorpus.Document document = target.resumes().document(view.getId(), view.getUserId(), view.getName(), counts);
+        target.resumes().put(document);
+        return document;
+    }
+
+    private TfIdfCorpus.Document indexVacancy(VacancyTextView view) {
+        return indexVacancy(index, view);
+    }
+
+    private TfIdfCorpus.Document indexVacancy(ExactIndex target, VacancyTextView view) {
+        Map<String, Integer> counts = vacancyTerms(view);
+        if (hnsw) {
+            putIntoGraph(VACANCIES, view.getUserId(), view.getId(), counts);
+            return null;
+        }
+        TfIdfCorpus.Document document = target.vacancies().document(view.getId(), view.getUserId(), view.getTitle(), counts);
+        target.vacancies().put(document);
+        return document;
+    }
+
+    private float[] embed(ResumeTextView view, User user) {
+        checkOwner(view.getUserId(), view.getId(), user);
+        return HashedEmbedding.embed(resumeTerms(view), hnswStore.params().dimensions());
+    }
+
+    private float[] embed(VacancyTextView view, User user) {
+        checkOwner(view.getUserId(), view.getId(), user);
+        return HashedEmbedding.embed(vacancyTerms(view), hnswStore.params().dimensions());
+    }
+
+    /**
+     * Ищет в графе пользователя и подставляет подписи из БД; записи, удаленные после попадания в граф, отбрасываются.
+     */
+    private List<SimilarityHitDto> searchHnsw(String corpus, float[] query, int k, User user,
+                                              Function<List<Long>, Map<Long, String>> labels) {
+        if (query == null) {
+            return List.of();
+        }
+        List<HnswGraph.Neighbor> neighbors = hnswStore.existing(corpus, user.getId())
+                .map(graph -> graph.search(query, k, efSearch))
+                .orElse(List.of());
+        if (neighbors.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> titles = labels.apply(neighbors.stream().map(HnswGraph.Neighbor::id).toList());
+        return neighbors.stream()
+                .filter(n -> titles.containsKey(n.id()))
+                .map(n -> new SimilarityHitDto(n.id(), titles.get(n.id()), n.score()))
+                .toList();
+    }
+
+    private <T> T withGraphs(Supplier<T> action) {
+        graphLock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            graphLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обновляет запись в графе по событию или журналу; во время перестроения корпуса пропускается.
+     */
+    private void putIntoGraph(String corpus, long userId, long id, Map<String, Integer> counts) {
+        withGraphs(() -> {
+            if (!rebuilding.contains(corpus)) {
+                putVector(corpus, userId, id, counts);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Записывает вектор; если он не изменился, граф не трогается, чтобы повторный перенос не плодил удаленные записи.
+     */
+    private void putVector(String corpus, long userId, long id, Map<String, Integer> counts) {
+        float[] vector = HashedEmbedding.embed(counts, hnswStore.params().dimensions());
+        if (vector == null) {
+            removeVector(corpus, userId, id);
+            return;
+        }
+        HnswGraph graph = hnswStore.graph(corpus, userId);
+        if (graph.vector(id).filter(current -> Arrays.equals(current, vector)).isEmpty()) {
+            graph.put(id, vector);
+        }
+    }
+
+    private void removeFromGraph(String corpus, long userId, long id) {
+        if (!hnsw) {
+            return;
+        }
+        withGraphs(() -> {
+            if (!rebuilding.contains(corpus)) {
+                removeVector(corpus, userId, id);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Удаляет запись из графа; если удаленных стало больше {@code similarity.hnsw.compact-ratio},
+     * граф перестраивается в фоне.
+     */
+    private void removeVector(String corpus, long userId, long id) {
+        hnswStore.existing(corpus, userId).ifPresent(graph -> {
+            if (graph.remove(id) && graph.deletedRatio() > compactRatio && compacting.add(graph)) {
+                Thread.ofVirtual().name("hnsw-compact").start(() -> {
+                    try {
+                        graph.compact();
+                    } catch (IOException | RuntimeException e) {
+                        log.error("Ошибка перестроения графа HNSW {}/{}", corpus, userId, e);
+                        if (graph.isClosed()) {
+                            resyncScheduler.execute(() -> refillGraph(corpus, userId, graph));
+                        }
+                    } finally {
+                        compacting.remove(graph);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Заменяет граф, закрытый неудачным перестроением, пустым и заново заполняет его записями пользователя
+     * из Postgres. Выполняется в потоке синхронизации, поэтому не пересекается с переносом журнала.
+     */
+    private void refillGraph(String corpus, long userId, HnswGraph closed) {
+        graphLock.writeLock().lock();
+        try {
+            hnswStore.evict(corpus, userId, closed);
+        } catch (IOException e) {
+            log.error("Не удалось удалить файл графа HNSW {}/{}", corpus, userId, e);
+        } finally {
+            graphLock.writeLock().unlock();
+        }
+        if (RESUMES.equals(corpus)) {
+            resumeRepository.findTextByUserId(userId).forEach(view -> skipMalformed(
+                    () -> putIntoGraph(RESUMES, userId, view.getId(), resumeTerms(view)), kind(corpus), view.getId()));
+        } else {
+            vacancyRepository.findTextByUserId(userId).forEach(view -> skipMalformed(
+                    () -> putIntoGraph(VACANCIES, userId, view.getId(), vacancyTerms(view)), kind(corpus), view.getId()));
+        }
+        log.info("Граф HNSW {}/{} заполнен заново после ошибки перестроения", corpus, userId);
+    }
+
+    /**
+     * Корпуса резюме и вакансий над общим словарем и момент их построения.
+     */
+    private record ExactIndex(TfIdfCorpus resumes, TfIdfCorpus vacancies, long builtAt) {
+        static ExactIndex create() {
+            Vocabulary vocabulary = new Vocabulary();
+            return new ExactIndex(new TfIdfCorpus(vocabulary), new TfIdfCorpus(vocabulary), System.nanoTime());
+        }
+    }
+
+    private static void checkOwner(Long ownerId, Object id, User user) {
+        if (!user.getId().equals(ownerId)) {
+            log.warn("Пользователь {} запросил рекомендации по чужой записи {}", user.getUsername(), id);
+            throw new RuntimeException("Access denied");
+        }
+    }
+
+    private static List<SimilarityHitDto> toDto(List<TfIdfCorpus.Hit> hits) {
+        return hits.stream().map(h -> new SimilarityHitDto(h.id(), h.label(), h.score())).toList();
+    }
+
+    private static Map<String, Integer> resumeTerms(ResumeTextView view) {
+        Map<String, Integer> counts = new HashMap<>();
+        addTokens(counts, view.getRole());
+        addSkills(counts, JsonbCodec.readStrings(view.getHardSkills()));
+        List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> experience =
+                JsonbCodec.readList(view.getWorkExperience(), ResumeVacancyFastMatchRequest.WorkExperienceDTO.class);
+        if (experience != null) {
+            experience.forEach(w -> addSkills(counts, w.getTechnologies()));
+        }
+        return counts;
+    }
+
+    private static Map<String, Integer> vacancyTerms(VacancyTextView view) {
+        Map<String, Integer> counts = new HashMap<>();
+        addTokens(counts, view.getTitle());
+        addSkills(counts, view.getSkills());
+        addTokens(counts, view.getRequirements());
+        return counts;
+    }
+
+    /**
+     * Навык добавляется целиком и по токенам, чтобы "Spring Boot" в резюме совпадал и с таким же навыком,
+     * и со словом "spring" в требованиях вакансии.
+     */
+    private static void addSkills(Map<String, Integer> counts, Collection<String> skills) {
+        if (skills == null) {
+            return;
+        }
+        for (String skill : skills) {
+            if (skill == null || skill.isBlank()) {
+                continue;
+            }
+            String normalized = skill.trim().toLowerCase(Locale.ROOT);
+            if (normalized.indexOf(' ') > 0) {
+                counts.merge(normalized, 1, Integer::sum);
+            }
+            addTokens(counts, normalized);
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> counts, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() > 1) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.SkillCandidateDto;
+import com.vacancy.dto.SkillCountDto;
+import com.vacancy.model.CandidateStatus;
+import com.vacancy.model.User;
+import com.vacancy.repository.CandidateStatusRepository;
+import com.vacancy.repository.ResumeVacancyMatchRepository;
+import com.vacancy.repository.VacancyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Аналитика навыков по сохраненным результатам полного матчинга.
+ * Каждый ответ - один агрегирующий запрос к jsonb-массивам matched_skills/unmatched_skills
+ * по индексам {@code db/008_match_skill_indexes.sql}, без разбора JSON в Java.
+ * <p>
+ * Статусы кандидатов - строки {@code candidate_status}, их ID зависят от базы, поэтому статус отклоненных
+ * ищется по названию {@code analytics.skills.rejected-status-title} при старте. Если такого статуса еще нет,
+ * поиск повторяется при запросе, а до его появления запрос отклоненных кандидатов завершается ошибкой.
+ */
+@Slf4j
+@Service
+public class SkillAnalyticsService {
+    private final ResumeVacancyMatchRepository matchRepository;
+    private final VacancyRepository vacancyRepository;
+    private final CandidateStatusRepository statusRepository;
+    private final int maxLimit;
+    private final String rejectedStatusTitle;
+    private volatile Integer rejectedStatusId;
+
+    public SkillAnalyticsService(ResumeVacancyMatchRepository matchRepository,
+                                 VacancyRepository vacancyRepository,
+                                 CandidateStatusRepository statusRepository,
+                                 @Value("${analytics.skills.max-limit:100}") int maxLimit,
+                                 @Value("${analytics.skills.rejected-status-title:Отклонен}") String rejectedStatusTitle) {
+        this.matchRepository = matchRepository;
+        this.vacancyRepository = vacancyRepository;
+        this.statusRepository = statusRepository;
+        this.maxLimit = maxLimit;
+        this.rejectedStatusTitle = rejectedStatusTitle;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resolveRejectedStatus() {
+        if (findRejectedStatus() == null) {
+            log.warn("Статус кандидата \"{}\" не найден в candidate_status, аналитика отклоненных кандидатов недоступна",
+                    rejectedStatusTitle);
+        }
+    }
+
+    /**
+     * Самые частые недостающие навыки кандидатов.
+     *
+     * @param vacancyId ID вакансии или null для всех вакансий пользователя
+     * @param limit     число навыков
+     * @param user      владелец сопоставлений
+     * @return навыки по убыванию частоты
+     * @throws RuntimeException если вакансия не найдена или доступ запрещен
+     */
+    @Transactional(readOnly = true)
+    public List<SkillCountDto> getMissingSkills(Long vacancyId, int limit, User user) {
+        checkVacancyOwner(vacancyId, user);
+        return matchRepository.findTopMissingSkills(user.getId(), vacancyId, clamp(limit)).stream()
+                .map(v -> new SkillCountDto(v.getSkill(), v.getCount()))
+                .toList();
+    }
+
+    /**
+     * Отклоненные кандидаты, у которых навык совпал хотя бы в одном сопоставлении.
+     *
+     * @param skill     навык, без учета регистра
+     * @param vacancyId ID вакансии или null для всех вакансий пользователя
+     * @param limit     число кандидатов
+     * @param user      владелец сопоставлений
+     * @return кандидаты по убыванию оценки лучшего сопоставления с навыком
+     * @throws RuntimeException если навык не задан, вакансия не найдена, доступ запрещен
+     *                          или статуса отклоненных нет в candidate_status
+     */
+    @Transactional(readOnly = true)
+    public List<SkillCandidateDto> getRejectedWithSkill(String skill, Long vacancyId, int limit, User user) {
+        if (skill == null || skill.isBlank()) {
+            throw new RuntimeException("Не задан навык");
+        }
+        checkVacancyOwner(vacancyId, user);
+        Integer statusId = findRejectedStatus();
+        if (statusId == null) {
+            throw new RuntimeException("Статус кандидата \"" + rejectedStatusTitle + "\" не найден");
+        }
+        return matchRepository.findCandidatesWithSkillInStatus(user.getId(), skill, statusId, vacancyId,
+                        clamp(limit)).stream()
+                .map(v -> new SkillCandidateDto(v.getResumeId(), v.getName(), v.getRole(), v.getVacancyId(),
+                        v.getVacancyTitle(), v.getScore()))
+                .toList();
+    }
+
+    private Integer findRejectedStatus() {
+        Integer id = rejectedStatusId;
+        if (id == null) {
+            id = statusRepository.findFirstByTitleIgnoreCaseOrderByIdAsc(rejectedStatusTitle)
+                    .map(CandidateStatus::getId)
+                    .orElse(null);
+            if (id != null) {
+                log.info("Статус отклоненных кандидатов \"{}\": id={}", rejectedStatusTitle, id);
+                rejectedStatusId = id;
+            }
+        }
+        return id;
+    }
+
+    private void checkVacancyOwner(Long vacancyId, User user) {
+        if (vacancyId == null) {
+            return;
+        }
+        Long ownerId = vacancyRepository.findOwnerIdById(vacancyId)
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!ownerId.equals(user.getId())) {
+            log.warn("Пользователь {} запросил аналитику навыков чужой вакансии {}", user.getUsername(), vacancyId);
+            throw new RuntimeException("Access denied");
+        }
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import com.vacancy.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Краткий каталог вакансий пользователя для быстрого подбора, закэшированный в памяти узла.
+ * Снимок сбрасывается после коммита изменения вакансий ({@link VacancyChangedEvent}).
+ * У каждого пользователя есть счетчик версий: снимок, прочитанный до инвалидации, не попадет в кэш.
+ * Изменения с других узлов подхватываются не позже {@code resume.fast-match.catalog-ttl}.
+ */
+@Slf4j
+@Component
+public class VacancyCatalogCache {
+    private final VacancyService vacancyService;
+    private final long ttlNanos;
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public VacancyCatalogCache(VacancyService vacancyService,
+                               @Value("${resume.fast-match.catalog-ttl:10m}") Duration ttl) {
+        this.vacancyService = vacancyService;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    private record Snapshot(long version, long loadedAt, List<ResumeVacancyFastMatchRequest.VacancyDTO> vacancies) {
+    }
+
+    /**
+     * Возвращает неизменяемый снимок каталога пользователя, при необходимости загружая его из БД.
+     *
+     * @param user владелец вакансий
+     * @return краткий каталог вакансий
+     */
+    public List<ResumeVacancyFastMatchRequest.VacancyDTO> get(User user) {
+        Long userId = user.getId();
+        AtomicLong version = versions.computeIfAbsent(userId, id -> new AtomicLong());
+        long current = version.get();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null && snapshot.version() == current && System.nanoTime() - snapshot.loadedAt() < ttlNanos) {
+            return snapshot.vacancies();
+        }
+        List<ResumeVacancyFastMatchRequest.VacancyDTO> vacancies = List.copyOf(vacancyService.getAllVacancyShort(user));
+        Snapshot loaded = new Snapshot(current, System.nanoTime(), vacancies);
+        snapshots.compute(userId, (id, existing) -> version.get() == current ? loaded : existing);
+        log.debug("Каталог вакансий пользователя {} загружен: {} вакансий, версия {}", userId, vacancies.size(), current);
+        return vacancies;
+    }
+
+    /**
+     * Сбрасывает снимок после коммита; без транзакции - сразу.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVacancyChanged(VacancyChangedEvent event) {
+        versions.computeIfAbsent(event.userId(), id -> new AtomicLong()).incrementAndGet();
+        snapshots.remove(event.userId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.vacancy.service;
+
+/**
+ * Событие изменения вакансии: создание, обновление или удаление.
+ * Слушатели получают его после коммита и при необходимости перечитывают вакансию по ID.
+ *
+ * @param vacancyId ID вакансии
+ * @param userId    владелец вакансии
+ */
+public record VacancyChangedEvent(Long vacancyId, Long userId) {
+}
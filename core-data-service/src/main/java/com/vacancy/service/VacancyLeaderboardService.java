@@ -0,0 +1,89 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.VacancyLeaderboardDto;
+import com.vacancy.model.User;
+import com.vacancy.repository.ResumeVacancyMatchRepository;
+import com.vacancy.repository.ResumeVacancyMatchRepository.LeaderboardView;
+import com.vacancy.repository.VacancyRepository;
+import com.vacancy.utils.ScoreCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Рейтинг кандидатов вакансии по сохраненным результатам полного матчинга.
+ * Страница и гистограмма читаются по индексу (vacancy_id, score DESC, id) без загрузки jsonb-полей,
+ * поэтому время ответа не зависит от числа сопоставлений вакансии.
+ */
+@Slf4j
+@Service
+public class VacancyLeaderboardService {
+    private final ResumeVacancyMatchRepository matchRepository;
+    private final VacancyRepository vacancyRepository;
+    private final int maxLimit;
+    private final int buckets;
+
+    public VacancyLeaderboardService(ResumeVacancyMatchRepository matchRepository,
+                                     VacancyRepository vacancyRepository,
+                                     @Value("${leaderboard.max-limit:100}") int maxLimit,
+                                     @Value("${leaderboard.buckets:10}") int buckets) {
+        this.matchRepository = matchRepository;
+        this.vacancyRepository = vacancyRepository;
+        this.maxLimit = maxLimit;
+        this.buckets = Math.max(1, buckets);
+    }
+
+    /**
+     * Возвращает страницу рейтинга и гистограмму оценок вакансии.
+     *
+     * @param vacancyId ID вакансии
+     * @param limit     размер страницы
+     * @param cursor    курсор предыдущей страницы или null
+     * @param user      владелец вакансии
+     * @return кандидаты по убыванию оценки и гистограмма
+     * @throws RuntimeException если вакансия не найдена или доступ запрещен
+     * @throws IllegalArgumentException если курсор некорректен
+     */
+    @Transactional(readOnly = true)
+    public VacancyLeaderboardDto getLeaderboard(Long vacancyId, int limit, String cursor, User user) {
+        Long ownerId = vacancyRepository.findOwnerIdById(vacancyId)
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!ownerId.equals(user.getId())) {
+            log.warn("Пользователь {} запросил рейтинг чужой вакансии {}", user.getUsername(), vacancyId);
+            throw new RuntimeException("Access denied");
+        }
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        ScoreCursor after = cursor == null || cursor.isBlank() ? null : ScoreCursor.decode(cursor);
+        List<LeaderboardView> rows = matchRepository.findLeaderboard(vacancyId,
+                after == null ? null : after.score(), after == null ? null : after.id(),
+                PageRequest.ofSize(size + 1));
+        boolean hasMore = rows.size() > size;
+        List<LeaderboardView> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            LeaderboardView last = page.get(page.size() - 1);
+            nextCursor = new ScoreCursor(last.getScore(), last.getId()).encode();
+        }
+
+        long[] counts = new long[buckets];
+        matchRepository.findScoreHistogram(vacancyId, buckets)
+                .forEach(b -> counts[b.getBucket() - 1] = b.getCount());
+        List<VacancyLeaderboardDto.Bucket> histogram = new ArrayList<>(buckets);
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            histogram.add(new VacancyLeaderboardDto.Bucket((double) i / buckets, (double) (i + 1) / buckets, counts[i]));
+            total += counts[i];
+        }
+
+        List<VacancyLeaderboardDto.Entry> items = page.stream()
+                .map(v -> new VacancyLeaderboardDto.Entry(v.getId(), v.getResumeId(), v.getName(), v.getRole(),
+                        v.getScore(), v.getVerdict(), v.getCreatedAt()))
+                .toList();
+        return new VacancyLeaderboardDto(vacancyId, total, items, nextCursor, histogram);
+    }
+}
@@ -0,0 +1,255 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeVacancyFastMatchRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Локальный детерминированный предварительный отбор вакансий перед быстрым LLM-сопоставлением.
+ * Оценка складывается из пересечения навыков, сходства должности и опыта работы;
+ * в LLM уходят только top-K вакансий, поэтому размер промпта не растет вместе с каталогом.
+ */
+@Slf4j
+@Component
+public class VacancyPreScorer {
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+    private static final Pattern MONTH_YEAR = Pattern.compile("(\\d{1,2})[./-](\\d{4})");
+    private static final Pattern YEAR_MONTH = Pattern.compile("(\\d{4})(?:[./-](\\d{1,2}))?");
+    private static final Pattern FIRST_NUMBER = Pattern.compile("\\d+");
+
+    private final boolean enabled;
+    private final int topK;
+    private final double skillsWeight;
+    private final double titleWeight;
+    private final double experienceWeight;
+
+    public VacancyPreScorer(@Value("${resume.fast-match.prefilter.enabled:true}") boolean enabled,
+                            @Value("${resume.fast-match.top-k:50}") int topK,
+                            @Value("${resume.fast-match.prefilter.skills-weight:0.5}") double skillsWeight,
+                            @Value("${resume.fast-match.prefilter.title-weight:0.35}") double titleWeight,
+                            @Value("${resume.fast-match.prefilter.experience-weight:0.15}") double experienceWeight) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.skillsWeight = skillsWeight;
+        this.titleWeight = titleWeight;
+        this.experienceWeight = experienceWeight;
+    }
+
+    private record Scored(ResumeVacancyFastMatchRequest.VacancyDTO vacancy, double score) {
+    }
+
+    /**
+     * Признаки кандидата, подготовленные один раз для оценки против многих вакансий.
+     *
+     * @param skills          нормализованные hard skills и технологии из опыта работы
+     * @param roleTokens      токены желаемой должности
+     * @param experienceYears стаж в годах
+     */
+    public record CandidateProfile(Set<String> skills, Set<String> roleTokens, double experienceYears) {
+    }
+
+    /**
+     * Признаки вакансии, подготовленные один раз для оценки против многих кандидатов.
+     *
+     * @param skills        нормализованные навыки
+     * @param titleTokens   токены названия
+     * @param requiredYears требуемый стаж или null, если не распознан
+     */
+    public record VacancyProfile(Set<String> skills, Set<String> titleTokens, Integer requiredYears) {
+    }
+
+    /**
+     * Возвращает не более K вакансий с наибольшей локальной оценкой, по убыванию оценки.
+     * Если отбор выключен или каталог не превышает K, каталог возвращается без изменений.
+     *
+     * @param role           желаемая должность кандидата
+     * @param hardSkills     hard skills кандидата
+     * @param workExperience опыт работы кандидата
+     * @param catalog        краткий каталог вакансий пользователя
+     * @return отобранные вакансии
+     */
+    public List<ResumeVacancyFastMatchRequest.VacancyDTO> topK(String role,
+                                                               Collection<String> hardSkills,
+                                                               List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience,
+                                                               List<ResumeVacancyFastMatchRequest.VacancyDTO> catalog) {
+        if (!enabled || catalog.size() <= topK) {
+            return catalog;
+        }
+        CandidateProfile candidate = candidate(role, hardSkills, workExperience);
+
+        Comparator<Scored> order = Comparator.comparingDouble(Scored::score)
+                .thenComparing(s -> s.vacancy().getId(), Comparator.reverseOrder());
+        PriorityQueue<Scored> heap = new PriorityQueue<>(topK + 1, order);
+        for (ResumeVacancyFastMatchRequest.VacancyDTO vacancy : catalog) {
+            VacancyProfile profile = vacancy(vacancy.getRequiredRole(), vacancy.getSkills(), vacancy.getRequiredExperienceYears());
+            heap.add(new Scored(vacancy, score(candidate, profile)));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<Scored> selected = new ArrayList<>(heap);
+        selected.sort(order.reversed());
+        log.info("Предварительный отбор: {} из {} вакансий передается в LLM", selected.size(), catalog.size());
+        return selected.stream().map(Scored::vacancy).toList();
+    }
+
+    public CandidateProfile candidate(String role, Collection<String> hardSkills,
+                                      List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience) {
+        Set<String> skills = new HashSet<>();
+        addNormalized(skills, hardSkills);
+        if (workExperience != null) {
+            workExperience.forEach(w -> addNormalized(skills, w.getTechnologies()));
+        }
+        return new CandidateProfile(skills, tokens(role), experienceYears(workExperience));
+    }
+
+    public VacancyProfile vacancy(String title, Collection<String> skills, String requiredExperience) {
+        Set<String> normalized = new HashSet<>();
+        addNormalized(normalized, skills);
+        return new VacancyProfile(normalized, tokens(title), requiredYears(requiredExperience));
+    }
+
+    /**
+     * Взвешенная оценка совместимости кандидата и вакансии от 0 до 1.
+     */
+    public double score(CandidateProfile candidate, VacancyProfile vacancy) {
+        return skillsWeight * skillOverlap(candidate.skills(), vacancy.skills())
+                + titleWeight * jaccard(candidate.roleTokens(), vacancy.titleTokens())
+                + experienceWeight * experienceFit(candidate.experienceYears(), vacancy.requiredYears());
+    }
+
+    /**
+     * Доля навыков вакансии, которые есть у кандидата.
+     */
+    private static double skillOverlap(Set<String> skills, Set<String> required) {
+        if (required.isEmpty()) {
+            return 0;
+        }
+        long matched = required.stream().filter(skills::contains).count();
+        return (double) matched / required.size();
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        long common = a.stream().filter(b::contains).count();
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    /**
+     * Доля требуемого опыта, которую покрывает кандидат. Если требование не распознано, оценка нейтральна.
+     */
+    private static double experienceFit(double years, Integer requiredYears) {
+        if (requiredYears == null || requiredYears == 0) {
+            return 1;
+        }
+        return Math.min(1, years / requiredYears);
+    }
+
+    private static Integer requiredYears(String required) {
+        if (required == null) {
+            return null;
+        }
+        Matcher m = FIRST_NUMBER.matcher(required);
+        return m.find() ? Integer.valueOf(m.group()) : null;
+    }
+
+    /**
+     * Стаж в годах по объединенным интервалам работы; пересекающиеся места работы не суммируются дважды.
+     */
+    private static double experienceYears(List<ResumeVacancyFastMatchRequest.WorkExperienceDTO> workExperience) {
+        if (workExperience == null || workExperience.isEmpty()) {
+            return 0;
+        }
+        YearMonth now = YearMonth.now();
+        List<int[]> intervals = new ArrayList<>();
+        for (ResumeVacancyFastMatchRequest.WorkExperienceDTO w : workExperience) {
+            YearMonth start = parseMonth(w.getStartDate());
+            if (start == null) {
+                continue;
+            }
+            YearMonth end = parseMonth(w.getEndDate());
+            int from = monthIndex(start);
+            int to = monthIndex(end == null ? now : end);
+            if (to > from) {
+                intervals.add(new int[]{from, to});
+            }
+        }
+        intervals.sort(Comparator.comparingInt(i -> i[0]));
+        int months = 0;
+        int curFrom = -1;
+        int curTo = -1;
+        for (int[] i : intervals) {
+            if (i[0] > curTo) {
+                months += curTo - curFrom;
+                curFrom = i[0];
+                curTo = i[1];
+            } else {
+                curTo = Math.max(curTo, i[1]);
+            }
+        }
+        months += curTo - curFrom;
+        return months / 12.0;
+    }
+
+    private static int monthIndex(YearMonth ym) {
+        return ym.getYear() * 12 + ym.getMonthValue() - 1;
+    }
+
+    private static YearMonth parseMonth(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Matcher m = MONTH_YEAR.matcher(value);
+        if (m.find()) {
+            return of(Integer.parseInt(m.group(2)), Integer.parseInt(m.group(1)));
+        }
+        m = YEAR_MONTH.matcher(value);
+        if (m.find()) {
+            return of(Integer.parseInt(m.group(1)), m.group(2) == null ? 1 : Integer.parseInt(m.group(2)));
+        }
+        return null;
+    }
+
+    private static YearMonth of(int year, int month) {
+        return month >= 1 && month <= 12 ? YearMonth.of(year, month) : YearMonth.of(year, 1);
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> result = new HashSet<>();
+        if (text == null) {
+            return result;
+        }
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private static void addNormalized(Set<String> target, Collection<String> values) {
+        if (values == null) {
+            return;
+        }
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                target.add(value.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+}
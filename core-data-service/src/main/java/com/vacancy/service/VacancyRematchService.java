@@ -0,0 +1,170 @@
+package com.vacancy.service;
+
+import com.vacancy.repository.ResumeRepository;
+import com.vacancy.repository.ResumeVacancyFastMatchRepository;
+import com.vacancy.repository.UserRepository;
+import com.vacancy.repository.VacancyRepository;
+import com.vacancy.repository.VacancyRepository.VacancyTextView;
+import com.vacancy.service.FastMatchPipeline.Scored;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Фоновый повторный подбор резюме после создания или изменения вакансии.
+ * Вакансия сопоставляется с уже загруженными резюме владельца через {@link FastMatchPipeline}: локальный отбор,
+ * затем быстрый LLM-подбор пачками по {@code resume.fast-match.rematch.batch-size}
+ * с паузой {@code batch-pause} между пачками; уже подобранные к вакансии резюме перепроверяются всегда.
+ * Таблица быстрых соответствий меняется по разнице: добавляются только новые пары, удаляются только пары,
+ * которые LLM больше не подтверждает; резюме, по которым вызов не удался, остаются как были.
+ * Вакансии обрабатываются по одной; события по вакансии, еще ждущей обработки, схлопываются,
+ * а вакансия с неизменными полями подбора (название, опыт, навыки) повторно не проверяется. Поля запоминаются,
+ * только если все вердикты получены и записаны в БД; иначе следующее событие проверит вакансию заново.
+ */
+@Slf4j
+@Service
+public class VacancyRematchService {
+    private final VacancyRepository vacancyRepository;
+    private final ResumeRepository resumeRepository;
+    private final UserRepository userRepository;
+    private final ResumeVacancyFastMatchRepository fastMatchRepository;
+    private final FastMatchPipeline pipeline;
+    private final boolean enabled;
+    private final double minScore;
+    private final int maxResumes;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("vacancy-rematch").factory());
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> fingerprints = new ConcurrentHashMap<>();
+
+    public VacancyRematchService(VacancyRepository vacancyRepository,
+                                 ResumeRepository resumeRepository,
+                                 UserRepository userRepository,
+                                 ResumeVacancyFastMatchRepository fastMatchRepository,
+                                 FastMatchPipeline pipeline,
+                                 @Value("${resume.fast-match.rematch.enabled:true}") boolean enabled,
+                                 @Value("${resume.fast-match.rematch.min-score:0.2}") double minScore,
+                                 @Value("${resume.fast-match.rematch.max-resumes:500}") int maxResumes,
+                                 @Value("${resume.fast-match.rematch.batch-size:20}") int batchSize,
+                                 @Value("${resume.fast-match.rematch.batch-pause:1s}") Duration batchPause) {
+        this.vacancyRepository = vacancyRepository;
+        this.resumeRepository = resumeRepository;
+        this.userRepository = userRepository;
+        this.fastMatchRepository = fastMatchRepository;
+        this.pipeline = pipeline;
+        this.enabled = enabled;
+        this.minScore = minScore;
+        this.maxResumes = maxResumes;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+    }
+
+    /**
+     * Ставит вакансию в очередь после коммита; без транзакции - сразу.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVacancyChanged(VacancyChangedEvent event) {
+        if (!enabled || !pending.add(event.vacancyId())) {
+            return;
+        }
+        worker.execute(() -> {
+            pending.remove(event.vacancyId());
+            try {
+                rematch(event.vacancyId(), event.userId());
+            } catch (RuntimeException e) {
+                fingerprints.remove(event.vacancyId());
+                log.error("Ошибка повторного подбора резюме для вакансии {}", event.vacancyId(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void rematch(Long vacancyId, Long userId) {
+        Optional<VacancyTextView> found = vacancyRepository.findTextById(vacancyId)
+                .filter(v -> userId.equals(v.getUserId()));
+        if (found.isEmpty()) {
+            fingerprints.remove(vacancyId);
+            return;
+        }
+        VacancyTextView vacancy = found.get();
+        int fingerprint = Objects.hash(vacancy.getTitle(), vacancy.getExperience(), vacancy.getSkills());
+        if (Objects.equals(fingerprints.get(vacancyId), fingerprint)) {
+            log.debug("Поля подбора вакансии {} не изменились, повторный подбор не нужен", vacancyId);
+            return;
+        }
+        long started = System.nanoTime();
+        Set<Integer> existing = new HashSet<>(fastMatchRepository.findResumeIdsByVacancyId(vacancyId,
+                userRepository.getReferenceById(userId)));
+        // LLM проверяет лучшие по локальной оценке резюме и все резюме, уже подобранные к вакансии
+        List<Scored> checked = new ArrayList<>();
+        int candidates = 0;
+        for (Scored c : pipeline.localStage(vacancy, resumeRepository.findTextByUserId(userId), 0)) {
+            boolean candidate = c.score() >= minScore && candidates < maxResumes;
+            if (candidate || existing.contains(c.resume().getId())) {
+                checked.add(c);
+                candidates += candidate ? 1 : 0;
+            }
+        }
+        Set<Integer> added = new HashSet<>();
+        Set<Integer> removed = new HashSet<>();
+        boolean complete = true;
+        for (int from = 0; from < checked.size(); from += batchSize) {
+            if (from > 0 && !pause()) {
+                return;
+            }
+            List<Scored> batch = checked.subList(from, Math.min(from + batchSize, checked.size()));
+            Map<Integer, Boolean> verdicts = pipeline.verdicts(batch, vacancy);
+            complete &= verdicts.size() == batch.size();
+            verdicts.forEach((resumeId, matched) -> {
+                if (matched && !existing.contains(resumeId)) {
+                    added.add(resumeId);
+                } else if (!matched && existing.contains(resumeId)) {
+                    removed.add(resumeId);
+                }
+            });
+        }
+
+        // ошибка записи выходит из метода до запоминания полей, и вакансия будет проверена заново
+        pipeline.save(added, vacancyId);
+        if (!removed.isEmpty()) {
+            fastMatchRepository.deleteByVacancyIdAndResumeIds(vacancyId, removed);
+        }
+        if (complete) {
+            fingerprints.put(vacancyId, fingerprint);
+        } else {
+            fingerprints.remove(vacancyId);
+        }
+        log.info("Повторный подбор вакансии {}: проверено {} резюме, добавлено {}, удалено {} соответствий за {} мс",
+                vacancyId, checked.size(), added.size(), removed.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.vacancy.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vacancy.config.Downstream;
+import com.vacancy.config.Downstreams;
+import com.vacancy.dto.CursorPage;
+import com.vacancy.dto.ListFilterRequest;
 import com.vacancy.dto.ResumeVacancyFastMatchRequest;
 import com.vacancy.dto.VacancyDto;
 import com.vacancy.dto.VacancyGenRequest;
+import com.vacancy.dto.VacancySummaryDto;
+import com.vacancy.exception.InvalidPatchException;
 import com.vacancy.model.CandidateStatus;
 import com.vacancy.model.User;
 import com.vacancy.model.Vacancy;
@@ -10,8 +19,11 @@ import com.vacancy.repository.VacancyRepository;
 import com.vacancy.repository.VacancyRepository.VacancyShortView;
 import com.vacancy.repository.ResumeRepository;
 import com.vacancy.repository.ResumeVacancyMatchRepository;
+import com.vacancy.utils.EntityVersions;
+import com.vacancy.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -25,7 +37,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.HashMap;
 
 /**
@@ -39,6 +50,10 @@ public class VacancyService {
     private final VacancyRepository vacancyRepository;
     private final ResumeRepository resumeRepository;
     private final ResumeVacancyMatchRepository resumeVacancyMatchRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RestTemplate restTemplate;
+    private final Downstreams downstreams;
 
     /**
      * Создает новую вакансию.
@@ -53,6 +68,7 @@ public class VacancyService {
         Vacancy vacancy = convertToEntity(vacancyDto);
         vacancy.setUser(user);
         Vacancy savedVacancy = vacancyRepository.save(vacancy);
+        eventPublisher.publishEvent(new VacancyChangedEvent(savedVacancy.getId(), user.getId()));
         log.info("Вакансия успешно создана с ID: {}", savedVacancy.getId());
         return convertToDto(savedVacancy);
     }
@@ -79,19 +95,44 @@ public class VacancyService {
     }
 
     /**
-     * Получает список всех вакансий пользователя.
+     * Получает страницу вакансий пользователя.
+     * Пагинация по ключу (created_at, id), сортировка от новых к старым.
      *
-     * @param user пользователь
-     * @return список вакансий в формате DTO
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   пользователь
+     * @return страница вакансий в формате DTO
      */
     @Transactional(readOnly = true)
-    public List<VacancyDto> getAllVacancies(User user) {
-        log.info("Получение списка всех вакансий пользователя {}", user.getUsername());
-        List<VacancyDto> vacancies = vacancyRepository.findByUser(user).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        log.info("Найдено {} вакансий", vacancies.size());
-        return vacancies;
+    public CursorPage<VacancyDto> getAllVacancies(ListFilterRequest filter, User user) {
+        log.info("Получение страницы вакансий пользователя {}", user.getUsername());
+        List<Vacancy> rows = vacancyRepository.findPageByUser(user, filter.statusOrNull(), filter.sourceOrNull(),
+                filter.likePrefix(), filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), filter.cursorId(), filter.probe());
+        CursorPage<VacancyDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                vacancy -> new KeysetCursor(vacancy.getCreatedAt(), vacancy.getId()), this::convertToDto);
+        log.info("Найдено {} вакансий", page.getItems().size());
+        return page;
+    }
+
+    /**
+     * Получает страницу кратких вакансий пользователя для карточек.
+     * TEXT-поля описания, требований и обязанностей не загружаются.
+     *
+     * @param filter фильтры, курсор и размер страницы
+     * @param user   пользователь
+     * @return страница кратких DTO вакансий
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VacancySummaryDto> getVacancySummaries(ListFilterRequest filter, User user) {
+        log.info("Получение краткого списка вакансий пользователя {}", user.getUsername());
+        List<VacancyRepository.VacancySummaryView> rows = vacancyRepository.findSummaryPageByUser(user,
+                filter.statusOrNull(), filter.sourceOrNull(), filter.likePrefix(),
+                filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.cursorCreatedAt(), filter.cursorId(), filter.probe());
+        CursorPage<VacancySummaryDto> page = CursorPage.of(rows, filter.effectiveLimit(),
+                view -> new KeysetCursor(view.getCreatedAt(), view.getId()), this::convertToSummaryDto);
+        log.info("Найдено {} вакансий", page.getItems().size());
+        return page;
     }
 
     /**
@@ -117,10 +158,72 @@ public class VacancyService {
         }
         updateEntityFromDto(existingVacancy, vacancyDto);
         Vacancy updatedVacancy = vacancyRepository.save(existingVacancy);
+        eventPublisher.publishEvent(new VacancyChangedEvent(id, user.getId()));
         log.info("Вакансия успешно обновлена: {}", updatedVacancy.getTitle());
         return convertToDto(updatedVacancy);
     }
 
+    /**
+     * Частично обновляет вакансию по JSON Merge Patch (RFC 7386): меняются только поля из тела запроса,
+     * {@code null} очищает поле. Благодаря {@code @DynamicUpdate} UPDATE содержит только измененные колонки.
+     *
+     * @param id              ID вакансии
+     * @param patch           JSON Merge Patch
+     * @param expectedVersion версия из If-Match, null - без проверки
+     * @param user            пользователь, обновляющий вакансию
+     * @return обновленная вакансия с новой версией
+     * @throws RuntimeException если вакансия не найдена или доступ запрещен
+     * @throws InvalidPatchException если поле неизвестно, нельзя изменить или тело некорректно
+     */
+    @Transactional
+    public VacancyDto patchVacancy(Long id, ObjectNode patch, Long expectedVersion, User user) {
+        log.info("Частичное обновление вакансии с ID: {} пользователем {}", id, user.getUsername());
+        Vacancy existingVacancy = vacancyRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Vacancy not found"));
+        if (!existingVacancy.getUser().getId().equals(user.getId())) {
+            log.warn("Пользователь {} пытался обновить чужую вакансию {}", user.getUsername(), id);
+            throw new RuntimeException("Access denied");
+        }
+        EntityVersions.check(Vacancy.class, id, existingVacancy.getVersion(), expectedVersion);
+        VacancyDto changes;
+        try {
+            changes = objectMapper.treeToValue(patch, VacancyDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("Некорректное тело PATCH: " + e.getOriginalMessage(), e);
+        }
+        patch.fieldNames().forEachRemaining(field -> applyPatchField(existingVacancy, field, changes));
+        Vacancy updatedVacancy = vacancyRepository.saveAndFlush(existingVacancy);
+        eventPublisher.publishEvent(new VacancyChangedEvent(id, user.getId()));
+        return convertToDto(updatedVacancy);
+    }
+
+    private void applyPatchField(Vacancy entity, String field, VacancyDto changes) {
+        switch (field) {
+            case "title" -> {
+                if (changes.getTitle() == null) {
+                    throw new InvalidPatchException("title", "Поле title обязательно");
+                }
+                entity.setTitle(changes.getTitle());
+            }
+            case "description" -> entity.setDescription(changes.getDescription());
+            case "requirements" -> entity.setRequirements(changes.getRequirements());
+            case "company" -> entity.setCompany(changes.getCompany());
+            case "responsibilities" -> entity.setResponsibilities(changes.getResponsibilities());
+            case "skills" -> entity.setSkills(changes.getSkills());
+            case "salaryFrom" -> entity.setSalaryFrom(changes.getSalaryFrom());
+            case "salaryTo" -> entity.setSalaryTo(changes.getSalaryTo());
+            case "location" -> entity.setLocation(changes.getLocation());
+            case "source" -> entity.setSource(changes.getSource());
+            case "currency" -> entity.setCurrency(changes.getCurrency());
+            case "experience" -> entity.setExperience(changes.getExperience());
+            case "url" -> entity.setUrl(changes.getUrl());
+            case "originalId" -> entity.setOriginalId(changes.getOriginalId());
+            case "status" -> entity.setStatus(changes.getStatus());
+            case "formatWork" -> entity.setFormatWork(changes.getFormatWork());
+            default -> throw new InvalidPatchException(field, "Поле " + field + " нельзя изменить через PATCH");
+        }
+    }
+
     /**
      * Удаляет вакансию по ID.
      *
@@ -137,6 +240,7 @@ public class VacancyService {
             throw new RuntimeException("Access denied");
         }
         vacancyRepository.deleteById(id);
+        eventPublisher.publishEvent(new VacancyChangedEvent(id, user.getId()));
         log.info("Вакансия с ID {} успешно удалена", id);
     }
 
@@ -197,6 +301,7 @@ public class VacancyService {
         dto.setLocation(entity.getLocation());
         dto.setSource(entity.getSource());
         dto.setCreatedAt(entity.getCreatedAt());
+        dto.setVersion(entity.getVersion());
         dto.setCurrency(entity.getCurrency());
         dto.setExperience(entity.getExperience());
         dto.setUrl(entity.getUrl());
@@ -206,12 +311,35 @@ public class VacancyService {
         return dto;
     }
 
+    /**
+     * Конвертирует краткое представление вакансии в DTO.
+     *
+     * @param view краткое представление вакансии
+     * @return краткий DTO
+     */
+    private VacancySummaryDto convertToSummaryDto(VacancyRepository.VacancySummaryView view) {
+        VacancySummaryDto dto = new VacancySummaryDto();
+        dto.setId(view.getId());
+        dto.setTitle(view.getTitle());
+        dto.setCompany(view.getCompany());
+        dto.setLocation(view.getLocation());
+        dto.setSalaryFrom(view.getSalaryFrom());
+        dto.setSalaryTo(view.getSalaryTo());
+        dto.setCurrency(view.getCurrency());
+        dto.setExperience(view.getExperience());
+        dto.setSkills(view.getSkills());
+        dto.setSource(view.getSource());
+        dto.setStatus(view.getStatus());
+        dto.setFormatWork(view.getFormatWork());
+        dto.setCreatedAt(view.getCreatedAt());
+        return dto;
+    }
+
     public void parseAndSaveVacancy(String source, String url, User user) {
-        RestTemplate restTemplate = new RestTemplate();
         String parseUrl = switch (source.toLowerCase()) {
-            case "hh" -> "http://0.0.0.0:8001/parse/parse-vacancy";
-            case "habr" -> "http://0.0.0.0:8001/parse/parse-habr-vacancy";
-            case "getmatch" -> "http://0.0.0.0:8001/parse/parse-getmatch-vacancy";
+            case "hh" -> downstreams.url(Downstream.PARSER, "/parse/parse-vacancy");
+            case "habr" -> downstreams.url(Downstream.PARSER, "/parse/parse-habr-vacancy");
+            case "getmatch" -> downstreams.url(Downstream.PARSER, "/parse/parse-getmatch-vacancy");
             default -> throw new RuntimeException("Неизвестный source: " + source);
         };
         HttpHeaders headers = new HttpHeaders();
@@ -243,14 +371,14 @@ public class VacancyService {
                 vacancy.setFormatWork((String) vacancyMap.get("work_format"));
             }
             vacancyRepository.save(vacancy);
+            eventPublisher.publishEvent(new VacancyChangedEvent(vacancy.getId(), user.getId()));
         } else {
             throw new RuntimeException("Ошибка при парсинге вакансии: " + response.getStatusCode());
         }
     }
 
     public VacancyDto generateAndSaveVacancy(VacancyGenRequest request, User user) {
-        RestTemplate restTemplate = new RestTemplate();
-        String url = "http://127.0.0.1:8000/parse/generate";
+        String url = downstreams.url(Downstream.LLM, "/parse/generate");
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         // Формируем тело запроса для AI
@@ -294,6 +422,7 @@ public class VacancyService {
             vacancy.setSalaryTo(((Number) vacancyMap.get("salaryTo")).intValue());
         }
         vacancyRepository.save(vacancy);
+        eventPublisher.publishEvent(new VacancyChangedEvent(vacancy.getId(), user.getId()));
         return convertToDto(vacancy);
     }
 
@@ -304,6 +433,7 @@ public class VacancyService {
             dto.setId(v.getId());
             dto.setRequiredRole(v.getTitle());
             dto.setRequiredExperienceYears(v.getExperience());
+            dto.setSkills(v.getSkills());
             return dto;
         }).toList();
     }
@@ -0,0 +1,49 @@
+package com.vacancy.similarity;
+
+import java.util.Map;
+
+/**
+ * Плотный вектор фиксированной размерности по частотам терминов (feature hashing со знаком).
+ * Не зависит от словаря и статистики корпуса, поэтому векторы в файле HNSW остаются валидными
+ * после перезапуска: {@link String#hashCode()} одинаков во всех JVM.
+ */
+public final class HashedEmbedding {
+
+    private HashedEmbedding() {
+    }
+
+    /**
+     * @param counts     частоты терминов документа
+     * @param dimensions размерность вектора
+     * @return L2-нормированный вектор или null, если у документа нет терминов
+     */
+    public static float[] embed(Map<String, Integer> counts, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            int hash = mix(e.getKey().hashCode());
+            float sign = (mix(hash ^ 0x5bd1e995) & 1) == 0 ? 1 : -1;
+            vector[Math.floorMod(hash, dimensions)] += sign * (1 + (float) Math.log(e.getValue()));
+        }
+        double norm = 0;
+        for (float x : vector) {
+            norm += (double) x * x;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] *= inv;
+        }
+        return vector;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,614 @@
+package com.vacancy.similarity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Граф HNSW (Malkov, Yashunin) для приближенного поиска ближайших соседей по косинусному сходству
+ * нормированных векторов. Граф целиком лежит в файле, отображенном в память: после перезапуска он
+ * открывается без перестроения, в куче остается только соответствие ID записи и слота.
+ * <p>
+ * Формат (little-endian): заголовок 64 байта, затем записи фиксированного размера - ID, уровень, признак удаления,
+ * вектор и списки соседей для уровней 0..maxLevel (на уровне 0 до 2M соседей, выше - до M).
+ * Удаление помечает запись: она продолжает работать как транзитный узел, но не попадает в результат.
+ * Обновление - удаление и вставка. Когда удаленных становится много, граф перестраивается ({@link #compact()}).
+ * <p>
+ * Прежнее отображение при росте файла, перестроении и закрытии освобождается сразу, не дожидаясь сборки мусора:
+ * иначе старые страницы и дескриптор замененного файла живут до GC. Все обращения к отображению идут под
+ * блокировкой графа, поэтому освобожденный буфер больше никто не читает. Закрытый граф отвечает
+ * {@link IllegalStateException}.
+ */
+public final class HnswGraph implements Closeable {
+    private static final int MAGIC = 0x484E5357;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_DIMENSIONS = 8;
+    private static final int H_M = 12;
+    private static final int H_MAX_LEVEL = 16;
+    private static final int H_COUNT = 20;
+    private static final int H_ENTRY = 24;
+    private static final int H_TOP_LEVEL = 28;
+    private static final int H_DELETED = 32;
+    private static final int R_ID = 0;
+    private static final int R_LEVEL = 8;
+    private static final int R_DELETED = 12;
+    private static final int R_VECTOR = 16;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final Path file;
+    private final int dimensions;
+    private final int m;
+    private final int maxLevel;
+    private final int efConstruction;
+    private final int[] levelOffset;
+    private final int recordSize;
+    private final double levelMultiplier;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private boolean closed;
+
+    /**
+     * Результат поиска.
+     */
+    public record Neighbor(long id, float score) {
+    }
+
+    private record Candidate(int slot, float score) {
+    }
+
+    private static final Comparator<Candidate> CLOSEST_FIRST =
+            Comparator.comparingDouble(Candidate::score).reversed();
+    private static final Comparator<Candidate> FARTHEST_FIRST =
+            Comparator.comparingDouble(Candidate::score);
+
+    private HnswGraph(Path file, int dimensions, int m, int maxLevel, int efConstruction) {
+        this.file = file;
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxLevel = maxLevel;
+        this.efConstruction = efConstruction;
+        this.levelOffset = new int[maxLevel + 2];
+        int offset = R_VECTOR + 4 * dimensions;
+        for (int level = 0; level <= maxLevel; level++) {
+            levelOffset[level] = offset;
+            offset += 4 + 4 * levelCapacity(level);
+        }
+        levelOffset[maxLevel + 1] = offset;
+        this.recordSize = (offset + 7) & ~7;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * Открывает граф из файла или создает пустой.
+     *
+     * @throws IOException           при ошибке чтения файла
+     * @throws IllegalStateException если файл создан с другими параметрами
+     */
+    public static HnswGraph open(Path file, int dimensions, int m, int maxLevel, int efConstruction) throws IOException {
+        HnswGraph graph = new HnswGraph(file, dimensions, m, maxLevel, efConstruction);
+        graph.map();
+        return graph;
+    }
+
+    private void map() throws IOException {
+        Files.createDirectories(file.getParent());
+        boolean fresh = !Files.exists(file) || Files.size(file) < HEADER_SIZE;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        capacity = fresh ? INITIAL_CAPACITY : Math.max(INITIAL_CAPACITY, (int) ((channel.size() - HEADER_SIZE) / recordSize));
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) recordSize * capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (fresh) {
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_FORMAT, FORMAT);
+            buffer.putInt(H_DIMENSIONS, dimensions);
+            buffer.putInt(H_M, m);
+            buffer.putInt(H_MAX_LEVEL, maxLevel);
+            buffer.putInt(H_COUNT, 0);
+            buffer.putInt(H_ENTRY, -1);
+            buffer.putInt(H_TOP_LEVEL, -1);
+            buffer.putInt(H_DELETED, 0);
+            return;
+        }
+        if (buffer.getInt(H_MAGIC) != MAGIC || buffer.getInt(H_FORMAT) != FORMAT
+                || buffer.getInt(H_DIMENSIONS) != dimensions || buffer.getInt(H_M) != m
+                || buffer.getInt(H_MAX_LEVEL) != maxLevel) {
+            channel.close();
+            throw new IllegalStateException("Файл HNSW создан с другими параметрами: " + file);
+        }
+        int count = count();
+        for (int slot = 0; slot < count; slot++) {
+            if (!isDeleted(slot)) {
+                slots.put(id(slot), slot);
+            }
+        }
+    }
+
+    /**
+     * Добавляет вектор или заменяет вектор записи с тем же ID.
+     *
+     * @param id     ID записи
+     * @param vector нормированный вектор длины {@code dimensions}
+     */
+    public void put(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Ожидается вектор длины " + dimensions);
+        }
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            Integer previous = slots.remove(id);
+            if (previous != null) {
+                markDeleted(previous);
+            }
+            slots.put(id, insert(id, vector));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Помечает запись удаленной.
+     *
+     * @return true, если запись была в графе
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            markDeleted(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<float[]> vector(long id) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            Integer slot = slots.get(id);
+            return slot == null ? Optional.empty() : Optional.of(readVector(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Закрыт ли граф, в том числе после неудачного {@link #compact()}.
+     */
+    public boolean isClosed() {
+        lock.readLock().lock();
+        try {
+            return closed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Доля удаленных записей среди всех слотов файла.
+     */
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int count = count();
+            return count == 0 ? 0 : (double) buffer.getInt(H_DELETED) / count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приближенный поиск K ближайших записей.
+     *
+     * @param query нормированный вектор запроса
+     * @param k     число результатов
+     * @param ef    размер списка кандидатов на нижнем уровне; больше - выше полнота и медленнее
+     * @return записи по убыванию сходства
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int entry = buffer.getInt(H_ENTRY);
+            if (entry < 0 || k <= 0) {
+                return List.of();
+            }
+            Candidate nearest = new Candidate(entry, similarity(query, entry));
+            for (int level = buffer.getInt(H_TOP_LEVEL); level > 0; level--) {
+                nearest = greedy(query, nearest, level);
+            }
+            PriorityQueue<Candidate> found = searchLayer(query, nearest, Math.max(ef, k), 0);
+            List<Candidate> live = new ArrayList<>(found.size());
+            for (Candidate c : found) {
+                if (!isDeleted(c.slot())) {
+                    live.add(c);
+                }
+            }
+            live.sort(CLOSEST_FIRST);
+            return live.stream().limit(k).map(c -> new Neighbor(id(c.slot()), c.score())).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Перестраивает граф только из живых записей во временный файл и атомарно подменяет им текущий.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            Files.deleteIfExists(tmp);
+            try (HnswGraph fresh = open(tmp, dimensions, m, maxLevel, efConstruction)) {
+                int count = count();
+                for (int slot = 0; slot < count; slot++) {
+                    if (!isDeleted(slot)) {
+                        fresh.put(id(slot), readVector(slot));
+                    }
+                }
+            }
+            buffer.force();
+            channel.close();
+            unmap(buffer);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                slots.clear();
+                map();
+            } catch (IOException | RuntimeException e) {
+                // старое отображение уже освобождено: граф без файла больше не обслуживает запросы,
+                // владелец убирает его из каталога (HnswStore#evict) и заполняет заново
+                closed = true;
+                throw e;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает измененные страницы на диск.
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            if (!closed) {
+                buffer.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.force();
+            channel.close();
+            unmap(buffer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Граф HNSW закрыт: " + file);
+        }
+    }
+
+    private int insert(long id, float[] vector) {
+        int slot = count();
+        ensureCapacity(slot + 1);
+        int level = (int) Math.min(maxLevel, Math.floor(-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * levelMultiplier));
+        int base = offset(slot);
+        buffer.putLong(base + R_ID, id);
+        buffer.putInt(base + R_LEVEL, level);
+        buffer.putInt(base + R_DELETED, 0);
+        for (int i = 0; i < dimensions; i++) {
+            buffer.putFloat(base + R_VECTOR + 4 * i, vector[i]);
+        }
+        for (int l = 0; l <= maxLevel; l++) {
+            buffer.putInt(base + levelOffset[l], 0);
+        }
+
+        int entry = buffer.getInt(H_ENTRY);
+        int topLevel = buffer.getInt(H_TOP_LEVEL);
+        if (entry >= 0) {
+            Candidate nearest = new Candidate(entry, similarity(vector, entry));
+            for (int l = topLevel; l > level; l--) {
+                nearest = greedy(vector, nearest, l);
+            }
+            for (int l = Math.min(level, topLevel); l >= 0; l--) {
+                PriorityQueue<Candidate> found = searchLayer(vector, nearest, efConstruction, l);
+                List<Candidate> candidates = new ArrayList<>(found);
+                candidates.sort(CLOSEST_FIRST);
+                nearest = candidates.get(0);
+                List<Candidate> selected = selectNeighbors(candidates, m);
+                writeNeighbors(slot, l, selected);
+                for (Candidate neighbor : selected) {
+                    link(neighbor.slot(), slot, neighbor.score(), l);
+                }
+            }
+        }
+        buffer.putInt(H_COUNT, slot + 1);
+        if (entry < 0 || level > topLevel) {
+            buffer.putInt(H_ENTRY, slot);
+            buffer.putInt(H_TOP_LEVEL, level);
+        }
+        return slot;
+    }
+
+    /**
+     * Добавляет обратную ссылку; при переполнении список соседей узла заново прореживается эвристикой.
+     */
+    private void link(int from, int to, float score, int level) {
+        int base = offset(from) + levelOffset[level];
+        int size = buffer.getInt(base);
+        int limit = levelCapacity(level);
+        if (size < limit) {
+            buffer.putInt(base + 4 + 4 * size, to);
+            buffer.putInt(base, size + 1);
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            int neighbor = buffer.getInt(base + 4 + 4 * i);
+            candidates.add(new Candidate(neighbor, similarity(from, neighbor)));
+        }
+        candidates.add(new Candidate(to, score));
+        candidates.sort(CLOSEST_FIRST);
+        writeNeighbors(from, level, selectNeighbors(candidates, limit));
+    }
+
+    /**
+     * Эвристика выбора соседей: кандидат берется, если он ближе к узлу, чем к любому уже выбранному соседу,
+     * что сохраняет связи в разных направлениях. Остаток добирается ближайшими отброшенными.
+     *
+     * @param candidates кандидаты по убыванию сходства с узлом
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> candidates, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (similarity(candidate.slot(), chosen.slot()) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : pruned).add(candidate);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void writeNeighbors(int slot, int level, List<Candidate> neighbors) {
+        int base = offset(slot) + levelOffset[level];
+        buffer.putInt(base, neighbors.size());
+        for (int i = 0; i < neighbors.size(); i++) {
+            buffer.putInt(base + 4 + 4 * i, neighbors.get(i).slot());
+        }
+    }
+
+    private Candidate greedy(float[] query, Candidate start, int level) {
+        Candidate best = start;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int base = offset(best.slot()) + levelOffset[level];
+            int size = buffer.getInt(base);
+            for (int i = 0; i < size; i++) {
+                int neighbor = buffer.getInt(base + 4 + 4 * i);
+                float score = similarity(query, neighbor);
+                if (score > best.score()) {
+                    best = new Candidate(neighbor, score);
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Поиск по одному уровню: жадное расширение от точки входа с ограничением ef на размер результата.
+     *
+     * @return до ef найденных узлов, в вершине кучи - самый далекий
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, Candidate entry, int ef, int level) {
+        BitSet visited = new BitSet(count());
+        visited.set(entry.slot());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FARTHEST_FIRST);
+        candidates.add(entry);
+        results.add(entry);
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+            int base = offset(current.slot()) + levelOffset[level];
+            int size = buffer.getInt(base);
+            for (int i = 0; i < size; i++) {
+                int neighbor = buffer.getInt(base + 4 + 4 * i);
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float score = similarity(query, neighbor);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(neighbor, score);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private float similarity(float[] query, int slot) {
+        int base = offset(slot) + R_VECTOR;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * buffer.getFloat(base + 4 * i);
+        }
+        return sum;
+    }
+
+    private float similarity(int a, int b) {
+        int baseA = offset(a) + R_VECTOR;
+        int baseB = offset(b) + R_VECTOR;
+        float sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += buffer.getFloat(baseA + 4 * i) * buffer.getFloat(baseB + 4 * i);
+        }
+        return sum;
+    }
+
+    private float[] readVector(int slot) {
+        int base = offset(slot) + R_VECTOR;
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = buffer.getFloat(base + 4 * i);
+        }
+        return vector;
+    }
+
+    private void markDeleted(int slot) {
+        buffer.putInt(offset(slot) + R_DELETED, 1);
+        buffer.putInt(H_DELETED, buffer.getInt(H_DELETED) + 1);
+    }
+
+    private boolean isDeleted(int slot) {
+        return buffer.getInt(offset(slot) + R_DELETED) != 0;
+    }
+
+    private long id(int slot) {
+        return buffer.getLong(offset(slot) + R_ID);
+    }
+
+    private int count() {
+        return buffer.getInt(H_COUNT);
+    }
+
+    private int offset(int slot) {
+        return HEADER_SIZE + slot * recordSize;
+    }
+
+    private int levelCapacity(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    /**
+     * Увеличивает файл вдвое; одно отображение ограничено 2 ГБ.
+     */
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+        int next = Math.max(required, capacity * 2);
+        long size = HEADER_SIZE + (long) recordSize * next;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Граф HNSW превысил 2 ГБ: " + file);
+        }
+        try {
+            buffer.force();
+            MappedByteBuffer previous = buffer;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            capacity = next;
+            unmap(previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Освобождает отображение сразу. Вызывается под блокировкой записи, когда буфер больше не используется.
+     */
+    private static void unmap(MappedByteBuffer mapped) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) mapped);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось освободить отображение файла HNSW", e);
+        }
+    }
+
+    /**
+     * {@code sun.misc.Unsafe#invokeCleaner} из модуля jdk.unsupported; без него отображение освободит GC.
+     */
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
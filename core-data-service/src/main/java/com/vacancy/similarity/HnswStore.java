@@ -0,0 +1,199 @@
+package com.vacancy.similarity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Каталог графов HNSW: отдельный файл {@code <corpus>/<userId>.hnsw} на корпус и владельца,
+ * поиск всегда идет в пределах данных одного пользователя. Файл {@code <corpus>/index.properties}
+ * фиксирует параметры, меняющие формат файла, и признак завершенного первичного построения;
+ * при несовпадении корпус считается пустым и строится заново. Файл {@code <corpus>/sync.properties} хранит
+ * момент, до которого в графы перенесены изменения из Postgres.
+ */
+public final class HnswStore implements Closeable {
+    private static final String MARKER = "index.properties";
+    private static final String SYNC = "sync.properties";
+
+    private final Path directory;
+    private final Params params;
+    private final Map<String, HnswGraph> graphs = new ConcurrentHashMap<>();
+
+    /**
+     * Параметры графов.
+     *
+     * @param dimensions     размерность векторов
+     * @param m              число связей узла (на нижнем уровне - 2M)
+     * @param maxLevel       максимальный уровень графа
+     * @param efConstruction размер списка кандидатов при вставке
+     */
+    public record Params(int dimensions, int m, int maxLevel, int efConstruction) {
+    }
+
+    public HnswStore(Path directory, Params params) {
+        this.directory = directory;
+        this.params = params;
+    }
+
+    public Params params() {
+        return params;
+    }
+
+    /**
+     * Построен ли корпус целиком с текущими параметрами.
+     */
+    public boolean isComplete(String corpus) {
+        Path marker = directory.resolve(corpus).resolve(MARKER);
+        if (!Files.exists(marker)) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(marker)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return false;
+        }
+        return toProperties().equals(properties);
+    }
+
+    public void markComplete(String corpus) throws IOException {
+        flush();
+        try (OutputStream out = Files.newOutputStream(directory.resolve(corpus).resolve(MARKER))) {
+            toProperties().store(out, "HNSW");
+        }
+    }
+
+    /**
+     * Момент, до которого изменения записей корпуса перенесены в графы.
+     *
+     * @return пусто, если корпус еще не синхронизировался
+     */
+    public Optional<Instant> syncedAt(String corpus) {
+        Path sync = directory.resolve(corpus).resolve(SYNC);
+        if (!Files.exists(sync)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(sync)) {
+            properties.load(in);
+            return Optional.ofNullable(properties.getProperty("syncedAt")).map(Instant::parse);
+        } catch (IOException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Сбрасывает графы на диск и запоминает момент синхронизации корпуса.
+     */
+    public void markSynced(String corpus, Instant syncedAt) throws IOException {
+        flush();
+        Properties properties = new Properties();
+        properties.setProperty("syncedAt", syncedAt.toString());
+        Path sync = directory.resolve(corpus).resolve(SYNC);
+        Path tmp = sync.resolveSibling(SYNC + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            properties.store(out, "HNSW");
+        }
+        Files.move(tmp, sync, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Закрывает и удаляет все графы корпуса перед первичным построением.
+     */
+    public void reset(String corpus) throws IOException {
+        String prefix = corpus + "/";
+        for (String key : graphs.keySet()) {
+            if (key.startsWith(prefix)) {
+                graphs.remove(key).close();
+            }
+        }
+        Path root = directory.resolve(corpus);
+        if (Files.exists(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Убирает граф пользователя из каталога и удаляет его файл, например после неудачного
+     * {@link HnswGraph#compact()}. Следующее обращение создаст пустой граф.
+     *
+     * @param graph граф, который нужно убрать; если в каталоге уже другой экземпляр, каталог не меняется
+     */
+    public void evict(String corpus, long userId, HnswGraph graph) throws IOException {
+        if (!graphs.remove(corpus + "/" + userId, graph)) {
+            return;
+        }
+        graph.close();
+        Path file = file(corpus, userId);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".compact"));
+    }
+
+    /**
+     * Граф пользователя, при отсутствии файла создается пустой.
+     */
+    public HnswGraph graph(String corpus, long userId) {
+        return graphs.computeIfAbsent(corpus + "/" + userId, key -> {
+            try {
+                return HnswGraph.open(file(corpus, userId), params.dimensions(), params.m(),
+                        params.maxLevel(), params.efConstruction());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Граф пользователя, если он уже есть в памяти или на диске.
+     */
+    public Optional<HnswGraph> existing(String corpus, long userId) {
+        HnswGraph graph = graphs.get(corpus + "/" + userId);
+        if (graph != null) {
+            return Optional.of(graph);
+        }
+        return Files.exists(file(corpus, userId)) ? Optional.of(graph(corpus, userId)) : Optional.empty();
+    }
+
+    public void flush() {
+        graphs.values().forEach(HnswGraph::flush);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (HnswGraph graph : graphs.values()) {
+            graph.close();
+        }
+        graphs.clear();
+    }
+
+    private Path file(String corpus, long userId) {
+        return directory.resolve(corpus).resolve(userId + ".hnsw");
+    }
+
+    private Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("dimensions", Integer.toString(params.dimensions()));
+        properties.setProperty("m", Integer.toString(params.m()));
+        properties.setProperty("maxLevel", Integer.toString(params.maxLevel()));
+        properties.setProperty("complete", "true");
+        return properties;
+    }
+}
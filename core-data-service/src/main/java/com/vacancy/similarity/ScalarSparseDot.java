@@ -0,0 +1,18 @@
+package com.vacancy.similarity;
+
+final class ScalarSparseDot implements SparseDot {
+
+    @Override
+    public float dot(float[] dense, int[] terms, float[] weights) {
+        float sum = 0;
+        for (int i = 0; i < terms.length; i++) {
+            sum += dense[terms[i]] * weights[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String description() {
+        return "скалярный цикл";
+    }
+}
@@ -0,0 +1,36 @@
+package com.vacancy.similarity;
+
+/**
+ * Скалярное произведение разреженного вектора документа на плотный вектор запроса.
+ */
+interface SparseDot {
+
+    /**
+     * @param dense   плотный вектор запроса, индексы - ID терминов
+     * @param terms   ID терминов документа
+     * @param weights веса терминов документа
+     * @return сумма {@code dense[terms[i]] * weights[i]}
+     */
+    float dot(float[] dense, int[] terms, float[] weights);
+
+    /**
+     * @return реализация для журнала: Vector API с шириной вектора или скалярный цикл
+     */
+    String description();
+
+    /**
+     * Реализация на Vector API, если модуль {@code jdk.incubator.vector} подключен при запуске,
+     * иначе скалярная.
+     */
+    static SparseDot best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (SparseDot) Class.forName("com.vacancy.similarity.VectorSparseDot")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarSparseDot();
+            }
+        }
+        return new ScalarSparseDot();
+    }
+}
@@ -0,0 +1,269 @@
+package com.vacancy.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Корпус документов в виде разреженных TF-IDF векторов над общим {@link Vocabulary}.
+ * Документ хранится в примитивных массивах: ID терминов, сглаженные частоты {@code 1 + ln(tf)} и их квадраты.
+ * IDF в весах не хранится: числитель и норма документа считаются по текущему IDF двумя разреженными
+ * произведениями, поэтому косинус точен при любом порядке индексации.
+ * Документы сгруппированы по владельцу: поиск идет только среди документов одного пользователя.
+ */
+public final class TfIdfCorpus {
+    private static final SparseDot SPARSE_DOT = SparseDot.best();
+    /**
+     * Плотный вектор запроса на поток: после поиска обнуляются только записанные термины,
+     * поэтому запрос не выделяет массив размером со словарь.
+     */
+    private static final ThreadLocal<float[]> QUERY_BUFFER = ThreadLocal.withInitial(() -> new float[0]);
+
+    private final Vocabulary vocabulary;
+    private final SparseDot sparseDot;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> documents = new HashMap<>();
+    private final Map<Long, Map<Long, Entry>> byUser = new HashMap<>();
+    private int[] documentFrequency = new int[1024];
+    private volatile float[] idfSquared;
+
+    public TfIdfCorpus(Vocabulary vocabulary) {
+        this.vocabulary = vocabulary;
+        this.sparseDot = SPARSE_DOT;
+    }
+
+    /**
+     * @return какой реализацией считаются скалярные произведения (Vector API или скалярный цикл)
+     */
+    public static String dotImplementation() {
+        return SPARSE_DOT.description();
+    }
+
+    /**
+     * Документ корпуса.
+     *
+     * @param id     ID записи
+     * @param userId владелец записи
+     * @param label  подпись для ответа (название вакансии, имя кандидата)
+     * @param terms  ID терминов
+     * @param tf     сглаженные частоты терминов
+     */
+    public record Document(long id, long userId, String label, int[] terms, float[] tf) {
+    }
+
+    /**
+     * Результат поиска.
+     */
+    public record Hit(long id, String label, float score) {
+    }
+
+    private record Entry(Document document, float[] tfSquared) {
+    }
+
+    /**
+     * Собирает документ из частот терминов, регистрируя новые термины в словаре.
+     */
+    public Document document(long id, long userId, String label, Map<String, Integer> counts) {
+        int[] terms = new int[counts.size()];
+        float[] tf = new float[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            terms[i] = vocabulary.id(e.getKey());
+            tf[i] = 1 + (float) Math.log(e.getValue());
+            i++;
+        }
+        return new Document(id, userId, label, terms, tf);
+    }
+
+    /**
+     * Добавляет документ или заменяет предыдущую версию с тем же ID.
+     */
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            ensureCapacity(vocabulary.size());
+            for (int term : document.terms()) {
+                documentFrequency[term]++;
+            }
+            float[] tfSquared = new float[document.tf().length];
+            for (int i = 0; i < tfSquared.length; i++) {
+                tfSquared[i] = document.tf()[i] * document.tf()[i];
+            }
+            idfSquared = null;
+            Entry entry = new Entry(document, tfSquared);
+            documents.put(document.id(), entry);
+            byUser.computeIfAbsent(document.userId(), u -> new HashMap<>()).put(document.id(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Document> find(long id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(documents.get(id)).map(Entry::document);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Находит K документов пользователя с наибольшим косинусным сходством с запросом.
+     * Запрос разворачивается в плотный вектор {@code tf * idf^2} (буфер потока); оценка документа - два разреженных
+     * скалярных произведения (числитель и квадрат нормы документа). Отбор - через min-кучу размера K.
+     *
+     * @param query  документ-запрос, обычно из другого корпуса
+     * @param userId владелец документов, среди которых идет поиск
+     * @param k      число результатов
+     * @return результаты по убыванию сходства, документы с нулевым сходством не возвращаются
+     */
+    public List<Hit> topK(Document query, long userId, int k) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Entry> candidates = byUser.getOrDefault(userId, Map.of());
+            if (k <= 0 || candidates.isEmpty()) {
+                return List.of();
+            }
+            float[] dense = queryBuffer(vocabulary.size());
+            try {
+                return topK(query, candidates, k, dense);
+            } finally {
+                for (int term : query.terms()) {
+                    if (term < dense.length) {
+                        dense[term] = 0;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Hit> topK(Document query, Map<Long, Entry> candidates, int k, float[] dense) {
+        int n = documents.size();
+        double norm = 0;
+        for (int i = 0; i < query.terms().length; i++) {
+            int term = query.terms()[i];
+            if (term >= documentFrequency.length || documentFrequency[term] == 0) {
+                continue;
+            }
+            float idf = idf(term, n);
+            float weight = query.tf()[i] * idf;
+            norm += (double) weight * weight;
+            dense[term] = weight * idf;
+        }
+        if (norm == 0) {
+            return List.of();
+        }
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, order);
+        float[] idf2 = idfSquared(n);
+        for (Entry entry : candidates.values()) {
+            float dot = sparseDot.dot(dense, entry.document().terms(), entry.document().tf());
+            if (dot <= 0) {
+                continue;
+            }
+            float score = dot / (float) Math.sqrt(sparseDot.dot(idf2, entry.document().terms(), entry.tfSquared()));
+            if (heap.size() < k) {
+                heap.add(new Hit(entry.document().id(), entry.document().label(), score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Hit(entry.document().id(), entry.document().label(), score));
+            }
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        List<Hit> result = new ArrayList<>(heap.size());
+        heap.forEach(h -> result.add(new Hit(h.id(), h.label(), h.score() * inv)));
+        result.sort(order.reversed());
+        return result;
+    }
+
+    private static float[] queryBuffer(int size) {
+        float[] buffer = QUERY_BUFFER.get();
+        if (buffer.length < size) {
+            buffer = new float[Math.max(size, buffer.length * 2)];
+            QUERY_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    private void removeLocked(long id) {
+        Entry previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        idfSquared = null;
+        for (int term : previous.document().terms()) {
+            documentFrequency[term]--;
+        }
+        Map<Long, Entry> userDocuments = byUser.get(previous.document().userId());
+        if (userDocuments != null) {
+            userDocuments.remove(id);
+            if (userDocuments.isEmpty()) {
+                byUser.remove(previous.document().userId());
+            }
+        }
+    }
+
+    /**
+     * Плотный вектор {@code idf^2} по всему словарю. Строится лениво и сбрасывается при изменении корпуса;
+     * вызывается под блокировкой чтения, поэтому корпус во время построения не меняется.
+     */
+    private float[] idfSquared(int n) {
+        float[] cached = idfSquared;
+        if (cached != null && cached.length >= vocabulary.size()) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = idfSquared;
+            if (cached == null || cached.length < vocabulary.size()) {
+                cached = new float[vocabulary.size()];
+                int known = Math.min(cached.length, documentFrequency.length);
+                for (int term = 0; term < known; term++) {
+                    if (documentFrequency[term] > 0) {
+                        float idf = idf(term, n);
+                        cached[term] = idf * idf;
+                    }
+                }
+                idfSquared = cached;
+            }
+            return cached;
+        }
+    }
+
+    private float idf(int term, int n) {
+        return (float) Math.log((double) (n + 1) / (documentFrequency[term] + 1)) + 1;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > documentFrequency.length) {
+            documentFrequency = Arrays.copyOf(documentFrequency, Math.max(size, documentFrequency.length * 2));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vacancy.similarity;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Произведение через gather: значения запроса выбираются по ID терминов документа целым вектором
+ * и умножаются на веса документа с накоплением через FMA.
+ */
+final class VectorSparseDot implements SparseDot {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float dot(float[] dense, int[] terms, float[] weights) {
+        int i = 0;
+        int bound = SPECIES.loopBound(terms.length);
+        FloatVector acc = FloatVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector query = FloatVector.fromArray(SPECIES, dense, 0, terms, i);
+            acc = query.fma(FloatVector.fromArray(SPECIES, weights, i), acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < terms.length; i++) {
+            sum += dense[terms[i]] * weights[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String description() {
+        return "Vector API, " + SPECIES.length() + " x float";
+    }
+}
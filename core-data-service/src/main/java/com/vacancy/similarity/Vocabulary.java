@@ -0,0 +1,25 @@
+package com.vacancy.similarity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий словарь терминов для корпусов резюме и вакансий: термин получает постоянный числовой ID,
+ * по которому адресуются массивы весов и плотный вектор запроса.
+ */
+public final class Vocabulary {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Возвращает ID термина, при первом появлении регистрирует его.
+     */
+    public int id(String term) {
+        return ids.computeIfAbsent(term, t -> next.getAndIncrement());
+    }
+
+    public int size() {
+        return next.get();
+    }
+}
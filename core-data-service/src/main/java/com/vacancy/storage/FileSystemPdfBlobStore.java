@@ -0,0 +1,138 @@
+package com.vacancy.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Хранилище PDF в файловой системе.
+ * Файл с хэшем {@code abcd...} лежит в {@code <root>/ab/cd/abcd....pdf}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "resume.pdf-storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemPdfBlobStore implements PdfBlobStore {
+    private final Path root;
+    private final Path tmpDir;
+
+    public FileSystemPdfBlobStore(@Value("${resume.pdf-storage.path:./data/resume-pdfs}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Хранилище PDF резюме: {}", this.root);
+    }
+
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".pdf");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                size = content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            moveIntoPlace(tmp, hash);
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public StoredBlob store(InputStream content, String sha256, long size) throws IOException {
+        Path target = resolve(sha256);
+        if (Files.exists(target)) {
+            log.debug("PDF {} уже есть в хранилище, дубликат не сохраняется", sha256);
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return new StoredBlob(sha256, size);
+        }
+        StoredBlob blob = store(content);
+        if (!blob.sha256().equals(sha256)) {
+            throw new IOException("SHA-256 сохраненного PDF " + blob.sha256() + " не совпадает с ожидаемым " + sha256);
+        }
+        return blob;
+    }
+
+    @Override
+    public Resource resource(String sha256) {
+        return new FileSystemResource(resolve(sha256));
+    }
+
+    @Override
+    public boolean exists(String sha256) {
+        return Files.exists(resolve(sha256));
+    }
+
+    @Override
+    public boolean delete(String sha256, Duration grace) throws IOException {
+        Path target = resolve(sha256);
+        if (!Files.exists(target)) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(target).toInstant().isAfter(Instant.now().minus(grace))) {
+            log.info("PDF {} сохранялся недавно, не удаляется", sha256);
+            return false;
+        }
+        return Files.deleteIfExists(target);
+    }
+
+    /**
+     * Переносит временный файл на место по хэшу. Если такой файл уже есть, новый не сохраняется.
+     */
+    private void moveIntoPlace(Path tmp, String hash) throws IOException {
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            log.debug("PDF {} уже есть в хранилище, дубликат не сохраняется", hash);
+            // отметка повторного сохранения защищает файл от удаления как неиспользуемого
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // временный каталог на другой файловой системе
+            Path staged = Files.copy(tmp, tmpDir.resolve(hash + ".staged"), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // параллельная загрузка того же файла успела раньше
+            log.debug("PDF {} сохранен параллельной загрузкой", hash);
+        }
+    }
+
+    private Path resolve(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Некорректный SHA-256: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256 + ".pdf");
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
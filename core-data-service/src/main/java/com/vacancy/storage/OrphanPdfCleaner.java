@@ -0,0 +1,47 @@
+package com.vacancy.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Удаляет из {@link PdfBlobStore} файлы, на которые после коммита не ссылается ни одно резюме.
+ * Одинаковые PDF хранятся один раз, поэтому файл удаляется только вместе с последней ссылкой.
+ * Файлы, сохраненные повторно в последние {@code resume.pdf-storage.orphan-grace}, остаются.
+ */
+@Slf4j
+@Component
+public class OrphanPdfCleaner {
+    private final JdbcTemplate jdbcTemplate;
+    private final PdfBlobStore pdfBlobStore;
+    private final Duration grace;
+
+    public OrphanPdfCleaner(JdbcTemplate jdbcTemplate,
+                            PdfBlobStore pdfBlobStore,
+                            @Value("${resume.pdf-storage.orphan-grace:10m}") Duration grace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pdfBlobStore = pdfBlobStore;
+        this.grace = grace;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPdfReleased(PdfReleasedEvent event) {
+        Boolean referenced = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM resumes WHERE pdf_sha256 = ?)", Boolean.class, event.sha256());
+        if (Boolean.TRUE.equals(referenced)) {
+            return;
+        }
+        try {
+            if (pdfBlobStore.delete(event.sha256(), grace)) {
+                log.info("PDF {} больше не используется и удален из хранилища", event.sha256());
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось удалить неиспользуемый PDF {}: {}", event.sha256(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.vacancy.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Контентно-адресуемое хранилище PDF резюме.
+ * Файлы адресуются SHA-256 содержимого, одинаковые загрузки хранятся один раз.
+ */
+public interface PdfBlobStore {
+
+    /**
+     * Сохраняет содержимое потока, вычисляя SHA-256 по ходу записи.
+     *
+     * @param content содержимое файла, поток не закрывается
+     * @return хэш и размер сохраненного файла
+     */
+    StoredBlob store(InputStream content) throws IOException;
+
+    /**
+     * Сохраняет содержимое с заранее посчитанным хэшем. Если файл с таким хэшем уже есть,
+     * поток не читается; иначе хэш сверяется по ходу записи.
+     *
+     * @param content содержимое файла, поток не закрывается
+     * @param sha256  SHA-256 содержимого (hex)
+     * @param size    размер содержимого в байтах
+     * @return хэш и размер сохраненного файла
+     * @throws IOException если содержимое не совпало с хэшем
+     */
+    StoredBlob store(InputStream content, String sha256, long size) throws IOException;
+
+    /**
+     * Файл для потоковой отдачи клиенту; Range и длину Spring MVC берет из ресурса.
+     *
+     * @param sha256 хэш содержимого
+     * @return ресурс файла; если файла нет, чтение завершится {@link java.io.FileNotFoundException}
+     */
+    Resource resource(String sha256);
+
+    boolean exists(String sha256);
+
+    /**
+     * Удаляет файл, на который больше не ссылается ни одно резюме. Файл, сохраненный повторно
+     * в последние {@code grace}, не удаляется: на него может сослаться еще не закоммиченная загрузка.
+     *
+     * @param sha256 хэш содержимого
+     * @param grace  сколько файл должен пролежать без повторного сохранения
+     * @return true, если файл удален
+     */
+    boolean delete(String sha256, Duration grace) throws IOException;
+}
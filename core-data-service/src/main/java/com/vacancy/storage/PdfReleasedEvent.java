@@ -0,0 +1,9 @@
+package com.vacancy.storage;
+
+/**
+ * Резюме перестало ссылаться на PDF: удалено или получило другой файл.
+ *
+ * @param sha256 хэш освобожденного файла
+ */
+public record PdfReleasedEvent(String sha256) {
+}
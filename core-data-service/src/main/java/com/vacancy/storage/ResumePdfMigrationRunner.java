@@ -0,0 +1,71 @@
+package com.vacancy.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Переносит PDF, оставшиеся в колонке {@code resumes.pdf_content}, в {@link PdfBlobStore}.
+ * Включается свойством {@code resume.pdf-storage.migrate-on-startup}. Обрабатывает строки пачками
+ * по одной и после переноса обнуляет {@code pdf_content}, поэтому безопасно перезапускается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResumePdfMigrationRunner implements ApplicationRunner {
+    private final JdbcTemplate jdbcTemplate;
+    private final PdfBlobStore pdfBlobStore;
+
+    @Value("${resume.pdf-storage.migrate-on-startup:false}")
+    private boolean enabled;
+
+    @Value("${resume.pdf-storage.migration-batch-size:100}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        log.info("Перенос PDF резюме из pdf_content в хранилище");
+        int migrated = 0;
+        List<Integer> ids;
+        do {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM resumes WHERE pdf_content IS NOT NULL ORDER BY id LIMIT ?",
+                    Integer.class, batchSize);
+            for (Integer id : ids) {
+                migrate(id);
+                migrated++;
+            }
+            log.info("Перенесено PDF резюме: {}", migrated);
+        } while (!ids.isEmpty());
+        log.info("Перенос PDF резюме завершен, всего {}", migrated);
+    }
+
+    private void migrate(Integer id) {
+        StoredBlob blob = jdbcTemplate.query("SELECT pdf_content FROM resumes WHERE id = ?", rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            try (InputStream content = rs.getBinaryStream(1)) {
+                return content != null ? pdfBlobStore.store(content) : null;
+            } catch (IOException e) {
+                throw new IllegalStateException("Ошибка переноса PDF резюме " + id, e);
+            }
+        }, id);
+        if (blob == null) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE resumes SET pdf_sha256 = ?, pdf_size = ?, pdf_content = NULL WHERE id = ?",
+                blob.sha256(), blob.size(), id);
+    }
+}
@@ -0,0 +1,17 @@
+package com.vacancy.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Загруженный файл, сброшенный во временный файл на диске, с посчитанным SHA-256.
+ * {@link #close()} удаляет временный файл.
+ */
+public record SpooledUpload(Path path, String sha256, long size, String originalFilename) implements AutoCloseable {
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
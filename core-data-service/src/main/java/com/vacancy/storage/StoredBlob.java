@@ -0,0 +1,7 @@
+package com.vacancy.storage;
+
+/**
+ * Сохраненный в хранилище файл: SHA-256 содержимого (hex) и размер в байтах.
+ */
+public record StoredBlob(String sha256, long size) {
+}
@@ -0,0 +1,92 @@
+package com.vacancy.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Готовит загружаемые файлы к фоновой обработке: временный файл на диске и его SHA-256.
+ * Multipart-файл, который контейнер уже записал на диск, переносится в каталог загрузок без копирования;
+ * поток (запись ZIP-архива) сбрасывается одним проходом с подсчетом хэша.
+ * В памяти на одну загрузку держится только буфер фиксированного размера.
+ */
+@Slf4j
+@Component
+public class UploadSpooler {
+    private final Path spoolDir;
+    private final int bufferSize;
+    private final long maxFileSize;
+
+    public UploadSpooler(@Value("${resume.upload.spool-dir:${resume.pdf-storage.path:./data/resume-pdfs}/tmp}") String spoolDir,
+                         @Value("${resume.upload.buffer-size:64KB}") DataSize bufferSize,
+                         @Value("${resume.upload.max-file-size:20MB}") DataSize maxFileSize) throws IOException {
+        this.spoolDir = Paths.get(spoolDir).toAbsolutePath();
+        this.bufferSize = Math.toIntExact(bufferSize.toBytes());
+        this.maxFileSize = maxFileSize.toBytes();
+        Files.createDirectories(this.spoolDir);
+    }
+
+    public SpooledUpload spool(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Пустой файл резюме");
+        }
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException("Файл резюме больше " + DataSize.ofBytes(maxFileSize).toMegabytes() + " МБ");
+        }
+        Path tmp = Files.createTempFile(spoolDir, "spool-", ".pdf");
+        try {
+            // transferTo(File) переименовывает временный файл контейнера (spring.servlet.multipart.location
+            // в том же каталоге), а transferTo(Path) копировал бы его
+            file.transferTo(tmp.toFile());
+            MessageDigest digest = FileSystemPdfBlobStore.sha256();
+            long size = 0;
+            byte[] buffer = new byte[bufferSize];
+            try (InputStream content = Files.newInputStream(tmp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            return new SpooledUpload(tmp, HexFormat.of().formatHex(digest.digest()), size, file.getOriginalFilename());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    public SpooledUpload spool(InputStream content, String originalFilename) throws IOException {
+        Path tmp = Files.createTempFile(spoolDir, "spool-", ".pdf");
+        try {
+            MessageDigest digest = FileSystemPdfBlobStore.sha256();
+            long size = 0;
+            byte[] buffer = new byte[bufferSize];
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize) {
+                        throw new IllegalArgumentException("Файл резюме больше " + DataSize.ofBytes(maxFileSize).toMegabytes() + " МБ");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new SpooledUpload(tmp, HexFormat.of().formatHex(digest.digest()), size, originalFilename);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vacancy.utils;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Версии сущностей в HTTP: ETag вида {@code "3"} и проверка заголовка If-Match.
+ */
+public final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    /**
+     * @param version версия сущности
+     * @return значение заголовка ETag
+     */
+    public static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Разбирает If-Match: {@code "3"}, {@code W/"3"} или просто {@code 3}.
+     *
+     * @param ifMatch значение заголовка, может быть null
+     * @return ожидаемая версия или null, если проверка не нужна (нет заголовка или {@code *})
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный If-Match: " + ifMatch, e);
+        }
+    }
+
+    /**
+     * Проверяет, что клиент правит ту же версию, которую прочитал.
+     *
+     * @param entityClass класс сущности
+     * @param id          ID сущности
+     * @param actual      текущая версия в БД
+     * @param expected    версия из If-Match, null - без проверки
+     * @throws ObjectOptimisticLockingFailureException если версии не совпадают
+     */
+    public static void check(Class<?> entityClass, Object id, Long actual, Long expected) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new ObjectOptimisticLockingFailureException(entityClass, id);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.vacancy.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий кодек для jsonb-полей (навыки, образование, опыт работы, результаты сопоставления).
+ * Один {@link ObjectMapper} на приложение и заранее построенные {@link ObjectReader}/{@link ObjectWriter}
+ * под конкретные типы: на каждый вызов не создается ни маппер, ни {@link TypeReference}.
+ * Статический, так как используется и из JPA-конвертеров, которые создает Hibernate, а не Spring.
+ */
+public final class JsonbCodec {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectWriter STRING_LIST_WRITER = MAPPER.writerFor(new TypeReference<List<String>>() {
+    });
+    private static final ObjectReader STRING_LIST_READER = MAPPER.readerFor(new TypeReference<List<String>>() {
+    });
+    private static final ObjectReader OBJECT_LIST_READER = MAPPER.readerFor(new TypeReference<List<Map<String, Object>>>() {
+    });
+    private static final ObjectReader RAW_LIST_READER = MAPPER.readerFor(List.class);
+    private static final Map<Class<?>, ObjectReader> LIST_READERS = new ConcurrentHashMap<>();
+
+    private JsonbCodec() {
+    }
+
+    /**
+     * Сериализует значение в JSON.
+     *
+     * @param value значение, может быть null
+     * @return JSON или null, если значение null
+     * @throws IllegalArgumentException если значение не сериализуется
+     */
+    public static String write(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return WRITER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ошибка сериализации в JSON", e);
+        }
+    }
+
+    /**
+     * Сериализует список строк в JSON.
+     *
+     * @param values список, может быть null
+     * @return JSON-массив или null
+     */
+    public static String writeStrings(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return STRING_LIST_WRITER.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ошибка сериализации в JSON", e);
+        }
+    }
+
+    /**
+     * Читает JSON-массив строк (навыки, плюсы/минусы, уточняющие вопросы).
+     *
+     * @param json JSON, может быть null
+     * @return список или null
+     */
+    public static List<String> readStrings(String json) {
+        return read(STRING_LIST_READER, json);
+    }
+
+    /**
+     * Читает JSON-массив объектов без фиксированной схемы (образование, опыт работы).
+     *
+     * @param json JSON, может быть null
+     * @return список или null
+     */
+    public static List<Map<String, Object>> readObjects(String json) {
+        return read(OBJECT_LIST_READER, json);
+    }
+
+    /**
+     * Читает JSON-массив без указания типа элементов.
+     *
+     * @param json JSON, может быть null
+     * @return список или null
+     */
+    public static List<?> readList(String json) {
+        return read(RAW_LIST_READER, json);
+    }
+
+    /**
+     * Читает JSON-массив в список элементов заданного класса. Reader под класс строится один раз.
+     *
+     * @param json        JSON, может быть null
+     * @param elementType класс элемента
+     * @return список или null
+     */
+    public static <T> List<T> readList(String json, Class<T> elementType) {
+        ObjectReader reader = LIST_READERS.computeIfAbsent(elementType,
+                type -> MAPPER.readerFor(MAPPER.getTypeFactory().constructCollectionType(List.class, type)));
+        return read(reader, json);
+    }
+
+    private static <T> T read(ObjectReader reader, String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return reader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ошибка десериализации JSON", e);
+        }
+    }
+}
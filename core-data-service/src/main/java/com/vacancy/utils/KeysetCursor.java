@@ -0,0 +1,33 @@
+package com.vacancy.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Ключ keyset-пагинации (created_at, id), передаваемый клиенту как непрозрачная строка.
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    public KeysetCursor {
+        // строка без created_at выпала бы из выборки по ключу; колонки NOT NULL (db/009_created_at_not_null.sql)
+        Objects.requireNonNull(createdAt, "createdAt");
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.vacancy.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Ключ keyset-пагинации рейтинга (score, id), передаваемый клиенту как непрозрачная строка.
+ */
+public record ScoreCursor(double score, int id) {
+
+    public String encode() {
+        String raw = score + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScoreCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ScoreCursor(Double.parseDouble(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, e);
+        }
+    }
+}
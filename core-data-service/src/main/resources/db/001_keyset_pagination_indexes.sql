@@ -0,0 +1,21 @@
+-- Индексы для keyset-пагинации списков по (created_at, id).
+-- Схема ведется вручную (spring.jpa.hibernate.ddl-auto = none), скрипты применяются по порядку номеров.
+
+CREATE INDEX IF NOT EXISTS idx_resumes_user_created_id
+    ON resumes (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_vacancy_user_created_id
+    ON vacancy (user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_job_application_created_id
+    ON job_application (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_offers_created_id
+    ON offers (created_at DESC, id DESC);
+
+-- Фильтр по префиксу роли/названия: LOWER(x) LIKE 'prefix%'
+CREATE INDEX IF NOT EXISTS idx_resumes_role_prefix
+    ON resumes (user_id, lower(role) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_vacancy_title_prefix
+    ON vacancy (user_id, lower(title) text_pattern_ops);
@@ -0,0 +1,8 @@
+-- PDF резюме хранятся в PdfBlobStore (по умолчанию файловая система), в таблице только хэш и размер.
+
+ALTER TABLE resumes ADD COLUMN IF NOT EXISTS pdf_sha256 VARCHAR(64);
+ALTER TABLE resumes ADD COLUMN IF NOT EXISTS pdf_size BIGINT;
+
+-- Существующие PDF переносятся при старте с resume.pdf-storage.migrate-on-startup=true
+-- (ResumePdfMigrationRunner). После переноса колонку можно удалить:
+-- ALTER TABLE resumes DROP COLUMN pdf_content;
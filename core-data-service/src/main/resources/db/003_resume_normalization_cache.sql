@@ -0,0 +1,12 @@
+-- Кэш LLM-нормализации резюме: ключ - SHA-256 PDF и версия нормализатора.
+
+CREATE TABLE IF NOT EXISTS resume_normalization_cache (
+    content_sha256     VARCHAR(64) NOT NULL,
+    normalizer_version VARCHAR(32) NOT NULL,
+    payload            JSONB       NOT NULL,
+    created_at         TIMESTAMP   NOT NULL DEFAULT now(),
+    PRIMARY KEY (content_sha256, normalizer_version)
+);
+
+-- Записи устаревших версий нормализатора можно удалять:
+-- DELETE FROM resume_normalization_cache WHERE normalizer_version <> 'v1';
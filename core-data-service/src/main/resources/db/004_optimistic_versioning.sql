@@ -0,0 +1,4 @@
+-- Версии для оптимистичной блокировки (PATCH с If-Match).
+
+ALTER TABLE resumes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE vacancy ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Отпечаток входных данных полного сопоставления: при совпадении LLM повторно не вызывается.
+
+ALTER TABLE resume_vacancy_matches ADD COLUMN IF NOT EXISTS input_fingerprint VARCHAR(64);
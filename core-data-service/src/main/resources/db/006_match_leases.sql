@@ -0,0 +1,10 @@
+-- Аренда пары резюме/вакансия на время вызова LLM-скорера: один узел кластера считает, остальные ждут результат.
+
+CREATE TABLE IF NOT EXISTS match_leases (
+    resume_id   INTEGER     NOT NULL,
+    vacancy_id  BIGINT      NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    owner       VARCHAR(64) NOT NULL,
+    expires_at  TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (resume_id, vacancy_id)
+);
@@ -0,0 +1,6 @@
+-- Рейтинг кандидатов вакансии: keyset по (score DESC, id) и гистограмма оценок по одному индексу.
+-- score входит в ключ, поэтому гистограмма считается index-only scan без чтения jsonb-полей.
+
+CREATE INDEX IF NOT EXISTS idx_matches_vacancy_score_id
+    ON resume_vacancy_matches (vacancy_id, score DESC, id)
+    WHERE score IS NOT NULL;
@@ -0,0 +1,11 @@
+-- Аналитика навыков по результатам полного матчинга.
+-- matched_skills/unmatched_skills - jsonb-массивы строк. Индекс строится по массиву совпавших навыков
+-- в нижнем регистре, чтобы поиск навыка не зависел от написания: lower(x::text)::jsonb @> '["java"]'.
+-- Недостающие навыки только агрегируются (jsonb_array_elements_text), индекс им не нужен.
+
+CREATE INDEX IF NOT EXISTS idx_matches_matched_skills_lower
+    ON resume_vacancy_matches USING gin ((lower(matched_skills::text)::jsonb) jsonb_path_ops);
+
+-- Агрегаты по воронке пользователя и по одной вакансии
+CREATE INDEX IF NOT EXISTS idx_matches_user_vacancy
+    ON resume_vacancy_matches (user_id, vacancy_id);
@@ -0,0 +1,14 @@
+-- Keyset-пагинация по (created_at, id) не видит строк с NULL в created_at:
+-- такие строки считаются самыми старыми и попадают в конец списков.
+
+UPDATE vacancy SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL;
+ALTER TABLE vacancy ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE vacancy ALTER COLUMN created_at SET NOT NULL;
+
+UPDATE job_application SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL;
+ALTER TABLE job_application ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE job_application ALTER COLUMN created_at SET NOT NULL;
+
+UPDATE offers SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL;
+ALTER TABLE offers ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE offers ALTER COLUMN created_at SET NOT NULL;
@@ -0,0 +1,4 @@
+-- Проверка, ссылается ли еще какое-нибудь резюме на PDF, перед удалением файла из хранилища.
+
+CREATE INDEX IF NOT EXISTS idx_resumes_pdf_sha256
+    ON resumes (pdf_sha256) WHERE pdf_sha256 IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Время последнего расчета сопоставления: по нему узел, ждущий принудительный пересчет (forceRefresh),
+-- отличает свежий результат ведущего от сохраненного до запроса.
+
+ALTER TABLE resume_vacancy_matches ADD COLUMN IF NOT EXISTS scored_at TIMESTAMP;
+UPDATE resume_vacancy_matches SET scored_at = created_at WHERE scored_at IS NULL;
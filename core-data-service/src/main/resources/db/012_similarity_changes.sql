@@ -0,0 +1,38 @@
+-- Журнал изменений резюме и вакансий для графов HNSW (similarity.engine: hnsw).
+-- Триггеры пишут запись при создании, удалении и изменении полей, из которых строится вектор.
+-- Узлы переносят изменения в свои графы при старте и раз в similarity.hnsw.resync-interval,
+-- записи старше similarity.hnsw.change-retention удаляются. Смена владельца пишет и прежнего,
+-- и нового пользователя: запись нужно убрать из графа одного и добавить в граф другого.
+
+CREATE TABLE IF NOT EXISTS similarity_changes (
+    id         BIGSERIAL   PRIMARY KEY,
+    corpus     VARCHAR(16) NOT NULL,
+    record_id  BIGINT      NOT NULL,
+    user_id    BIGINT,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_similarity_changes_changed_at
+    ON similarity_changes (changed_at);
+
+CREATE OR REPLACE FUNCTION log_similarity_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        INSERT INTO similarity_changes (corpus, record_id, user_id) VALUES (TG_ARGV[0], OLD.id, OLD.user_id);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.user_id IS DISTINCT FROM OLD.user_id) THEN
+        INSERT INTO similarity_changes (corpus, record_id, user_id) VALUES (TG_ARGV[0], NEW.id, NEW.user_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_resumes_similarity_changes ON resumes;
+CREATE TRIGGER trg_resumes_similarity_changes
+    AFTER INSERT OR DELETE OR UPDATE OF role, hard_skills, work_experience, user_id ON resumes
+    FOR EACH ROW EXECUTE FUNCTION log_similarity_change('resumes');
+
+DROP TRIGGER IF EXISTS trg_vacancy_similarity_changes ON vacancy;
+CREATE TRIGGER trg_vacancy_similarity_changes
+    AFTER INSERT OR DELETE OR UPDATE OF title, skills, requirements, user_id ON vacancy
+    FOR EACH ROW EXECUTE FUNCTION log_similarity_change('vacancies');
@@ -0,0 +1,4 @@
+-- Индекс по недостающим навыкам не использовался: аналитика разворачивает массив unmatched_skills
+-- в агрегате, поиска по вхождению в нем нет. Индекс только замедлял запись сопоставлений.
+
+DROP INDEX IF EXISTS idx_matches_unmatched_skills_lower;
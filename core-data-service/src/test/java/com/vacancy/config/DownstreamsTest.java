@@ -0,0 +1,127 @@
+package com.vacancy.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamsTest {
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // отвечает распакованным телом и заголовком Content-Encoding запроса
+        server.createContext("/echo", exchange -> {
+            String encoding = Objects.requireNonNullElse(exchange.getRequestHeaders().getFirst("Content-Encoding"), "none");
+            byte[] body;
+            try (InputStream in = "gzip".equals(encoding)
+                    ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("X-Request-Encoding", encoding);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void bindsSettingsFromConfigurationProperties() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(Config.class)
+                .withPropertyValues(
+                        "http.clients.llm.base-url=" + baseUrl + "/",
+                        "http.clients.llm.gzip-requests=true",
+                        "http.clients.scorer.read-timeout=3m",
+                        "http.clients.default.max-connections=4")
+                .run(context -> {
+                    Downstreams downstreams = context.getBean(Downstreams.class);
+                    assertThat(downstreams.url(Downstream.LLM, "/resume/upload")).isEqualTo(baseUrl + "/resume/upload");
+                    assertThat(downstreams.settings(Downstream.LLM).gzipRequests()).isTrue();
+                    assertThat(downstreams.settings(Downstream.SCORER).readTimeout()).isEqualTo(Duration.ofMinutes(3));
+                    assertThat(downstreams.settings(Downstream.PARSER).baseUrl()).isEqualTo(Downstream.PARSER.defaultBaseUrl());
+                    assertThat(downstreams.settings(Downstream.PARSER).readTimeout()).isEqualTo(Duration.ofSeconds(60));
+                    assertThat(downstreams.defaults().maxConnections()).isEqualTo(4);
+                    assertThat(downstreams.resolve(URI.create(baseUrl + "/x"))).contains(Downstream.LLM);
+                });
+    }
+
+    @Test
+    void compressesJsonButNotMultipartThroughPooledClient() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(Config.class)
+                .withPropertyValues(
+                        "http.clients.llm.base-url=" + baseUrl,
+                        "http.clients.llm.gzip-requests=true",
+                        "http.clients.llm.gzip-min-size=16B")
+                .run(context -> {
+                    Downstreams downstreams = context.getBean(Downstreams.class);
+                    DownstreamRequestFactory factory = new DownstreamRequestFactory(downstreams);
+                    try {
+                        RestTemplate restTemplate = new RestTemplate(factory);
+                        restTemplate.getInterceptors().add(new GzipRequestInterceptor(downstreams));
+                        String url = downstreams.url(Downstream.LLM, "/echo");
+
+                        String json = "{\"skills\":\"" + "java ".repeat(100) + "\"}";
+                        HttpHeaders jsonHeaders = new HttpHeaders();
+                        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+                        var jsonResponse = restTemplate.postForEntity(url, new HttpEntity<>(json, jsonHeaders), String.class);
+                        assertThat(jsonResponse.getHeaders().getFirst("X-Request-Encoding")).isEqualTo("gzip");
+                        assertThat(jsonResponse.getBody()).isEqualTo(json);
+
+                        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+                        parts.add("file", new ByteArrayResource("%PDF-1.4 ".repeat(100).getBytes(StandardCharsets.US_ASCII)) {
+                            @Override
+                            public String getFilename() {
+                                return "resume.pdf";
+                            }
+                        });
+                        HttpHeaders multipartHeaders = new HttpHeaders();
+                        multipartHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
+                        var multipartResponse = restTemplate.postForEntity(url,
+                                new HttpEntity<>(parts, multipartHeaders), String.class);
+                        assertThat(multipartResponse.getHeaders().getFirst("X-Request-Encoding")).isEqualTo("none");
+                        assertThat(multipartResponse.getBody()).contains("resume.pdf");
+                    } finally {
+                        factory.destroy();
+                    }
+                });
+    }
+
+    @EnableConfigurationProperties(DownstreamProperties.class)
+    @Import(Downstreams.class)
+    static class Config {
+    }
+}
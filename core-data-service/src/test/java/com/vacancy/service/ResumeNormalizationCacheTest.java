@@ -0,0 +1,46 @@
+package com.vacancy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.dto.CandidateDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResumeNormalizationCacheTest {
+    private static final String SHA = "a".repeat(64);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResumeNormalizationCache cache =
+            new ResumeNormalizationCache(jdbcTemplate, new ObjectMapper(), meterRegistry, "v1", 10);
+
+    @Test
+    void failedLookupIsAMiss() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("cache table is down"));
+
+        assertThat(cache.get(SHA)).isEmpty();
+        assertThat(meterRegistry.get("resume.normalization.cache").tag("result", "miss").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failedWriteIsIgnoredAndKeptInMemory() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("cache table is down"));
+        CandidateDTO candidate = new CandidateDTO();
+        candidate.setName("Иван Иванов");
+
+        assertThatCode(() -> cache.put(SHA, candidate)).doesNotThrowAnyException();
+        assertThat(cache.get(SHA)).map(CandidateDTO::getName).contains("Иван Иванов");
+    }
+}
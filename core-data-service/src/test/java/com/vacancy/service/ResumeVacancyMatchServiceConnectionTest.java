@@ -0,0 +1,144 @@
+package com.vacancy.service;
+
+import com.vacancy.dto.ResumeDto;
+import com.vacancy.dto.ResumeVacancyMatchExternalRequest;
+import com.vacancy.dto.ResumeVacancyMatchFullRequest;
+import com.vacancy.dto.ResumeVacancyMatchResponseDto;
+import com.vacancy.dto.VacancyDto;
+import com.vacancy.model.Resume;
+import com.vacancy.model.ResumeVacancyMatch;
+import com.vacancy.model.Vacancy;
+import com.vacancy.repository.ResumeRepository;
+import com.vacancy.repository.ResumeVacancyMatchRepository;
+import com.vacancy.repository.UserRepository;
+import com.vacancy.repository.VacancyRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * matchFull не должен держать соединение из пула, пока ждет ответ скорера:
+ * одновременных сопоставлений больше, чем соединений в пуле, и все они доходят до скорера.
+ */
+class ResumeVacancyMatchServiceConnectionTest {
+    private static final int POOL_SIZE = 2;
+    private static final int CONCURRENT_MATCHES = 8;
+
+    private final ResumeVacancyMatchRepository matchRepository = mock(ResumeVacancyMatchRepository.class);
+    private final ResumeRepository resumeRepository = mock(ResumeRepository.class);
+    private final VacancyRepository vacancyRepository = mock(VacancyRepository.class);
+    private final ResumeService resumeService = mock(ResumeService.class);
+    private final VacancyService vacancyService = mock(VacancyService.class);
+    private final MatchRequestCoalescer coalescer = mock(MatchRequestCoalescer.class);
+    private final ScoringBatchClient scorer = mock(ScoringBatchClient.class);
+
+    private HikariDataSource dataSource;
+    private ResumeVacancyMatchService service;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:match-full;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(2_000);
+        dataSource = new HikariDataSource(config);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        service = new ResumeVacancyMatchService(matchRepository, resumeRepository, vacancyRepository,
+                mock(UserRepository.class), resumeService, vacancyService, transactionTemplate,
+                new SimpleMeterRegistry(), coalescer, scorer);
+        ReflectionTestUtils.setField(service, "scorerVersion", "v1");
+
+        when(resumeService.getResume(anyInt())).thenAnswer(inv -> {
+            ResumeDto resume = new ResumeDto();
+            resume.setId(inv.getArgument(0));
+            return resume;
+        });
+        when(vacancyService.getVacancy(anyLong())).thenAnswer(inv -> {
+            VacancyDto vacancy = new VacancyDto();
+            vacancy.setId(inv.getArgument(0));
+            return vacancy;
+        });
+        when(resumeRepository.findById(anyInt())).thenAnswer(inv -> {
+            Resume resume = new Resume();
+            resume.setId(inv.getArgument(0));
+            return Optional.of(resume);
+        });
+        when(vacancyRepository.findById(anyLong())).thenAnswer(inv -> {
+            Vacancy vacancy = new Vacancy();
+            vacancy.setId(inv.getArgument(0));
+            return Optional.of(vacancy);
+        });
+        when(matchRepository.save(any(ResumeVacancyMatch.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(coalescer.execute(anyInt(), anyLong(), anyString(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(3)).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void scorerCallDoesNotHoldPooledConnection() throws Exception {
+        int baseline = dataSource.getHikariPoolMXBean().getActiveConnections();
+        CountDownLatch allInScorer = new CountDownLatch(CONCURRENT_MATCHES);
+        CountDownLatch release = new CountDownLatch(1);
+        when(scorer.score(any())).thenAnswer(inv -> {
+            allInScorer.countDown();
+            release.await();
+            ResumeVacancyMatchResponseDto response = new ResumeVacancyMatchResponseDto();
+            response.setResumeId(inv.<ResumeVacancyMatchExternalRequest>getArgument(0).getResume().getId());
+            response.setVacancyId(1L);
+            response.setScore(80.0);
+            return response;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_MATCHES);
+        try {
+            List<Future<ResumeVacancyMatchResponseDto>> results = new ArrayList<>();
+            for (int i = 1; i <= CONCURRENT_MATCHES; i++) {
+                ResumeVacancyMatchFullRequest request = new ResumeVacancyMatchFullRequest();
+                request.setResumeId(i);
+                request.setVacancyId(1L);
+                results.add(callers.submit(() -> service.matchFull(request, null)));
+            }
+
+            assertThat(allInScorer.await(10, TimeUnit.SECONDS))
+                    .as("все %d вызовов дошли до скорера при пуле из %d соединений", CONCURRENT_MATCHES, POOL_SIZE)
+                    .isTrue();
+            assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(baseline);
+
+            release.countDown();
+            for (Future<ResumeVacancyMatchResponseDto> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getScore()).isEqualTo(80.0);
+            }
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
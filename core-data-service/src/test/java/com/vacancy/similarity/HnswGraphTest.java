@@ -0,0 +1,109 @@
+package com.vacancy.similarity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnswGraphTest {
+    private static final int DIMENSIONS = 16;
+    private static final int M = 8;
+    private static final int MAX_LEVEL = 4;
+    private static final int EF_CONSTRUCTION = 50;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void reopenedGraphKeepsIdsAndVectors() throws IOException {
+        Path file = directory.resolve("1.hnsw");
+        Map<Long, float[]> expected = new HashMap<>();
+        // больше начальной емкости, чтобы файл хотя бы раз вырос
+        try (HnswGraph graph = open(file)) {
+            for (long id = 1; id <= 300; id++) {
+                put(graph, expected, id);
+            }
+            for (long id = 1; id <= 50; id++) {
+                put(graph, expected, id);
+            }
+            for (long id = 251; id <= 300; id++) {
+                assertThat(graph.remove(id)).isTrue();
+                expected.remove(id);
+            }
+            assertThat(graph.remove(1_000)).isFalse();
+        }
+
+        try (HnswGraph graph = open(file)) {
+            assertGraph(graph, expected);
+            assertThat(graph.deletedRatio()).isGreaterThan(0);
+            graph.compact();
+            assertThat(graph.deletedRatio()).isZero();
+            assertGraph(graph, expected);
+            put(graph, expected, 1_001);
+        }
+
+        try (HnswGraph graph = open(file)) {
+            assertGraph(graph, expected);
+        }
+    }
+
+    @Test
+    void evictedGraphIsRecreatedEmpty() throws IOException {
+        try (HnswStore store = new HnswStore(directory, new HnswStore.Params(DIMENSIONS, M, MAX_LEVEL, EF_CONSTRUCTION))) {
+            HnswGraph graph = store.graph("resumes", 7);
+            graph.put(1, vector());
+            graph.close();
+            assertThatThrownBy(() -> graph.vector(1)).isInstanceOf(IllegalStateException.class);
+
+            store.evict("resumes", 7, graph);
+
+            assertThat(Files.exists(directory.resolve("resumes").resolve("7.hnsw"))).isFalse();
+            assertThat(store.existing("resumes", 7)).isEmpty();
+            HnswGraph fresh = store.graph("resumes", 7);
+            assertThat(fresh).isNotSameAs(graph);
+            assertThat(fresh.size()).isZero();
+        }
+    }
+
+    private static HnswGraph open(Path file) throws IOException {
+        return HnswGraph.open(file, DIMENSIONS, M, MAX_LEVEL, EF_CONSTRUCTION);
+    }
+
+    private void put(HnswGraph graph, Map<Long, float[]> expected, long id) {
+        float[] vector = vector();
+        graph.put(id, vector);
+        expected.put(id, vector);
+    }
+
+    private static void assertGraph(HnswGraph graph, Map<Long, float[]> expected) {
+        assertThat(graph.size()).isEqualTo(expected.size());
+        expected.forEach((id, vector) -> {
+            assertThat(graph.vector(id)).hasValueSatisfying(actual -> assertThat(actual).containsExactly(vector));
+            assertThat(graph.search(vector, 1, 100)).first().extracting(HnswGraph.Neighbor::id).isEqualTo(id);
+        });
+        assertThat(graph.vector(300)).isEmpty();
+    }
+
+    private float[] vector() {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -1,8 +1,16 @@
+import os
+from concurrent.futures import ThreadPoolExecutor
 from datetime import datetime
 
 from fastapi import APIRouter, HTTPException
 
-from src.models.schemas import ResumeVacancyFullMatchResponse, ResumeVacancyFullMatchRequest
+from src.models.schemas import (
+    ResumeVacancyFullMatchResponse,
+    ResumeVacancyFullMatchRequest,
+    ResumeVacancyFullMatchBatchRequest,
+    ResumeVacancyFullMatchBatchItem,
+    ResumeVacancyFullMatchBatchResponse,
+)
 from src.services.matcher import ResumeVacancyMatcher
 
 # Создание роутера FastAPI
@@ -11,6 +19,9 @@ router = APIRouter()
 # Инициализация сервисов
 matcher = ResumeVacancyMatcher()
 
+# Сколько пар пакета оценивается параллельно (вызовы LLM - это ожидание сети)
+BATCH_WORKERS = int(os.getenv("MATCH_BATCH_WORKERS", "8"))
+
 @router.post("/match-full", response_model=ResumeVacancyFullMatchResponse, tags=["Матчинг"])
 def match_full(request: ResumeVacancyFullMatchRequest):
     """
@@ -22,51 +33,81 @@ def match_full(request: ResumeVacancyFullMatchRequest):
     Возвращает расширенный результат сопоставления.
     """
     try:
-        resume = request.resume
-        vacancy = request.vacancy
-        resume_id = resume.id
-        vacancy_id = vacancy.id
-
-        # Формируем словари только с нужными полями
-        resume_dict = {
-            "hardSkills": resume.hardSkills,
-            "softSkills": resume.softSkills,
-            "education": [e.dict() for e in resume.education],
-            "workExperience": [w.dict() for w in resume.workExperience],
-            "role": resume.role
-        }
-        vacancy_dict = {
-            "title": vacancy.title,
-            "description": vacancy.description,
-            "requirements": vacancy.requirements,
-            "company": vacancy.company,
-            "responsibilities": vacancy.responsibilities,
-            "skills": vacancy.skills,
-            "salaryFrom": vacancy.salaryFrom,
-            "salaryTo": vacancy.salaryTo,
-            "experience": vacancy.experience,
-            "formatWork": vacancy.formatWork
-        }
-
-        score, positives, negatives, verdict, comment, matched_skills, unmatched_skills, clarifying_questions = matcher.get_llm_analysis(
-            resume_dict=resume_dict, vacancy_dict=vacancy_dict
-        )
-
-        created_at = datetime.utcnow().isoformat()
-
-        return ResumeVacancyFullMatchResponse(
-            id=1,
-            resumeId=resume_id,
-            vacancyId=vacancy_id,
-            matchedSkills=matched_skills,
-            unmatchedSkills=unmatched_skills,
-            llmComment=comment,
-            createdAt=created_at,
-            score=score,
-            positives=positives,
-            negatives=negatives,
-            verdict=verdict,
-            clarifyingQuestions=clarifying_questions
-        )
+        return _score(request)
     except Exception as e:
         raise HTTPException(status_code=500, detail=str(e))
+
+
+@router.post("/match-full/batch", response_model=ResumeVacancyFullMatchBatchResponse, tags=["Матчинг"])
+def match_full_batch(request: ResumeVacancyFullMatchBatchRequest):
+    """
+    Пакетное сопоставление резюме и вакансий
+
+    - **items**: список пар в формате /match-full
+
+    Пары оцениваются параллельно (не больше MATCH_BATCH_WORKERS одновременно).
+    Результаты возвращаются в порядке запроса; ошибка по одной паре не влияет на остальные.
+    """
+    def score_item(item: ResumeVacancyFullMatchRequest) -> ResumeVacancyFullMatchBatchItem:
+        try:
+            return ResumeVacancyFullMatchBatchItem(
+                resumeId=item.resume.id, vacancyId=item.vacancy.id, result=_score(item))
+        except Exception as e:
+            return ResumeVacancyFullMatchBatchItem(
+                resumeId=item.resume.id, vacancyId=item.vacancy.id, error=str(e))
+
+    if not request.items:
+        return ResumeVacancyFullMatchBatchResponse(results=[])
+    workers = min(BATCH_WORKERS, len(request.items))
+    with ThreadPoolExecutor(max_workers=workers) as executor:
+        results = list(executor.map(score_item, request.items))
+    return ResumeVacancyFullMatchBatchResponse(results=results)
+
+
+def _score(request: ResumeVacancyFullMatchRequest) -> ResumeVacancyFullMatchResponse:
+    resume = request.resume
+    vacancy = request.vacancy
+    resume_id = resume.id
+    vacancy_id = vacancy.id
+
+    # Формируем словари только с нужными полями
+    resume_dict = {
+        "hardSkills": resume.hardSkills,
+        "softSkills": resume.softSkills,
+        "education": [e.dict() for e in resume.education],
+        "workExperience": [w.dict() for w in resume.workExperience],
+        "role": resume.role
+    }
+    vacancy_dict = {
+        "title": vacancy.title,
+        "description": vacancy.description,
+        "requirements": vacancy.requirements,
+        "company": vacancy.company,
+        "responsibilities": vacancy.responsibilities,
+        "skills": vacancy.skills,
+        "salaryFrom": vacancy.salaryFrom,
+        "salaryTo": vacancy.salaryTo,
+        "experience": vacancy.experience,
+        "formatWork": vacancy.formatWork
+    }
+
+    score, positives, negatives, verdict, comment, matched_skills, unmatched_skills, clarifying_questions = matcher.get_llm_analysis(
+        resume_dict=resume_dict, vacancy_dict=vacancy_dict
+    )
+
+    created_at = datetime.utcnow().isoformat()
+
+    return ResumeVacancyFullMatchResponse(
+        id=1,
+        resumeId=resume_id,
+        vacancyId=vacancy_id,
+        matchedSkills=matched_skills,
+        unmatchedSkills=unmatched_skills,
+        llmComment=comment,
+        createdAt=created_at,
+        score=score,
+        positives=positives,
+        negatives=negatives,
+        verdict=verdict,
+        clarifyingQuestions=clarifying_questions
+    )
@@ -69,3 +69,21 @@ class ResumeVacancyFullMatchResponse(BaseModel):
     negatives: List[str]
     verdict: str
     clarifyingQuestions: List[str] = []
+
+
+class ResumeVacancyFullMatchBatchRequest(BaseModel):
+    """Пакет пар резюме/вакансия для сопоставления за один запрос"""
+    items: List[ResumeVacancyFullMatchRequest]
+
+
+class ResumeVacancyFullMatchBatchItem(BaseModel):
+    """Результат по одной паре пакета: либо result, либо error"""
+    resumeId: Optional[int] = None
+    vacancyId: Optional[int] = None
+    result: Optional[ResumeVacancyFullMatchResponse] = None
+    error: Optional[str] = None
+
+
+class ResumeVacancyFullMatchBatchResponse(BaseModel):
+    """Результаты пакета в порядке элементов запроса"""
+    results: List[ResumeVacancyFullMatchBatchItem]
@@ -38,6 +38,7 @@ import {
   Work as WorkIcon
 } from '@mui/icons-material';
 import { format } from 'date-fns';
+import { vacancyAPI } from '../../utils/api';
 import { ru } from 'date-fns/locale';
 import MatchingResults from '../Matching/MatchingResults';
 
@@ -232,16 +233,8 @@ const CandidateCard = ({ candidate, onEdit, onDelete, onStatusChange }) => {
   useEffect(() => {
     if (allVacanciesOpen) {
       setVacanciesLoading(true);
-      fetch('http://localhost:8081/api/vacancies', {
-        headers: {
-          'Content-Type': 'application/json',
-          ...(localStorage.getItem('hr_partner_auth') ? {
-            'Authorization': `Bearer ${JSON.parse(localStorage.getItem('hr_partner_auth')).token}`
-          } : {})
-        }
-      })
-        .then(res => res.json())
-        .then(data => setAllVacancies(data?.data || data || []))
+      vacancyAPI.getAllPages()
+        .then(res => setAllVacancies(res.data || []))
         .catch(() => setAllVacancies([]))
         .finally(() => setVacanciesLoading(false));
     }
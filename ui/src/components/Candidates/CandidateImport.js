@@ -91,6 +91,21 @@ const CandidateImport = ({ open, onClose, onImport }) => {
         body: formData
       });
       if (!response.ok) throw new Error('Ошибка при загрузке резюме');
+      // Резюме обрабатывается в фоне, ждем завершения по ссылке из Location
+      const ingestion = await response.json();
+      const statusUrl = `http://localhost:8081/api/resumes/ingestions/${ingestion.id}`;
+      let state = ingestion;
+      while (state.stage !== 'COMPLETED' && state.stage !== 'FAILED') {
+        await new Promise(resolve => setTimeout(resolve, 1000));
+        const statusResponse = await fetch(statusUrl, {
+          headers: {
+            ...(token ? { 'Authorization': `Bearer ${token}` } : {})
+          }
+        });
+        if (!statusResponse.ok) throw new Error('Ошибка при получении статуса загрузки');
+        state = await statusResponse.json();
+      }
+      if (state.stage === 'FAILED') throw new Error(state.error || 'Ошибка при обработке резюме');
       if (onImport) {
         onImport(); // Триггер обновления списка
       }
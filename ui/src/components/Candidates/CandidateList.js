@@ -17,7 +17,8 @@ import {
   Menu,
   MenuItem,
   ListItemIcon,
-  ListItemText
+  ListItemText,
+  CircularProgress
 } from '@mui/material';
 import { 
   Add as AddIcon, 
@@ -29,6 +30,7 @@ import {
 } from '@mui/icons-material';
 import CandidateCard from './CandidateCard';
 import CandidateImport from './CandidateImport';
+import { resumeAPI } from '../../utils/api';
 
 const CandidateList = () => {
   const [tabValue, setTabValue] = useState(0);
@@ -36,6 +38,8 @@ const CandidateList = () => {
   const [candidates, setCandidates] = useState([]);
   const [filteredCandidates, setFilteredCandidates] = useState([]);
   const [importDialogOpen, setImportDialogOpen] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [snackbar, setSnackbar] = useState({
     open: false,
     message: '',
@@ -117,20 +121,26 @@ const CandidateList = () => {
   
   const fetchResumes = async () => {
     try {
-      const auth = localStorage.getItem('hr_partner_auth');
-      const token = auth ? JSON.parse(auth).token : null;
-      const response = await fetch('http://localhost:8081/api/resumes', {
-        headers: {
-          'Content-Type': 'application/json',
-          ...(token ? { 'Authorization': `Bearer ${token}` } : {})
-        }
-      });
-      if (!response.ok) throw new Error('Ошибка загрузки резюме');
-      const data = await response.json();
-      setCandidates(data);
-      setFilteredCandidates(data);
+      const response = await resumeAPI.getAll();
+      setCandidates(response.data);
+      setFilteredCandidates(response.data);
+      setNextCursor(response.nextCursor);
     } catch (err) {
-      showSnackbar(err.message || 'Ошибка загрузки резюме', 'error');
+      showSnackbar('Ошибка загрузки резюме', 'error');
+    }
+  };
+
+  // Следующая страница резюме по курсору
+  const loadMoreResumes = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await resumeAPI.getAll({ cursor: nextCursor });
+      setCandidates(prev => [...prev, ...response.data]);
+      setNextCursor(response.nextCursor);
+    } catch (err) {
+      showSnackbar('Ошибка загрузки резюме', 'error');
+    } finally {
+      setLoadingMore(false);
     }
   };
   
@@ -138,6 +148,11 @@ const CandidateList = () => {
     fetchResumes();
     // eslint-disable-next-line
   }, []);
+
+  useEffect(() => {
+    filterCandidates(searchQuery, tabValue);
+    // eslint-disable-next-line
+  }, [candidates]);
   
   return (
     <Container maxWidth="lg" sx={{ mt: 4, mb: 4 }}>
@@ -217,6 +232,13 @@ const CandidateList = () => {
               </Typography>
             </Box>
           )}
+          {nextCursor && (
+            <Box sx={{ display: 'flex', justifyContent: 'center', pt: 3 }}>
+              <Button variant="outlined" onClick={loadMoreResumes} disabled={loadingMore}>
+                {loadingMore ? <CircularProgress size={24} /> : 'Показать еще'}
+              </Button>
+            </Box>
+          )}
         </Box>
       </Paper>
       
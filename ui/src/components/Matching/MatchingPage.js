@@ -83,8 +83,8 @@ const MatchingPage = () => {
   useEffect(() => {
     setLoadingDropdowns(true);
     Promise.all([
-      resumeAPI.getAll(),
-      vacancyAPI.getAll()
+      resumeAPI.getAllPages(),
+      vacancyAPI.getAllPages()
     ]).then(([resumesRes, vacanciesRes]) => {
       setResumes(resumesRes.data || []);
       setVacancies(vacanciesRes.data || []);
@@ -51,6 +51,8 @@ const VacancyList = () => {
   const [importMenuAnchorEl, setImportMenuAnchorEl] = useState(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   
   // Загрузка вакансий с сервера
   const fetchVacancies = async () => {
@@ -59,6 +61,7 @@ const VacancyList = () => {
     try {
       const response = await vacancyAPI.getAll();
       setVacancies(response.data);
+      setNextCursor(response.nextCursor);
       filterVacancies(searchQuery, tabValue, response.data);
     } catch (err) {
       setError('Ошибка загрузки вакансий');
@@ -67,6 +70,20 @@ const VacancyList = () => {
     }
   };
 
+  // Следующая страница вакансий по курсору
+  const loadMoreVacancies = async () => {
+    setLoadingMore(true);
+    try {
+      const response = await vacancyAPI.getAll({ cursor: nextCursor });
+      setVacancies(prev => [...prev, ...response.data]);
+      setNextCursor(response.nextCursor);
+    } catch (err) {
+      showSnackbar('Ошибка загрузки вакансий', 'error');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchVacancies();
     // eslint-disable-next-line
@@ -318,6 +335,13 @@ const VacancyList = () => {
               </Typography>
             </Box>
           )}
+          {nextCursor && (
+            <Box sx={{ display: 'flex', justifyContent: 'center', pt: 3 }}>
+              <Button variant="outlined" onClick={loadMoreVacancies} disabled={loadingMore}>
+                {loadingMore ? <CircularProgress size={24} /> : 'ПОКАЗАТЬ ЕЩЕ'}
+              </Button>
+            </Box>
+          )}
         </Box>
       </Paper>
       
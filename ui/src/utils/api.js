@@ -28,6 +28,27 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// Списки отдаются страницами { items, nextCursor }: отдаем компонентам массив,
+// а курсор следующей страницы кладем рядом в response.nextCursor
+const getPage = (url, params) =>
+  api.get(url, { params }).then((response) => ({
+    ...response,
+    data: response.data.items,
+    nextCursor: response.data.nextCursor,
+  }));
+
+// Все страницы списка подряд по nextCursor - для выпадающих списков выбора
+const getAllPages = async (url, params) => {
+  const items = [];
+  let cursor;
+  do {
+    const page = await getPage(url, { ...params, cursor });
+    items.push(...page.data);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return { data: items };
+};
+
 // API для работы с аутентификацией
 export const authAPI = {
   login: (credentials) => api.post('/auth/login', credentials),
@@ -36,7 +57,9 @@ export const authAPI = {
 
 // API для работы с вакансиями
 export const vacancyAPI = {
-  getAll: () => api.get('/vacancies'),
+  getAll: (params) => getPage('/vacancies', params),
+  getAllPages: (params) => getAllPages('/vacancies', params),
+  getSummaries: (params) => getPage('/vacancies/summary', params),
   getById: (id) => api.get(`/vacancies/${id}`),
   create: (data) => api.post('/vacancies', data),
   update: (id, data) => api.put(`/vacancies/${id}`, data),
@@ -45,7 +68,9 @@ export const vacancyAPI = {
 
 // API для работы с резюме
 export const resumeAPI = {
-  getAll: () => api.get('/resumes'),
+  getAll: (params) => getPage('/resumes', params),
+  getAllPages: (params) => getAllPages('/resumes', params),
+  getSummaries: (params) => getPage('/resumes/summary', params),
   getById: (id) => api.get(`/resumes/${id}`),
   create: (data) => api.post('/resumes', data),
   update: (id, data) => api.put(`/resumes/${id}`, data),
@@ -54,7 +79,7 @@ export const resumeAPI = {
 
 // API для работы с офферами
 export const offerAPI = {
-  getAll: () => api.get('/offers'),
+  getAll: (params) => getPage('/offers', params),
   getById: (id) => api.get(`/offers/${id}`),
   create: (data) => api.post('/offers', data),
   update: (id, data) => api.put(`/offers/${id}`, data),
@@ -63,7 +88,7 @@ export const offerAPI = {
 
 // API для работы с откликами на вакансии
 export const jobApplicationAPI = {
-  getAll: () => api.get('/job-applications'),
+  getAll: (params) => getPage('/job-applications', params),
   getById: (id) => api.get(`/job-applications/${id}`),
   create: (data) => api.post('/job-applications', data),
   update: (id, data) => api.put(`/job-applications/${id}`, data),